@@ -19,6 +19,7 @@ package com.google.devtools.depan.model.builder.api;
 import com.google.devtools.depan.model.GraphEdge;
 import com.google.devtools.depan.model.GraphModel;
 import com.google.devtools.depan.model.GraphNode;
+import com.google.devtools.depan.model.builder.simple.ConcurrentGraphModelBuilder;
 import com.google.devtools.depan.model.builder.simple.GraphModelBuilder;
 
 import java.util.Collection;
@@ -39,6 +40,14 @@ public class GraphBuilders {
     return new GraphModelBuilder();
   }
 
+  /**
+   * Provide a {@link GraphBuilder} that can be fed from several threads
+   * at once.
+   */
+  public static GraphBuilder createConcurrentGraphModelBuilder() {
+    return new ConcurrentGraphModelBuilder();
+  }
+
   /**
    * Build a graph given a collection of edges. Nodes are those involved in at
    * least one relation.
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.model.builder.chain;
+
+import com.google.devtools.depan.graph.api.Relation;
+import com.google.devtools.depan.model.GraphNode;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Captures the dependencies reported by an analysis so they can be
+ * delivered to another {@link DependenciesListener} later, typically on a
+ * different thread.
+ *
+ * A recorder behaves like a listener for an initially empty graph without
+ * any filtering: nodes are de-duped by id, and {@link #lookup(GraphNode)}
+ * and {@link #newNode(GraphNode)} only report nodes that were previously
+ * recorded.  Analyzers that stop early when a node already exists will
+ * therefore record a bit more than they would against a shared graph;
+ * those extra dependencies collapse into the existing ones on replay.
+ */
+public class DependencyRecorder implements DependenciesListener {
+
+  private final Map<String, GraphNode> nodes = Maps.newHashMap();
+
+  // Parallel lists, one entry per recorded call.  Orphan nodes are recorded
+  // with a null child and relation.
+  private final List<GraphNode> parents = Lists.newArrayList();
+  private final List<GraphNode> children = Lists.newArrayList();
+  private final List<Relation> relations = Lists.newArrayList();
+
+  @Override
+  public GraphNode lookup(GraphNode target) {
+    return nodes.get(target.getId());
+  }
+
+  @Override
+  public GraphNode newNode(GraphNode orphan) {
+    GraphNode result = nodes.get(orphan.getId());
+    if (null != result) {
+      return result;
+    }
+    nodes.put(orphan.getId(), orphan);
+    record(orphan, null, null);
+    return orphan;
+  }
+
+  @Override
+  public void newDep(GraphNode parent, GraphNode child, Relation t) {
+    record(mapNode(parent), mapNode(child), t);
+  }
+
+  @Override
+  public void newDeps(GraphNode parent, GraphNode[] childs, Relation t) {
+    for (GraphNode child : childs) {
+      newDep(parent, child, t);
+    }
+  }
+
+  /**
+   * Provide the number of recorded calls.
+   */
+  public int size() {
+    return parents.size();
+  }
+
+  /**
+   * Provide the parent node for a recorded call, or the orphan node for
+   * a recorded {@link #newNode(GraphNode)} call.
+   */
+  public GraphNode getParent(int index) {
+    return parents.get(index);
+  }
+
+  /**
+   * Provide the child node for a recorded call, or {@code null} for
+   * a recorded {@link #newNode(GraphNode)} call.
+   */
+  public GraphNode getChild(int index) {
+    return children.get(index);
+  }
+
+  /**
+   * Provide the relation for a recorded call, or {@code null} for
+   * a recorded {@link #newNode(GraphNode)} call.
+   */
+  public Relation getRelation(int index) {
+    return relations.get(index);
+  }
+
+  /**
+   * Deliver every recorded node and dependency to the {@code target}
+   * listener, in the order they were recorded.
+   */
+  public void replay(DependenciesListener target) {
+    int count = parents.size();
+    for (int index = 0; index < count; index++) {
+      GraphNode child = children.get(index);
+      if (null == child) {
+        target.newNode(parents.get(index));
+      } else {
+        target.newDep(parents.get(index), child, relations.get(index));
+      }
+    }
+  }
+
+  private GraphNode mapNode(GraphNode node) {
+    GraphNode result = nodes.get(node.getId());
+    if (null != result) {
+      return result;
+    }
+    nodes.put(node.getId(), node);
+    return node;
+  }
+
+  private void record(GraphNode parent, GraphNode child, Relation relation) {
+    parents.add(parent);
+    children.add(child);
+    relations.add(relation);
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.model.builder.simple;
+
+import com.google.devtools.depan.graph.basic.BasicEdge;
+import com.google.devtools.depan.graph.basic.BasicNode;
+import com.google.devtools.depan.model.GraphEdge;
+import com.google.devtools.depan.model.GraphModel;
+import com.google.devtools.depan.model.GraphNode;
+import com.google.devtools.depan.model.builder.api.GraphBuilder;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link GraphBuilder} that may be fed from several threads at once.
+ *
+ * Nodes are kept in a {@link ConcurrentHashMap}, so {@link #mapNode(GraphNode)}
+ * hands every caller the same instance for an id, no matter which thread
+ * inserted it first.  Edges are de-duped by a concurrent set.  Since the
+ * standard {@code DependenciesListener} chain keeps no state of its own,
+ * a chain built on this builder can also be shared between threads.
+ *
+ * The resulting {@link GraphModel} has the same nodes and edges as a
+ * {@link GraphModelBuilder} given the same calls.  It should be created
+ * once all of the threads have finished adding to the builder.
+ */
+public class ConcurrentGraphModelBuilder implements GraphBuilder {
+
+  private final ConcurrentMap<String, BasicNode<? extends String>> nodes =
+      new ConcurrentHashMap<String, BasicNode<? extends String>>();
+
+  private final Set<BasicEdge<? extends String>> edges =
+      ConcurrentHashMap.newKeySet();
+
+  @Override
+  public GraphEdge addEdge(GraphEdge edge) {
+    edges.add((BasicEdge<? extends String>) edge);
+    return edge;
+  }
+
+  @Override
+  public GraphNode findNode(String id) {
+    return (GraphNode) nodes.get(id);
+  }
+
+  @Override
+  public GraphNode newNode(GraphNode node) {
+    BasicNode<? extends String> prior =
+        nodes.putIfAbsent(node.getId(), (BasicNode<? extends String>) node);
+    if (null != prior) {
+      throw new GraphModelBuilder.DuplicateNodeException(
+          node.getId().toString());
+    }
+    return node;
+  }
+
+  @Override
+  public GraphNode mapNode(GraphNode mapNode) {
+    // Most nodes are mapped many times, so avoid the write path when the
+    // node is already known.
+    GraphNode result = findNode(mapNode.getId());
+    if (null != result) {
+      return result;
+    }
+
+    BasicNode<? extends String> prior = nodes.putIfAbsent(
+        mapNode.getId(), (BasicNode<? extends String>) mapNode);
+    if (null != prior) {
+      return (GraphNode) prior;
+    }
+    return mapNode;
+  }
+
+  @Override
+  public GraphModel createGraphModel() {
+    return new GraphModel(Maps.newHashMap(nodes), Sets.newHashSet(edges));
+  }
+}
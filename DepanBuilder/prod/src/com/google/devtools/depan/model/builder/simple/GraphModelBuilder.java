@@ -93,6 +93,6 @@ public class GraphModelBuilder implements GraphBuilder {
 
   @Override
   public GraphModel createGraphModel() {
-    return new GraphModel(nodes, edges);
+    return new GraphModel(Maps.newHashMap(nodes), Sets.newHashSet(edges));
   }
 }
@@ -93,6 +93,28 @@ public class BuilderTest { // extends BasicGraphTestCase {
     assertNotSame(foundEdge, foundFind);
   }
 
+  @Test
+  public void testReuseBuilder() {
+    GraphModelBuilder builder = new GraphModelBuilder();
+    GraphNode headNode = builder.newNode(createNode(HEAD));
+    GraphNode tailNode = builder.newNode(createNode(TAIL));
+    GraphModel first = builder.createGraphModel();
+
+    // Later additions do not change models that were already created.
+    GraphEdge simpleEdge = new GraphEdge(
+        headNode, tailNode, MockRelation.SIMPLE_RELATION);
+    builder.addEdge(simpleEdge);
+    builder.newNode(createNode("other"));
+    assertEquals(2, first.getNodes().size());
+    assertTrue(first.getEdges().isEmpty());
+    assertNull(first.findNode("other"));
+
+    GraphModel second = builder.createGraphModel();
+    assertSame(simpleEdge, second.findEdge(
+        MockRelation.SIMPLE_RELATION, headNode, tailNode));
+    assertEquals(1, second.getForwardEdges(headNode).size());
+  }
+
   @SuppressWarnings("unused")
   @Test
   public void testDuplicateNodes() {
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.model.builder.chain;
+
+import static org.junit.Assert.*;
+
+import com.google.devtools.depan.graph.basic.MockElement;
+import com.google.devtools.depan.graph.basic.MockRelation;
+import com.google.devtools.depan.model.GraphEdge;
+import com.google.devtools.depan.model.GraphModel;
+import com.google.devtools.depan.model.GraphNode;
+import com.google.devtools.depan.model.builder.api.GraphBuilder;
+import com.google.devtools.depan.model.builder.api.GraphBuilders;
+
+import org.junit.Test;
+
+public class DependencyRecorderTest {
+
+  @Test
+  public void testRecordedNodes() {
+    DependencyRecorder recorder = new DependencyRecorder();
+    MockElement head = new MockElement("head");
+    MockElement tail = new MockElement("tail");
+
+    assertNull(recorder.lookup(head));
+    recorder.newDep(head, tail, MockRelation.SIMPLE_RELATION);
+    assertSame(head, recorder.lookup(new MockElement("head")));
+
+    // Known nodes are reported instead of the new instance.
+    assertSame(tail, recorder.newNode(new MockElement("tail")));
+    assertEquals(1, recorder.size());
+
+    MockElement orphan = new MockElement("orphan");
+    assertSame(orphan, recorder.newNode(orphan));
+    assertEquals(2, recorder.size());
+  }
+
+  @Test
+  public void testReplay() {
+    GraphBuilder graphBuilder = GraphBuilders.createGraphModelBuilder();
+    DependenciesListener target = new DependenciesDispatcher(graphBuilder);
+    MockElement head = new MockElement("head");
+    MockElement tail = new MockElement("tail");
+    target.newDep(head, tail, MockRelation.SIMPLE_RELATION);
+
+    DependencyRecorder recorder = new DependencyRecorder();
+    recorder.newDep(new MockElement("head"), new MockElement("tail"),
+        MockRelation.SIMPLE_RELATION);
+    recorder.newDeps(new MockElement("head"),
+        new GraphNode[] { new MockElement("other") },
+        MockRelation.MEMBER_RELATION);
+    recorder.newNode(new MockElement("orphan"));
+    recorder.replay(target);
+
+    GraphModel graph = graphBuilder.createGraphModel();
+    assertEquals(4, graph.getNodes().size());
+    assertEquals(2, graph.getEdges().size());
+    assertSame(head, graph.findNode("head"));
+
+    GraphNode other = (GraphNode) graph.findNode("other");
+    assertTrue(graph.getEdgesSet().contains(
+        new GraphEdge(head, other, MockRelation.MEMBER_RELATION)));
+    assertNotNull(graph.findNode("orphan"));
+  }
+}
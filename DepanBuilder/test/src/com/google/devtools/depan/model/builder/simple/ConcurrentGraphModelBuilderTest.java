@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.model.builder.simple;
+
+import static org.junit.Assert.*;
+
+import com.google.devtools.depan.graph.basic.MockElement;
+import com.google.devtools.depan.graph.basic.MockRelation;
+import com.google.devtools.depan.model.GraphEdge;
+import com.google.devtools.depan.model.GraphModel;
+import com.google.devtools.depan.model.GraphNode;
+import com.google.devtools.depan.model.builder.chain.DependenciesDispatcher;
+import com.google.devtools.depan.model.builder.chain.DependenciesListener;
+
+import com.google.common.collect.Sets;
+
+import org.junit.Test;
+
+import java.util.Set;
+
+public class ConcurrentGraphModelBuilderTest {
+
+  private static final int THREAD_COUNT = 4;
+
+  private static final int NODE_COUNT = 500;
+
+  @Test
+  public void testMapNode() {
+    ConcurrentGraphModelBuilder builder = new ConcurrentGraphModelBuilder();
+    MockElement first = new MockElement("node");
+
+    assertNull(builder.findNode("node"));
+    assertSame(first, builder.mapNode(first));
+    assertSame(first, builder.mapNode(new MockElement("node")));
+    assertSame(first, builder.findNode("node"));
+  }
+
+  @Test(expected = GraphModelBuilder.DuplicateNodeException.class)
+  public void testDuplicateNode() {
+    ConcurrentGraphModelBuilder builder = new ConcurrentGraphModelBuilder();
+    builder.newNode(new MockElement("node"));
+    builder.newNode(new MockElement("node"));
+  }
+
+  @Test
+  public void testConcurrentInserts() throws InterruptedException {
+    final ConcurrentGraphModelBuilder concurrent =
+        new ConcurrentGraphModelBuilder();
+    final DependenciesListener listener =
+        new DependenciesDispatcher(concurrent);
+
+    // Every thread reports the same dependencies with its own node instances.
+    Thread[] threads = new Thread[THREAD_COUNT];
+    for (int index = 0; index < THREAD_COUNT; index++) {
+      threads[index] = new Thread() {
+        @Override
+        public void run() {
+          addChain(listener);
+        }
+      };
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    GraphModelBuilder sequential = new GraphModelBuilder();
+    addChain(new DependenciesDispatcher(sequential));
+
+    GraphModel expected = sequential.createGraphModel();
+    GraphModel result = concurrent.createGraphModel();
+    assertEquals(NODE_COUNT, result.getNodes().size());
+    assertEquals(getNodeIds(expected), getNodeIds(result));
+    assertEquals(getEdgeIds(expected), getEdgeIds(result));
+
+    // Edges must refer to the single mapped instance for each node.
+    Set<GraphNode> nodes = Sets.newIdentityHashSet();
+    nodes.addAll(result.getNodes());
+    for (GraphEdge edge : result.getEdges()) {
+      assertTrue(nodes.contains(edge.getHead()));
+      assertTrue(nodes.contains(edge.getTail()));
+    }
+  }
+
+  private static Set<String> getNodeIds(GraphModel graph) {
+    Set<String> result = Sets.newHashSet();
+    for (GraphNode node : graph.getNodes()) {
+      result.add(node.getId());
+    }
+    return result;
+  }
+
+  private static Set<String> getEdgeIds(GraphModel graph) {
+    Set<String> result = Sets.newHashSet();
+    for (GraphEdge edge : graph.getEdges()) {
+      result.add(edge.getHead().getId() + " " + edge.getRelation()
+          + " " + edge.getTail().getId());
+    }
+    return result;
+  }
+
+  private static void addChain(DependenciesListener listener) {
+    for (int index = 1; index < NODE_COUNT; index++) {
+      listener.newDep(
+          new MockElement("node" + (index - 1)),
+          new MockElement("node" + index),
+          MockRelation.SIMPLE_RELATION);
+      listener.newDep(
+          new MockElement("node0"),
+          new MockElement("node" + index),
+          MockRelation.MEMBER_RELATION);
+    }
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.java.bytecode.eclipse;
+
+import org.objectweb.asm.ClassReader;
+
+/**
+ * Define how much detail a bytecode analysis extracts from each class.
+ *
+ * Debug information and stack map frames never contribute dependencies,
+ * so they are skipped at every level.
+ */
+public enum AnalysisGranularity {
+
+  /**
+   * Only type, package, and file nodes.  References from field and method
+   * declarations and from method bodies become dependencies of the
+   * declaring type.
+   */
+  TYPE("type", ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES),
+
+  /**
+   * Adds nodes for the declared fields and methods, with the dependencies
+   * of their declarations.  Method bodies are not read.
+   */
+  MEMBER("member",
+      ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES),
+
+  /**
+   * Adds the calls, field accesses, and type references of method bodies.
+   */
+  FULL("full", ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+
+  public final String label;
+
+  private final int parsingOptions;
+
+  private AnalysisGranularity(String label, int parsingOptions) {
+    this.label = label;
+    this.parsingOptions = parsingOptions;
+  }
+
+  /**
+   * Provide the {@link ClassReader#accept} flags for this level of detail.
+   */
+  public int getParsingOptions() {
+    return parsingOptions;
+  }
+
+  public static AnalysisGranularity getAnalysisGranularity(String choice) {
+    for (AnalysisGranularity item : AnalysisGranularity.values()) {
+      if (item.label.equals(choice)) {
+        return item;
+      }
+    }
+    return null;
+  }
+}
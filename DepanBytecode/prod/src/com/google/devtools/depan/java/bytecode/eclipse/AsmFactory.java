@@ -19,6 +19,7 @@ package com.google.devtools.depan.java.bytecode.eclipse;
 import com.google.devtools.depan.filesystem.graph.FileElement;
 import com.google.devtools.depan.java.bytecode.impl.ClassDepLister;
 import com.google.devtools.depan.java.bytecode.impl.FieldDepLister;
+import com.google.devtools.depan.java.bytecode.impl.JavaElementCache;
 import com.google.devtools.depan.java.bytecode.impl.MethodDepLister;
 import com.google.devtools.depan.java.graph.MethodElement;
 import com.google.devtools.depan.model.builder.chain.DependenciesListener;
@@ -48,16 +49,19 @@ public interface AsmFactory {
   FieldVisitor getGenericFieldVisitor();
 
   /**
-   * Provide a new {@link ClassVisitor} instance.
+   * Provide a new {@link ClassVisitor} instance that reports dependencies
+   * at the given level of detail, using elements from the shared cache.
    */
   ClassVisitor buildClassVisitor(
-      DependenciesListener builder, FileElement fileNode);
+      DependenciesListener builder, FileElement fileNode,
+      AnalysisGranularity granularity, JavaElementCache elements);
 
   /**
    * Provide a new {@link MethodVisitor} instance.
    */
   MethodVisitor buildMethodVisitor(
-      DependenciesListener builder, MethodElement method);
+      DependenciesListener builder, MethodElement method,
+      JavaElementCache elements);
 
   /////////////////////////////////////
   // Abstract Factory provides the standard factory methods.
@@ -66,14 +70,16 @@ public interface AsmFactory {
 
     @Override
     public ClassVisitor buildClassVisitor(
-        DependenciesListener builder, FileElement fileNode) {
-      return new ClassDepLister(this, builder, fileNode);
+        DependenciesListener builder, FileElement fileNode,
+        AnalysisGranularity granularity, JavaElementCache elements) {
+      return new ClassDepLister(
+          this, builder, fileNode, granularity, elements);
     }
 
     @Override
     public MethodVisitor buildMethodVisitor(
-        DependenciesListener dl, MethodElement m) {
-      return new MethodDepLister(this, dl, m);
+        DependenciesListener dl, MethodElement m, JavaElementCache elements) {
+      return new MethodDepLister(this, dl, m, elements);
     }
   }
 
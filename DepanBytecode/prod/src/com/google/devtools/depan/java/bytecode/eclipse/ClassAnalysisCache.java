@@ -0,0 +1,458 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.java.bytecode.eclipse;
+
+import com.google.devtools.depan.filesystem.graph.DirectoryElement;
+import com.google.devtools.depan.filesystem.graph.FileElement;
+import com.google.devtools.depan.filesystem.graph.FileSystemRelation;
+import com.google.devtools.depan.graph.api.Relation;
+import com.google.devtools.depan.java.graph.FieldElement;
+import com.google.devtools.depan.java.graph.InterfaceElement;
+import com.google.devtools.depan.java.graph.JavaRelation;
+import com.google.devtools.depan.java.graph.MethodElement;
+import com.google.devtools.depan.java.graph.PackageElement;
+import com.google.devtools.depan.java.graph.TypeElement;
+import com.google.devtools.depan.model.GraphNode;
+import com.google.devtools.depan.model.builder.chain.DependencyRecorder;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent cache of the dependencies found in individual class files.
+ *
+ * Each entry is keyed by the path of the class file, and validated by the
+ * size and CRC-32 of its contents.  For jar entries these are the values
+ * already recorded in the archive.  An entry holds the dependencies that
+ * the class visitors reported for the class, as captured by a
+ * {@link DependencyRecorder}, so unchanged classes can be replayed without
+ * parsing them again.  Recordings are unfiltered, so a cache can be shared
+ * by analyses that use different element filters.
+ *
+ * A cache file is expected to serve one class path.  Only the entries that
+ * are used or added since the cache was loaded are written by
+ * {@link #save()}, which drops the classes that no longer exist.
+ *
+ * Instances are not thread-safe.
+ */
+public class ClassAnalysisCache {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(ClassAnalysisCache.class.getName());
+
+  private static final int MAGIC = 0x44436163; // "DCac"
+
+  /** Increment whenever the format or the recorded dependencies change. */
+  private static final int FORMAT_VERSION = 2;
+
+  // Node kinds
+  private static final byte TYPE_NODE = 0;
+  private static final byte INTERFACE_NODE = 1;
+  private static final byte PACKAGE_NODE = 2;
+  private static final byte METHOD_NODE = 3;
+  private static final byte FIELD_NODE = 4;
+  private static final byte FILE_NODE = 5;
+  private static final byte DIRECTORY_NODE = 6;
+
+  // Relation kinds
+  private static final byte JAVA_RELATION = 0;
+  private static final byte FILE_SYSTEM_RELATION = 1;
+
+  /** Node reference for the missing child of an orphan node. */
+  private static final int NO_NODE = -1;
+
+  private final File cacheFile;
+
+  private final int apiLevel;
+
+  private final AnalysisGranularity granularity;
+
+  private final Map<String, CacheEntry> loaded;
+
+  private final Map<String, CacheEntry> current = Maps.newHashMap();
+
+  private ClassAnalysisCache(
+      File cacheFile, int apiLevel, AnalysisGranularity granularity,
+      Map<String, CacheEntry> loaded) {
+    this.cacheFile = cacheFile;
+    this.apiLevel = apiLevel;
+    this.granularity = granularity;
+    this.loaded = loaded;
+  }
+
+  /**
+   * Load the cache stored in {@code cacheFile}.  A missing or unreadable
+   * cache file, or one written for a different ASM level or granularity,
+   * provides an empty cache.
+   *
+   * @param cacheFile location of persistent cache
+   * @param apiLevel ASM level used to analyze the class files
+   * @param granularity level of detail of the recorded dependencies
+   */
+  public static ClassAnalysisCache load(
+      File cacheFile, int apiLevel, AnalysisGranularity granularity) {
+    Map<String, CacheEntry> entries = Maps.newHashMap();
+    if (cacheFile.exists()) {
+      try {
+        readEntries(cacheFile, apiLevel, granularity, entries);
+      } catch (IOException errIo) {
+        LOG.warn("Ignoring unreadable class cache {}", cacheFile, errIo);
+        entries.clear();
+      } catch (RuntimeException errRuntime) {
+        LOG.warn("Ignoring corrupt class cache {}", cacheFile, errRuntime);
+        entries.clear();
+      }
+    }
+    return new ClassAnalysisCache(cacheFile, apiLevel, granularity, entries);
+  }
+
+  /**
+   * Compute the checksum used to validate cache entries.
+   */
+  public static long computeCrc(byte[] content) {
+    CRC32 result = new CRC32();
+    result.update(content, 0, content.length);
+    return result.getValue();
+  }
+
+  /**
+   * Provide the recorded dependencies for a class file, or {@code null}
+   * if the cache has no valid entry for the class file's contents.
+   */
+  public DependencyRecorder find(String path, long size, long crc) {
+    CacheEntry entry = current.get(path);
+    if (null == entry) {
+      entry = loaded.get(path);
+    }
+    if ((null == entry) || (entry.size != size) || (entry.crc != crc)) {
+      return null;
+    }
+    current.put(path, entry);
+    return entry.dependencies;
+  }
+
+  /**
+   * Save the recorded dependencies for a class file's contents.
+   */
+  public void put(
+      String path, long size, long crc, DependencyRecorder dependencies) {
+    if (isCacheable(dependencies)) {
+      current.put(path, new CacheEntry(size, crc, dependencies));
+    }
+  }
+
+  /**
+   * Write the used and added entries to the cache file.  The file is
+   * replaced only after the new contents are completely written.
+   */
+  public void save() throws IOException {
+    File tempFile = new File(cacheFile.getPath() + ".tmp");
+    DataOutputStream output = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(tempFile)));
+    try {
+      writeEntries(output);
+    } finally {
+      output.close();
+    }
+    Files.move(tempFile.toPath(), cacheFile.toPath(),
+        StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  /////////////////////////////////////
+  // Reading
+
+  private static void readEntries(
+      File cacheFile, int apiLevel, AnalysisGranularity granularity,
+      Map<String, CacheEntry> entries) throws IOException {
+    DataInputStream input = new DataInputStream(
+        new BufferedInputStream(new FileInputStream(cacheFile)));
+    try {
+      if ((MAGIC != input.readInt())
+          || (FORMAT_VERSION != input.readInt())
+          || (apiLevel != input.readInt())
+          || !granularity.name().equals(input.readUTF())) {
+        LOG.info("Ignoring outdated class cache {}", cacheFile);
+        return;
+      }
+
+      List<GraphNode> nodes = Lists.newArrayList();
+      int entryCount = input.readInt();
+      for (int index = 0; index < entryCount; index++) {
+        String path = input.readUTF();
+        long size = input.readLong();
+        long crc = input.readLong();
+        DependencyRecorder dependencies = readDependencies(input, nodes);
+        entries.put(path, new CacheEntry(size, crc, dependencies));
+      }
+    } finally {
+      input.close();
+    }
+  }
+
+  private static DependencyRecorder readDependencies(
+      DataInputStream input, List<GraphNode> nodes) throws IOException {
+    DependencyRecorder result = new DependencyRecorder();
+    int recordCount = input.readInt();
+    for (int index = 0; index < recordCount; index++) {
+      GraphNode parent = readNode(input, nodes);
+      GraphNode child = readNode(input, nodes);
+      if (null == child) {
+        result.newNode(parent);
+      } else {
+        result.newDep(parent, child, readRelation(input));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Nodes are written once, the first time they are referenced.
+   * A reference to the next unassigned index carries the node definition.
+   */
+  private static GraphNode readNode(
+      DataInputStream input, List<GraphNode> nodes) throws IOException {
+    int ref = input.readInt();
+    if (NO_NODE == ref) {
+      return null;
+    }
+    if (ref < nodes.size()) {
+      return nodes.get(ref);
+    }
+    if (ref != nodes.size()) {
+      throw new IOException("Invalid node reference " + ref);
+    }
+
+    GraphNode result = readNodeDefinition(input);
+    nodes.add(result);
+    return result;
+  }
+
+  private static GraphNode readNodeDefinition(DataInputStream input)
+      throws IOException {
+    byte kind = input.readByte();
+    switch (kind) {
+    case TYPE_NODE:
+      return new TypeElement(input.readUTF());
+    case INTERFACE_NODE:
+      return new InterfaceElement(input.readUTF());
+    case PACKAGE_NODE:
+      return new PackageElement(input.readUTF());
+    case METHOD_NODE:
+      String signature = input.readUTF();
+      String methodName = input.readUTF();
+      return new MethodElement(
+          signature, methodName, new TypeElement(input.readUTF()));
+    case FIELD_NODE:
+      String fieldName = input.readUTF();
+      TypeElement type = new TypeElement(input.readUTF());
+      return new FieldElement(
+          fieldName, type, new TypeElement(input.readUTF()));
+    case FILE_NODE:
+      return new FileElement(input.readUTF());
+    case DIRECTORY_NODE:
+      return new DirectoryElement(input.readUTF());
+    }
+    throw new IOException("Unknown node kind " + kind);
+  }
+
+  private static Relation readRelation(DataInputStream input)
+      throws IOException {
+    byte kind = input.readByte();
+    String name = input.readUTF();
+    switch (kind) {
+    case JAVA_RELATION:
+      return JavaRelation.valueOf(name);
+    case FILE_SYSTEM_RELATION:
+      return FileSystemRelation.valueOf(name);
+    }
+    throw new IOException("Unknown relation kind " + kind);
+  }
+
+  /////////////////////////////////////
+  // Writing
+
+  private void writeEntries(DataOutputStream output) throws IOException {
+    output.writeInt(MAGIC);
+    output.writeInt(FORMAT_VERSION);
+    output.writeInt(apiLevel);
+    output.writeUTF(granularity.name());
+
+    Map<GraphNode, Integer> nodeRefs = Maps.newHashMap();
+    output.writeInt(current.size());
+    for (Map.Entry<String, CacheEntry> entry : current.entrySet()) {
+      CacheEntry value = entry.getValue();
+      output.writeUTF(entry.getKey());
+      output.writeLong(value.size);
+      output.writeLong(value.crc);
+      writeDependencies(output, value.dependencies, nodeRefs);
+    }
+  }
+
+  private static void writeDependencies(
+      DataOutputStream output, DependencyRecorder dependencies,
+      Map<GraphNode, Integer> nodeRefs) throws IOException {
+    int recordCount = dependencies.size();
+    output.writeInt(recordCount);
+    for (int index = 0; index < recordCount; index++) {
+      writeNode(output, dependencies.getParent(index), nodeRefs);
+      GraphNode child = dependencies.getChild(index);
+      if (null == child) {
+        output.writeInt(NO_NODE);
+      } else {
+        writeNode(output, child, nodeRefs);
+        writeRelation(output, dependencies.getRelation(index));
+      }
+    }
+  }
+
+  private static void writeNode(
+      DataOutputStream output, GraphNode node,
+      Map<GraphNode, Integer> nodeRefs) throws IOException {
+    Integer ref = nodeRefs.get(node);
+    if (null != ref) {
+      output.writeInt(ref);
+      return;
+    }
+
+    int nextRef = nodeRefs.size();
+    nodeRefs.put(node, nextRef);
+    output.writeInt(nextRef);
+    writeNodeDefinition(output, node);
+  }
+
+  private static void writeNodeDefinition(
+      DataOutputStream output, GraphNode node) throws IOException {
+    if (node instanceof TypeElement) {
+      output.writeByte(TYPE_NODE);
+      output.writeUTF(((TypeElement) node).getFullyQualifiedName());
+      return;
+    }
+    if (node instanceof InterfaceElement) {
+      output.writeByte(INTERFACE_NODE);
+      output.writeUTF(((InterfaceElement) node).getFullyQualifiedName());
+      return;
+    }
+    if (node instanceof PackageElement) {
+      output.writeByte(PACKAGE_NODE);
+      output.writeUTF(((PackageElement) node).getPackageName());
+      return;
+    }
+    if (node instanceof MethodElement) {
+      MethodElement method = (MethodElement) node;
+      output.writeByte(METHOD_NODE);
+      output.writeUTF(method.getSignature());
+      output.writeUTF(method.getName());
+      output.writeUTF(method.getClassElement().getFullyQualifiedName());
+      return;
+    }
+    if (node instanceof FieldElement) {
+      FieldElement field = (FieldElement) node;
+      output.writeByte(FIELD_NODE);
+      output.writeUTF(field.getName());
+      output.writeUTF(field.getType().getFullyQualifiedName());
+      output.writeUTF(field.getContainerClass().getFullyQualifiedName());
+      return;
+    }
+    if (node instanceof FileElement) {
+      output.writeByte(FILE_NODE);
+      output.writeUTF(((FileElement) node).getPath());
+      return;
+    }
+    if (node instanceof DirectoryElement) {
+      output.writeByte(DIRECTORY_NODE);
+      output.writeUTF(((DirectoryElement) node).getPath());
+      return;
+    }
+    throw new IllegalArgumentException("Uncacheable node " + node.getId());
+  }
+
+  private static void writeRelation(DataOutputStream output, Relation relation)
+      throws IOException {
+    if (relation instanceof JavaRelation) {
+      output.writeByte(JAVA_RELATION);
+    } else if (relation instanceof FileSystemRelation) {
+      output.writeByte(FILE_SYSTEM_RELATION);
+    } else {
+      throw new IllegalArgumentException("Uncacheable relation " + relation);
+    }
+    output.writeUTF(((Enum<?>) relation).name());
+  }
+
+  /////////////////////////////////////
+  // Entries
+
+  private static boolean isCacheable(DependencyRecorder dependencies) {
+    int recordCount = dependencies.size();
+    for (int index = 0; index < recordCount; index++) {
+      if (!isCacheable(dependencies.getParent(index))) {
+        return false;
+      }
+      GraphNode child = dependencies.getChild(index);
+      if (null == child) {
+        continue;
+      }
+      if (!isCacheable(child)) {
+        return false;
+      }
+      Relation relation = dependencies.getRelation(index);
+      if (!(relation instanceof JavaRelation)
+          && !(relation instanceof FileSystemRelation)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isCacheable(GraphNode node) {
+    return (node instanceof TypeElement)
+        || (node instanceof InterfaceElement)
+        || (node instanceof PackageElement)
+        || (node instanceof MethodElement)
+        || (node instanceof FieldElement)
+        || (node instanceof FileElement)
+        || (node instanceof DirectoryElement);
+  }
+
+  private static class CacheEntry {
+    private final long size;
+    private final long crc;
+    private final DependencyRecorder dependencies;
+
+    public CacheEntry(long size, long crc, DependencyRecorder dependencies) {
+      this.size = size;
+      this.crc = crc;
+      this.dependencies = dependencies;
+    }
+  }
+}
@@ -16,38 +16,59 @@
 
 package com.google.devtools.depan.java.bytecode.eclipse;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Holder for Java bytecode analysis statistics.  This decouples the stats
  * from the analysis processes, and should be useful when we add the ability
  * to load Java dependencies from multiple directories and jars.
  *
+ * The counters are safe to update from concurrent class file readers.
+ *
  * @author <a href="leeca@google.com">Lee Carver</a>
  */
 public class ClassAnalysisStats {
 
-  private int classesLoaded;
-  private int classesFailed;
+  private final AtomicInteger classesLoaded = new AtomicInteger();
+  private final AtomicInteger classesFailed = new AtomicInteger();
+  private final AtomicInteger classesCached = new AtomicInteger();
 
   public void incrClassesLoaded() {
-    classesLoaded++;
+    classesLoaded.incrementAndGet();
   }
 
   public void incrClassesFailed() {
-    classesFailed++;
+    classesFailed.incrementAndGet();
+  }
+
+  /**
+   * Count a class whose dependencies were replayed from an analysis cache.
+   * Cached classes are also counted as loaded.
+   */
+  public void incrClassesCached() {
+    classesCached.incrementAndGet();
+    classesLoaded.incrementAndGet();
   }
 
   /**
    * @return the classesFailed
    */
   public int getClassesLoaded() {
-    return classesLoaded;
+    return classesLoaded.get();
   }
 
   /**
    * @return the classesFailed
    */
   public int getClassesFailed() {
-    return classesFailed;
+    return classesFailed.get();
+  }
+
+  /**
+   * @return the classesCached
+   */
+  public int getClassesCached() {
+    return classesCached.get();
   }
 
   /**
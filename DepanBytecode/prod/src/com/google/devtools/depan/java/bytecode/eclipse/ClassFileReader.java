@@ -17,6 +17,7 @@
 package com.google.devtools.depan.java.bytecode.eclipse;
 
 import com.google.devtools.depan.filesystem.graph.FileElement;
+import com.google.devtools.depan.java.bytecode.impl.JavaElementCache;
 import com.google.devtools.depan.model.builder.chain.DependenciesListener;
 
 import org.objectweb.asm.ClassReader;
@@ -41,15 +42,30 @@ public class ClassFileReader {
 
   private final ClassAnalysisStats analysisStats;
 
+  private final AnalysisGranularity granularity;
+
+  /** Shared by every class file in the analysis. */
+  private final JavaElementCache elements = new JavaElementCache();
+
   /**
    * Construct a reader, using a common stats counter.
    * 
-   * @param packageBuilder
+   * @param granularity level of detail for each class's dependencies
    */
   public ClassFileReader(
-      AsmFactory asmFactory, ClassAnalysisStats analysisStats) {
+      AsmFactory asmFactory, ClassAnalysisStats analysisStats,
+      AnalysisGranularity granularity) {
     this.asmFactory = asmFactory;
     this.analysisStats = analysisStats;
+    this.granularity = granularity;
+  }
+
+  /**
+   * Construct a reader for {@link AnalysisGranularity#FULL} analysis.
+   */
+  public ClassFileReader(
+      AsmFactory asmFactory, ClassAnalysisStats analysisStats) {
+    this(asmFactory, analysisStats, AnalysisGranularity.FULL);
   }
 
   /**
@@ -64,11 +80,9 @@ public class ClassFileReader {
       FileElement fileNode,
       InputStream content) {
 
-    ClassVisitor cd = asmFactory.buildClassVisitor(builder, fileNode);
     try {
       ClassReader cr = new ClassReader(content);
-      cr.accept(cd, 0);
-      analysisStats.incrClassesLoaded();
+      acceptClass(builder, fileNode, cr);
       return;
     } catch (IOException ioErr) {
       LOG.warn(
@@ -79,4 +93,47 @@ public class ClassFileReader {
 
     analysisStats.incrClassesFailed();
   }
+
+  /**
+   * Process a single class file whose contents have already been read.
+   * Readers may be shared by several threads, as long as each thread
+   * supplies its own {@code builder}.
+   * 
+   * @param builder destination of discovered dependencies
+   * @param fileNode file node associated with the contents
+   * @param content complete bytes of the .class file.
+   * @return {@code true} if the class file was analyzed successfully
+   */
+  public boolean readClassFile(
+      DependenciesListener builder,
+      FileElement fileNode,
+      byte[] content) {
+
+    try {
+      ClassReader cr = new ClassReader(content);
+      acceptClass(builder, fileNode, cr);
+      return true;
+    } catch (ArrayIndexOutOfBoundsException bndException) {
+      LOG.info("Unreadable class file for {}", fileNode.getId());
+    }
+
+    analysisStats.incrClassesFailed();
+    return false;
+  }
+
+  public ClassAnalysisStats getAnalysisStats() {
+    return analysisStats;
+  }
+
+  public AnalysisGranularity getGranularity() {
+    return granularity;
+  }
+
+  private void acceptClass(
+      DependenciesListener builder, FileElement fileNode, ClassReader cr) {
+    ClassVisitor cd = asmFactory.buildClassVisitor(
+        builder, fileNode, granularity, elements);
+    cr.accept(cd, granularity.getParsingOptions());
+    analysisStats.incrClassesLoaded();
+  }
 }
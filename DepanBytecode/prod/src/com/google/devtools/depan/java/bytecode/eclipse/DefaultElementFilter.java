@@ -31,6 +31,7 @@ import com.google.devtools.depan.model.builder.chain.ElementFilter;
 import com.google.common.collect.Lists;
 
 import java.util.Collection;
+import java.util.Collections;
 
 /**
  * Default implementation for the ElementFilter interface. Filter only
@@ -45,6 +46,12 @@ import java.util.Collection;
  * the filter: com.google.devtools.depan,
  * com.google.devtools.depan.model.DefaultElementFilter...
  *
+ * Package names may also be excluded.  The longest matching package
+ * name decides whether an element passes, so excluded sub-packages of
+ * a whitelisted package are left out.  The names are compiled into a
+ * {@link PackagePrefixTrie}, so the cost of each test depends on the
+ * length of the element's name, not on the number of package names.
+ *
  * @author ycoppel@google.com (Yohann Coppel)
  *
  */
@@ -52,11 +59,17 @@ public class DefaultElementFilter extends JavaElementDispatcher<Boolean>
     implements ElementTransformer<Boolean>, ElementFilter {
 
   /**
-   * Whitelist of package name for used to filter TypeElement, InterfaceElement
-   * and PackageElement. Only objects in or under the whitelist package names
-   * pass this filter
+   * Prefix character used in filter input lines for excluded packages.
+   */
+  public static final String EXCLUDE_MARKER = "-";
+
+  /**
+   * Compiled whitelist and blacklist of package names used to filter
+   * TypeElement, InterfaceElement and PackageElement.  Only objects in or
+   * under the whitelist package names, and not under a more specific
+   * blacklist package name, pass this filter.
    */
-  private final Collection<String> packageWhitelist;
+  private final PackagePrefixTrie packageNames;
 
   /**
    * Construct a new DefaultElementFilter based on the given whitelist of
@@ -71,7 +84,23 @@ public class DefaultElementFilter extends JavaElementDispatcher<Boolean>
    * Java elements for addition to the dependency graphs.
    */
   public DefaultElementFilter(Collection<String> packageWhitelist) {
-    this.packageWhitelist = packageWhitelist;
+    this(packageWhitelist, Collections.<String>emptyList());
+  }
+
+  /**
+   * Construct a new DefaultElementFilter that also excludes some packages.
+   * A Java element is selected if the longest package name it starts with
+   * is in the whitelist.
+   *
+   * @param packageWhitelist package names to select
+   * @param packageBlacklist package names to leave out, typically
+   *     sub-packages of whitelisted package names
+   */
+  public DefaultElementFilter(
+      Collection<String> packageWhitelist,
+      Collection<String> packageBlacklist) {
+    this.packageNames =
+        new PackagePrefixTrie(packageWhitelist, packageBlacklist);
   }
 
   /**
@@ -79,16 +108,11 @@ public class DefaultElementFilter extends JavaElementDispatcher<Boolean>
    * packages.
    *
    * @param resourceName containing package name for Java element to check
-   * @return true if package name is the beginning of any whitelisted package
+   * @return true if the longest package name at the beginning of
+   *     the resource name is whitelisted
    */
   private boolean passPackageNameFilter(String resourceName) {
-    for (String context : packageWhitelist) {
-      if (resourceName.startsWith(context)) {
-        return true;
-      }
-    }
-    // resourceName is not on any whitelisted package
-    return false;
+    return packageNames.accepts(resourceName);
   }
 
   @Override
@@ -134,18 +158,25 @@ public class DefaultElementFilter extends JavaElementDispatcher<Boolean>
    * a better UI would be appropriate.
    *
    * Split the input line on spaces, and build up the whitelist from the split()
-   * results.  If the generated whitelist is empty, add on empty string to the
-   * whitelist so that it matches all packages or directories.
+   * results.  Patterns that start with {@link #EXCLUDE_MARKER} are added to
+   * the blacklist instead.  If the generated whitelist is empty, add on empty
+   * string to the whitelist so that it matches all packages or directories.
    *
    * @param formFilter user input with possibly multiple patterns
    *     for a whitelist
+   * @param blacklist destination for excluded patterns
    * @return Collection of Strings suitable for a whitelist.
    */
-  private static Collection<String> splitFilter(String formFilter) {
+  private static Collection<String> splitFilter(
+      String formFilter, Collection<String> blacklist) {
     Collection<String> result = Lists.newArrayList();
     for (String filter : formFilter.split("\\p{Space}+")) {
       if ((filter != null) && (!filter.isEmpty())) {
-        result.add(filter);
+        if (filter.startsWith(EXCLUDE_MARKER)) {
+          blacklist.add(filter.substring(EXCLUDE_MARKER.length()));
+        } else {
+          result.add(filter);
+        }
       }
     }
 
@@ -157,8 +188,9 @@ public class DefaultElementFilter extends JavaElementDispatcher<Boolean>
   }
 
   public static DefaultElementFilter build(String packageFilter) {
-    Collection<String> packageWhitelist = splitFilter(packageFilter);
-    return new DefaultElementFilter(packageWhitelist);
-    
+    Collection<String> packageBlacklist = Lists.newArrayList();
+    Collection<String> packageWhitelist =
+        splitFilter(packageFilter, packageBlacklist);
+    return new DefaultElementFilter(packageWhitelist, packageBlacklist);
   }
 }
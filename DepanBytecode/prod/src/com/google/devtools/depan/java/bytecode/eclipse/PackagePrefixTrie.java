@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.java.bytecode.eclipse;
+
+import com.google.common.collect.Maps;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Compiled set of included and excluded name prefixes.  A name is
+ * accepted when its longest matching prefix is an included one, so
+ * "com.google" with an excluded "com.google.common" accepts
+ * "com.google.devtools" but not "com.google.common.base".  When the
+ * same prefix is both included and excluded, the exclusion wins.
+ *
+ * Each name is checked in a single pass over its characters, no matter
+ * how many prefixes were supplied.  Instances are immutable, and may be
+ * shared by several threads.
+ */
+public class PackagePrefixTrie {
+
+  private static final byte NO_PREFIX = 0;
+  private static final byte INCLUDE_PREFIX = 1;
+  private static final byte EXCLUDE_PREFIX = 2;
+
+  private final TrieNode root;
+
+  public PackagePrefixTrie(
+      Collection<String> includes, Collection<String> excludes) {
+    NodeBuilder builder = new NodeBuilder();
+    for (String prefix : includes) {
+      builder.addPrefix(prefix, INCLUDE_PREFIX);
+    }
+    for (String prefix : excludes) {
+      builder.addPrefix(prefix, EXCLUDE_PREFIX);
+    }
+    root = builder.build();
+  }
+
+  /**
+   * Determine if the longest prefix of {@code name} is an included one.
+   */
+  public boolean accepts(String name) {
+    TrieNode node = root;
+    byte result = node.prefix;
+    int length = name.length();
+    for (int index = 0; index < length; index++) {
+      node = node.getChild(name.charAt(index));
+      if (null == node) {
+        break;
+      }
+      if (NO_PREFIX != node.prefix) {
+        result = node.prefix;
+      }
+    }
+    return INCLUDE_PREFIX == result;
+  }
+
+  /////////////////////////////////////
+  // Trie structures
+
+  /**
+   * Immutable trie node, with sorted child characters for binary search.
+   */
+  private static class TrieNode {
+    private final byte prefix;
+    private final char[] keys;
+    private final TrieNode[] children;
+
+    public TrieNode(byte prefix, char[] keys, TrieNode[] children) {
+      this.prefix = prefix;
+      this.keys = keys;
+      this.children = children;
+    }
+
+    public TrieNode getChild(char key) {
+      int index = Arrays.binarySearch(keys, key);
+      if (index < 0) {
+        return null;
+      }
+      return children[index];
+    }
+  }
+
+  /**
+   * Mutable node used while the prefixes are added.
+   */
+  private static class NodeBuilder {
+    private final SortedMap<Character, NodeBuilder> children =
+        Maps.newTreeMap();
+
+    private byte prefix = NO_PREFIX;
+
+    public void addPrefix(String name, byte kind) {
+      NodeBuilder node = this;
+      for (int index = 0; index < name.length(); index++) {
+        Character key = name.charAt(index);
+        NodeBuilder child = node.children.get(key);
+        if (null == child) {
+          child = new NodeBuilder();
+          node.children.put(key, child);
+        }
+        node = child;
+      }
+      if (EXCLUDE_PREFIX != node.prefix) {
+        node.prefix = kind;
+      }
+    }
+
+    public TrieNode build() {
+      char[] keys = new char[children.size()];
+      TrieNode[] nodes = new TrieNode[children.size()];
+      int index = 0;
+      for (Map.Entry<Character, NodeBuilder> entry : children.entrySet()) {
+        keys[index] = entry.getKey();
+        nodes[index] = entry.getValue().build();
+        index++;
+      }
+      return new TrieNode(prefix, keys, nodes);
+    }
+  }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.java.bytecode.eclipse;
+
+import com.google.devtools.depan.filesystem.graph.FileElement;
+import com.google.devtools.depan.model.builder.chain.DependenciesListener;
+import com.google.devtools.depan.model.builder.chain.DependencyRecorder;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Parse class files on a bounded pool of worker threads.
+ *
+ * Callers read the class file bytes on their own thread, and hand them to
+ * {@link #readClassFile(DependenciesListener, FileElement, byte[])}.  Each
+ * class is parsed by a {@link ClassFileReader} into a private
+ * {@link DependencyRecorder}.  The recorded dependencies are replayed into
+ * the caller's listener on the caller's thread, in submission order, so
+ * the listener never sees concurrent calls.
+ *
+ * At most a few classes per worker are kept in flight.  Submitting another
+ * class when that limit is reached first replays the oldest pending class.
+ * Call {@link #finish()} to replay all remaining classes and release the
+ * worker threads.
+ *
+ * With a single thread, classes are parsed directly into the caller's
+ * listener.  They are only recorded if a {@link ClassAnalysisCache} needs
+ * their dependencies.
+ */
+public class ParallelClassFileReader {
+
+  /** Classes in flight for each worker thread. */
+  private static final int PENDING_PER_THREAD = 4;
+
+  private static final ThreadFactory WORKER_FACTORY =
+      new ThreadFactoryBuilder()
+          .setNameFormat("depan-class-reader-%d")
+          .setDaemon(true)
+          .build();
+
+  private final ClassFileReader reader;
+
+  private final int pendingLimit;
+
+  /** {@code null} when classes are parsed on the caller's thread. */
+  private final ExecutorService workers;
+
+  /** {@code null} when class dependencies are not cached. */
+  private final ClassAnalysisCache cache;
+
+  private final Deque<PendingClass> pending = new ArrayDeque<PendingClass>();
+
+  /**
+   * @param reader parser for individual class files
+   * @param threadCount number of worker threads. Values less than two parse
+   *     each class immediately on the caller's thread.
+   */
+  public ParallelClassFileReader(ClassFileReader reader, int threadCount) {
+    this(reader, threadCount, null);
+  }
+
+  /**
+   * @param reader parser for individual class files
+   * @param threadCount number of worker threads. Values less than two parse
+   *     each class immediately on the caller's thread.
+   * @param cache previously recorded class dependencies, or {@code null}
+   *     to parse every class file.  New and changed classes are added
+   *     to the cache as their dependencies are delivered.
+   */
+  public ParallelClassFileReader(
+      ClassFileReader reader, int threadCount, ClassAnalysisCache cache) {
+    this.reader = reader;
+    this.cache = cache;
+    if (threadCount > 1) {
+      pendingLimit = PENDING_PER_THREAD * threadCount;
+      workers = Executors.newFixedThreadPool(threadCount, WORKER_FACTORY);
+    } else {
+      pendingLimit = 0;
+      workers = null;
+    }
+  }
+
+  /**
+   * Provide the number of worker threads for the current machine.
+   */
+  public static int getDefaultThreadCount() {
+    return Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * Deliver the cached dependencies for a class file, if the cache has
+   * an entry for contents with the given size and CRC-32.  This allows
+   * callers that know these values in advance, such as jar readers,
+   * to avoid reading the contents of unchanged class files.
+   *
+   * @return {@code true} if the cached dependencies were used
+   */
+  public boolean readCachedClassFile(
+      DependenciesListener builder, FileElement fileNode,
+      long size, long crc) {
+    if (null == cache) {
+      return false;
+    }
+    DependencyRecorder cached = cache.find(fileNode.getPath(), size, crc);
+    if (null == cached) {
+      return false;
+    }
+
+    reader.getAnalysisStats().incrClassesCached();
+    if (null == workers) {
+      cached.replay(builder);
+      return true;
+    }
+    pending.addLast(new PendingClass(
+        builder, null, Futures.immediateFuture(cached)));
+    drainPending(pendingLimit);
+    return true;
+  }
+
+  /**
+   * Schedule a single class file for parsing.  Its dependencies are
+   * delivered to {@code builder} no later than the call to
+   * {@link #finish()}.
+   *
+   * @param builder destination of discovered dependencies
+   * @param fileNode file node associated with the contents
+   * @param content complete bytes of the .class file.
+   */
+  public void readClassFile(
+      DependenciesListener builder,
+      FileElement fileNode,
+      byte[] content) {
+
+    ClassTask task = null;
+    if (null != cache) {
+      long crc = ClassAnalysisCache.computeCrc(content);
+      if (readCachedClassFile(builder, fileNode, content.length, crc)) {
+        return;
+      }
+      task = new ClassTask(fileNode, content, crc);
+    }
+
+    if (null == workers) {
+      if (null == task) {
+        reader.readClassFile(builder, fileNode, content);
+        return;
+      }
+      deliver(builder, task, task.call());
+      return;
+    }
+
+    if (null == task) {
+      task = new ClassTask(fileNode, content, 0);
+    }
+    pending.addLast(new PendingClass(builder, task, workers.submit(task)));
+    drainPending(pendingLimit);
+  }
+
+  /**
+   * Deliver the dependencies of all scheduled class files, and release
+   * the worker threads.  The reader should not be used afterwards.
+   */
+  public void finish() {
+    try {
+      drainPending(0);
+    } finally {
+      if (null != workers) {
+        workers.shutdownNow();
+      }
+    }
+  }
+
+  private void drainPending(int limit) {
+    while (pending.size() > limit) {
+      replayNext();
+    }
+  }
+
+  private void replayNext() {
+    PendingClass next = pending.removeFirst();
+    try {
+      deliver(next.builder, next.task, next.result.get());
+    } catch (InterruptedException errInterrupt) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(
+          "Interrupted while reading class files", errInterrupt);
+    } catch (ExecutionException errExec) {
+      Throwable cause = errExec.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException("Unable to read class file", cause);
+    }
+  }
+
+  /**
+   * Replay the recorded dependencies, and cache them if they came from
+   * a successfully parsed class file.
+   */
+  private void deliver(
+      DependenciesListener builder, ClassTask task,
+      DependencyRecorder recorder) {
+    recorder.replay(builder);
+    if ((null != cache) && (null != task) && task.analyzed) {
+      cache.put(task.fileNode.getPath(), task.content.length, task.crc,
+          recorder);
+    }
+  }
+
+  /**
+   * Parse one class file into a private recorder.
+   */
+  private class ClassTask implements Callable<DependencyRecorder> {
+    private final FileElement fileNode;
+    private final byte[] content;
+    private final long crc;
+
+    /** Read on the caller's thread after the task's future completes. */
+    private boolean analyzed;
+
+    public ClassTask(FileElement fileNode, byte[] content, long crc) {
+      this.fileNode = fileNode;
+      this.content = content;
+      this.crc = crc;
+    }
+
+    @Override
+    public DependencyRecorder call() {
+      DependencyRecorder result = new DependencyRecorder();
+      analyzed = reader.readClassFile(result, fileNode, content);
+      return result;
+    }
+  }
+
+  private static class PendingClass {
+    private final DependenciesListener builder;
+    private final ClassTask task;
+    private final Future<DependencyRecorder> result;
+
+    public PendingClass(
+        DependenciesListener builder, ClassTask task,
+        Future<DependencyRecorder> result) {
+      this.builder = builder;
+      this.task = task;
+      this.result = result;
+    }
+  }
+}
@@ -17,6 +17,7 @@
 package com.google.devtools.depan.java.bytecode.impl;
 
 import com.google.devtools.depan.filesystem.graph.FileElement;
+import com.google.devtools.depan.java.bytecode.eclipse.AnalysisGranularity;
 import com.google.devtools.depan.java.bytecode.eclipse.AsmFactory;
 import com.google.devtools.depan.java.graph.FieldElement;
 import com.google.devtools.depan.java.graph.InterfaceElement;
@@ -31,7 +32,6 @@ import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.FieldVisitor;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
-import org.objectweb.asm.Type;
 import org.objectweb.asm.TypePath;
 
 import java.io.File;
@@ -44,6 +44,10 @@ import java.io.File;
  * To build the dependencies tree, it calls the methods of a
  * {@link DependenciesListener}.
  *
+ * At {@link AnalysisGranularity#TYPE} granularity, no nodes are created for
+ * fields and methods.  The types they refer to become dependencies of the
+ * class itself.
+ *
  * @author ycoppel@google.com (Yohann Coppel)
  */
 public class ClassDepLister extends ClassVisitor {
@@ -60,6 +64,18 @@ public class ClassDepLister extends ClassVisitor {
    */
   private final FileElement fileNode;
 
+  private final AnalysisGranularity granularity;
+
+  /**
+   * Canonical elements shared by all classes in the analysis.
+   */
+  private final JavaElementCache elements;
+
+  /**
+   * Internal name of the {@link #mainClass}, for member lookups.
+   */
+  private String mainName = null;
+
   /**
    * class currently read class. (typically the class A when the file A.java is
    * read.
@@ -71,30 +87,57 @@ public class ClassDepLister extends ClassVisitor {
    *
    * @param builder {@link DependenciesListener} implementing callbacks
    * @param fileNode node for the .class file containing this class
+   * @param granularity level of detail for the class's dependencies
+   * @param elements canonical elements for the class's references
    */
   public ClassDepLister(
-      AsmFactory asmFactory, DependenciesListener builder, FileElement fileNode) {
+      AsmFactory asmFactory, DependenciesListener builder, FileElement fileNode,
+      AnalysisGranularity granularity, JavaElementCache elements) {
     super(asmFactory.getApiLevel());
     this.asmFactory = asmFactory;
     this.builder = builder;
     this.fileNode = fileNode;
+    this.granularity = granularity;
+    this.elements = elements;
+  }
+
+  public ClassDepLister(
+      AsmFactory asmFactory, DependenciesListener builder, FileElement fileNode) {
+    this(asmFactory, builder, fileNode, AnalysisGranularity.FULL,
+        new JavaElementCache());
   }
 
   @Override
   public void visit(int version, int access, String name, String signature,
       String superName, String[] interfaces) {
-    mainClass = TypeNameUtil.fromInternalName(name);
+    mainName = name;
+    mainClass = elements.getType(name);
 
     PackageElement packageNode = installPackageForTypeName(name);
     builder.newDep(packageNode, mainClass, JavaRelation.CLASS);
 
-    builder.newDep(TypeNameUtil.fromInternalName(superName), mainClass,
+    builder.newDep(elements.getType(superName), mainClass,
         JavaRelation.EXTENDS);
     for (String s : interfaces) {
-      InterfaceElement element = TypeNameUtil.fromInterfaceName(s);
+      InterfaceElement element = elements.getInterface(s);
       builder.newDep(element, mainClass, JavaRelation.IMPLEMENTS);
     }
     checkAnonymousType(name);
+    linkClassFile();
+  }
+
+  /**
+   * Link a top-level class to its containing class file.  Inner classes are
+   * linked to their containers by the {@code visitInnerClass} callback.
+   *
+   * This does not depend on the class's source file attribute, so it also
+   * works when debug information is skipped or absent.
+   */
+  private void linkClassFile() {
+    if (mainClass.getFullyQualifiedName().contains("$")) {
+      return;
+    }
+    builder.newDep(fileNode, mainClass, JavaRelation.CLASSFILE);
   }
 
   /**
@@ -114,7 +157,7 @@ public class ClassDepLister extends ClassVisitor {
 
       // A digit must follow the $ in the name.
       if (Character.isDigit(name.charAt(name.lastIndexOf('$')+1))) {
-        TypeElement superType = TypeNameUtil.fromInternalName(superClass);
+        TypeElement superType = elements.getType(superClass);
         builder.newDep(superType, mainClass, JavaRelation.ANONYMOUS_TYPE);
       }
     }
@@ -123,13 +166,16 @@ public class ClassDepLister extends ClassVisitor {
   @Override
   public FieldVisitor visitField(
       int access, String name, String desc, String signature, Object value) {
-    TypeElement type = TypeNameUtil.fromDescriptor(desc);
-    FieldElement field = new FieldElement(name, type, mainClass);
+    TypeElement type = elements.getDescriptorType(desc);
 
     // simple className
     builder.newDep(mainClass, type, JavaRelation.TYPE);
+    if (AnalysisGranularity.TYPE == granularity) {
+      return asmFactory.getGenericFieldVisitor();
+    }
 
     // field
+    FieldElement field = elements.getField(mainName, name, desc);
     JavaRelation r = null;
     if ((Opcodes.ACC_STATIC & access) != 0) {
       r = JavaRelation.STATIC_FIELD;
@@ -154,27 +200,29 @@ public class ClassDepLister extends ClassVisitor {
       // FIXME(ycoppel): probably an enum. What to do ?
       return;
     }
-    TypeElement inner = TypeNameUtil.fromInternalName(name);
+    TypeElement inner = elements.getType(name);
     if (inner.equals(mainClass)) {
       // the visitInnerClass callback is called twice: once when visiting the
       // outer class (A in A$B), and once when visiting the A$B class. we
       // shortcut the second case so we don't add the dependency twice.
       return;
     }
-    TypeElement parent = TypeNameUtil.fromInternalName(outerName);
+    TypeElement parent = elements.getType(outerName);
     builder.newDep(parent, inner, JavaRelation.INNER_TYPE);
   }
 
   @Override
   public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
-    TypeNameUtil.buildAnnotationDep(builder, mainClass, desc, visible);
+    TypeNameUtil.buildAnnotationDep(
+        builder, mainClass, elements.getDescriptorType(desc), visible);
     return null;
   }
 
   @Override
   public AnnotationVisitor visitTypeAnnotation(
       int typeRef, TypePath typePath, String desc, boolean visible) {
-    TypeNameUtil.buildAnnotationDep(builder, mainClass, desc, visible);
+    TypeNameUtil.buildAnnotationDep(
+        builder, mainClass, elements.getDescriptorType(desc), visible);
     return null;
   }
 
@@ -182,8 +230,12 @@ public class ClassDepLister extends ClassVisitor {
   public MethodVisitor visitMethod(int access, String name, String desc,
       String signature, String[] exceptions) {
 
+    if (AnalysisGranularity.TYPE == granularity) {
+      return visitTypeMethod(desc);
+    }
+
     // the method itself
-    MethodElement m = new MethodElement(desc, name, mainClass);
+    MethodElement m = elements.getMethod(mainName, name, desc);
 
     JavaRelation r = null;
     if ((Opcodes.ACC_STATIC & access) != 0) {
@@ -194,38 +246,40 @@ public class ClassDepLister extends ClassVisitor {
     builder.newDep(mainClass, m, r);
 
     // arguments dependencies
-    for (Type t : Type.getArgumentTypes(desc)) {
-      builder.newDep(m, TypeNameUtil.fromDescriptor(t.getDescriptor()),
-          JavaRelation.TYPE);
+    for (TypeElement t : elements.getArgumentTypes(desc)) {
+      builder.newDep(m, t, JavaRelation.TYPE);
     }
 
     // return-type dependency
-    TypeElement type = TypeNameUtil.fromDescriptor(
-        Type.getReturnType(desc).getDescriptor());
+    TypeElement type = elements.getReturnType(desc);
     builder.newDep(m, type, JavaRelation.READ);
 
-    return asmFactory.buildMethodVisitor(builder, m);
-  }
-
-  @Override
-  public void visitOuterClass(String owner, String name, String desc) {
-    // nothing to do. We use the visitInnerClass callback instead.
+    return asmFactory.buildMethodVisitor(builder, m, elements);
   }
 
   /**
-   * Create a source element using the full path-name of the source file.
-   * If the mainClass is not a top-level class, assume it is an inner
-   * class and its immediate container is not a source file.
+   * Lift the dependencies of a method's declaration and body to the class.
    */
-  @Override
-  public void visitSource(String source, String debug) {
-    if (mainClass.getFullyQualifiedName().contains("$")) {
-      // this is an inner class. We use the visitInnerClass() callback instead.
+  private MethodVisitor visitTypeMethod(String desc) {
+    for (TypeElement t : elements.getArgumentTypes(desc)) {
+      addTypeDep(t);
+    }
+    addTypeDep(elements.getReturnType(desc));
+
+    return new TypeDepLister(
+        asmFactory.getApiLevel(), builder, elements, mainClass);
+  }
+
+  private void addTypeDep(TypeElement type) {
+    if (mainClass.equals(type)) {
       return;
     }
+    builder.newDep(mainClass, type, JavaRelation.TYPE);
+  }
 
-    // Link the main class to it's containing file
-    builder.newDep(fileNode, mainClass, JavaRelation.CLASSFILE);
+  @Override
+  public void visitOuterClass(String owner, String name, String desc) {
+    // nothing to do. We use the visitInnerClass callback instead.
   }
 
   /**
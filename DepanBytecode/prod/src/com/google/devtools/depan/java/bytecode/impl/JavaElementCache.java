@@ -0,0 +1,261 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.java.bytecode.impl;
+
+import com.google.devtools.depan.java.graph.FieldElement;
+import com.google.devtools.depan.java.graph.InterfaceElement;
+import com.google.devtools.depan.java.graph.MethodElement;
+import com.google.devtools.depan.java.graph.TypeElement;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Canonical Java elements for the names and descriptors found in class
+ * files.  Most references in an analysis resolve to a few thousand types
+ * and members, so each distinct name is parsed once and every later
+ * reference shares the same element.
+ *
+ * Lookups for repeated references allocate nothing.  Member lookups are
+ * keyed by the owner's internal name, then the member's name and
+ * descriptor, rather than by a combined key.
+ *
+ * A single cache is shared by all the class files of an analysis, and
+ * may be used concurrently by several parsing threads.
+ */
+public class JavaElementCache {
+
+  /** Canonical types, by fully qualified name. */
+  private final ConcurrentMap<String, TypeElement> types =
+      new ConcurrentHashMap<String, TypeElement>();
+
+  /** Types and their members, by internal name. */
+  private final ConcurrentMap<String, TypeEntry> internalNames =
+      new ConcurrentHashMap<String, TypeEntry>();
+
+  private final ConcurrentMap<String, TypeElement> descriptors =
+      new ConcurrentHashMap<String, TypeElement>();
+
+  private final ConcurrentMap<String, InterfaceElement> interfaces =
+      new ConcurrentHashMap<String, InterfaceElement>();
+
+  private final ConcurrentMap<String, MethodTypes> methodTypes =
+      new ConcurrentHashMap<String, MethodTypes>();
+
+  /**
+   * Provide the type for an internal name, such as "java/lang/String".
+   */
+  public TypeElement getType(String internalName) {
+    return getTypeEntry(internalName).type;
+  }
+
+  /**
+   * Provide the type for a type descriptor, such as "Ljava/lang/String;".
+   * Array descriptors provide their element type.
+   */
+  public TypeElement getDescriptorType(String desc) {
+    TypeElement result = descriptors.get(desc);
+    if (null != result) {
+      return result;
+    }
+    result = getNamedType(TypeNameUtil.getDescriptorClassName(desc));
+    descriptors.putIfAbsent(desc, result);
+    return result;
+  }
+
+  /**
+   * Provide the interface for an internal name.
+   */
+  public InterfaceElement getInterface(String internalName) {
+    InterfaceElement result = interfaces.get(internalName);
+    if (null != result) {
+      return result;
+    }
+    result = TypeNameUtil.fromInterfaceName(internalName);
+    InterfaceElement prior = interfaces.putIfAbsent(internalName, result);
+    if (null != prior) {
+      return prior;
+    }
+    return result;
+  }
+
+  /**
+   * Provide the method {@code name} with descriptor {@code desc} of the
+   * type with internal name {@code owner}.
+   */
+  public MethodElement getMethod(String owner, String name, String desc) {
+    TypeEntry entry = getTypeEntry(owner);
+    ConcurrentMap<String, MethodElement> overloads =
+        getMembers(entry.methods, name);
+    MethodElement result = overloads.get(desc);
+    if (null != result) {
+      return result;
+    }
+    result = new MethodElement(desc, name, entry.type);
+    MethodElement prior = overloads.putIfAbsent(desc, result);
+    if (null != prior) {
+      return prior;
+    }
+    return result;
+  }
+
+  /**
+   * Provide the field {@code name} with descriptor {@code desc} of the
+   * type with internal name {@code owner}.
+   */
+  public FieldElement getField(String owner, String name, String desc) {
+    TypeEntry entry = getTypeEntry(owner);
+    ConcurrentMap<String, FieldElement> fields =
+        getMembers(entry.fields, name);
+    FieldElement result = fields.get(desc);
+    if (null != result) {
+      return result;
+    }
+    result = new FieldElement(name, getDescriptorType(desc), entry.type);
+    FieldElement prior = fields.putIfAbsent(desc, result);
+    if (null != prior) {
+      return prior;
+    }
+    return result;
+  }
+
+  /**
+   * Provide the argument types of a method descriptor, in declaration
+   * order.
+   */
+  public List<TypeElement> getArgumentTypes(String methodDesc) {
+    return getMethodTypes(methodDesc).argumentTypes;
+  }
+
+  /**
+   * Provide the return type of a method descriptor.
+   */
+  public TypeElement getReturnType(String methodDesc) {
+    return getMethodTypes(methodDesc).returnType;
+  }
+
+  /////////////////////////////////////
+  // Lookup and creation
+
+  private TypeEntry getTypeEntry(String internalName) {
+    TypeEntry result = internalNames.get(internalName);
+    if (null != result) {
+      return result;
+    }
+    TypeElement type =
+        getNamedType(TypeNameUtil.getInternalClassName(internalName));
+    result = new TypeEntry(type);
+    TypeEntry prior = internalNames.putIfAbsent(internalName, result);
+    if (null != prior) {
+      return prior;
+    }
+    return result;
+  }
+
+  /**
+   * Provide the canonical type for a fully qualified name.  Internal names
+   * and descriptors for the same type share this instance.
+   */
+  private TypeElement getNamedType(String name) {
+    TypeElement result = types.get(name);
+    if (null != result) {
+      return result;
+    }
+    result = new TypeElement(name);
+    TypeElement prior = types.putIfAbsent(name, result);
+    if (null != prior) {
+      return prior;
+    }
+    return result;
+  }
+
+  private static <T> ConcurrentMap<String, T> getMembers(
+      ConcurrentMap<String, ConcurrentMap<String, T>> members, String name) {
+    ConcurrentMap<String, T> result = members.get(name);
+    if (null != result) {
+      return result;
+    }
+    result = new ConcurrentHashMap<String, T>(4);
+    ConcurrentMap<String, T> prior = members.putIfAbsent(name, result);
+    if (null != prior) {
+      return prior;
+    }
+    return result;
+  }
+
+  private MethodTypes getMethodTypes(String methodDesc) {
+    MethodTypes result = methodTypes.get(methodDesc);
+    if (null != result) {
+      return result;
+    }
+    result = parseMethodTypes(methodDesc);
+    methodTypes.putIfAbsent(methodDesc, result);
+    return result;
+  }
+
+  /**
+   * Step through the argument descriptors between the parentheses of
+   * a method descriptor, then the return type descriptor after them.
+   */
+  private MethodTypes parseMethodTypes(String methodDesc) {
+    ImmutableList.Builder<TypeElement> arguments = ImmutableList.builder();
+    int index = 1;
+    while (')' != methodDesc.charAt(index)) {
+      int next = TypeNameUtil.skipDescriptor(methodDesc, index);
+      arguments.add(getDescriptorType(methodDesc.substring(index, next)));
+      index = next;
+    }
+    TypeElement returnType =
+        getDescriptorType(methodDesc.substring(index + 1));
+    return new MethodTypes(arguments.build(), returnType);
+  }
+
+  /////////////////////////////////////
+  // Cache entries
+
+  private static class TypeEntry {
+    private final TypeElement type;
+
+    /** Methods by name, then by descriptor. */
+    private final ConcurrentMap<String, ConcurrentMap<String, MethodElement>>
+        methods = new ConcurrentHashMap<
+            String, ConcurrentMap<String, MethodElement>>();
+
+    /** Fields by name, then by descriptor. */
+    private final ConcurrentMap<String, ConcurrentMap<String, FieldElement>>
+        fields = new ConcurrentHashMap<
+            String, ConcurrentMap<String, FieldElement>>();
+
+    public TypeEntry(TypeElement type) {
+      this.type = type;
+    }
+  }
+
+  private static class MethodTypes {
+    private final List<TypeElement> argumentTypes;
+    private final TypeElement returnType;
+
+    public MethodTypes(
+        List<TypeElement> argumentTypes, TypeElement returnType) {
+      this.argumentTypes = argumentTypes;
+      this.returnType = returnType;
+    }
+  }
+}
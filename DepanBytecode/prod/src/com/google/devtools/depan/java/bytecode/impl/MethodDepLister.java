@@ -17,7 +17,6 @@
 package com.google.devtools.depan.java.bytecode.impl;
 
 import com.google.devtools.depan.java.bytecode.eclipse.AsmFactory;
-import com.google.devtools.depan.java.graph.FieldElement;
 import com.google.devtools.depan.java.graph.JavaRelation;
 import com.google.devtools.depan.java.graph.MethodElement;
 import com.google.devtools.depan.model.builder.chain.DependenciesListener;
@@ -48,24 +47,30 @@ public class MethodDepLister extends MethodVisitor {
 
   private MethodElement thisElement;
 
+  private final JavaElementCache elements;
+
   public MethodDepLister(
-      AsmFactory asmFactory, DependenciesListener builder, MethodElement thisElem) {
+      AsmFactory asmFactory, DependenciesListener builder,
+      MethodElement thisElem, JavaElementCache elements) {
     super(asmFactory.getApiLevel());
     this.asmFactory = asmFactory;
     this.builder = builder;
     this.thisElement = thisElem;
+    this.elements = elements;
   }
 
   @Override
   public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
-    TypeNameUtil.buildAnnotationDep(builder, thisElement, desc, visible);
+    TypeNameUtil.buildAnnotationDep(
+        builder, thisElement, elements.getDescriptorType(desc), visible);
     return null;
   }
 
   @Override
   public AnnotationVisitor visitTypeAnnotation(
       int typeRef, TypePath typePath, String desc, boolean visible) {
-    TypeNameUtil.buildAnnotationDep(builder, thisElement, desc, visible);
+    TypeNameUtil.buildAnnotationDep(
+        builder, thisElement, elements.getDescriptorType(desc), visible);
     return null;
   }
 
@@ -73,30 +78,27 @@ public class MethodDepLister extends MethodVisitor {
   public void visitFieldInsn(
       int opcode, String owner, String name, String desc) {
      // FIXME: is it a read ?
-     builder.newDep(thisElement,
-         new FieldElement(name, TypeNameUtil.fromDescriptor(desc),
-           TypeNameUtil.fromInternalName(owner)),
+     builder.newDep(thisElement, elements.getField(owner, name, desc),
          JavaRelation.READ);
   }
 
   @Override // ASM-5
   public void visitMethodInsn(
       int opcode, String owner, String name, String desc, boolean itf) {
-    builder.newDep(thisElement, new MethodElement(desc, name,
-      TypeNameUtil.fromInternalName(owner)), JavaRelation.CALL);
+    builder.newDep(thisElement, elements.getMethod(owner, name, desc),
+        JavaRelation.CALL);
   }
 
   @Override // ASM-4
   public void visitMethodInsn(
       int opcode, String owner, String name, String desc) {
-    builder.newDep(thisElement, new MethodElement(desc, name,
-      TypeNameUtil.fromInternalName(owner)), JavaRelation.CALL);
+    builder.newDep(thisElement, elements.getMethod(owner, name, desc),
+        JavaRelation.CALL);
   }
 
   @Override
   public void visitTypeInsn(int opcode, String type) {
-    builder.newDep(
-        thisElement, TypeNameUtil.fromInternalName(type), JavaRelation.TYPE);
+    builder.newDep(thisElement, elements.getType(type), JavaRelation.TYPE);
   }
 
   @Override
@@ -107,7 +109,7 @@ public class MethodDepLister extends MethodVisitor {
     if (null == type) {
       return;
     }
-    builder.newDep(thisElement, TypeNameUtil.fromInternalName(type),
+    builder.newDep(thisElement, elements.getType(type),
         JavaRelation.ERROR_HANDLING);
   }
 }
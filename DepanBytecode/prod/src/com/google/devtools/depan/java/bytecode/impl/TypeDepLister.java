@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.java.bytecode.impl;
+
+import com.google.devtools.depan.java.graph.JavaRelation;
+import com.google.devtools.depan.java.graph.TypeElement;
+import com.google.devtools.depan.model.builder.chain.DependenciesListener;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.TypePath;
+
+/**
+ * Method visitor for type-level analysis.  Instead of creating nodes for
+ * the method and the members it refers to, every type referenced by the
+ * method becomes a dependency of the type that declares the method.
+ */
+public class TypeDepLister extends MethodVisitor {
+
+  private final DependenciesListener builder;
+
+  private final JavaElementCache elements;
+
+  private final TypeElement mainClass;
+
+  public TypeDepLister(
+      int api, DependenciesListener builder, JavaElementCache elements,
+      TypeElement mainClass) {
+    super(api);
+    this.builder = builder;
+    this.elements = elements;
+    this.mainClass = mainClass;
+  }
+
+  @Override
+  public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+    TypeNameUtil.buildAnnotationDep(
+        builder, mainClass, elements.getDescriptorType(desc), visible);
+    return null;
+  }
+
+  @Override
+  public AnnotationVisitor visitTypeAnnotation(
+      int typeRef, TypePath typePath, String desc, boolean visible) {
+    TypeNameUtil.buildAnnotationDep(
+        builder, mainClass, elements.getDescriptorType(desc), visible);
+    return null;
+  }
+
+  @Override
+  public void visitFieldInsn(
+      int opcode, String owner, String name, String desc) {
+    addTypeDep(elements.getType(owner), JavaRelation.TYPE);
+  }
+
+  @Override // ASM-5
+  public void visitMethodInsn(
+      int opcode, String owner, String name, String desc, boolean itf) {
+    addTypeDep(elements.getType(owner), JavaRelation.TYPE);
+  }
+
+  @Override // ASM-4
+  public void visitMethodInsn(
+      int opcode, String owner, String name, String desc) {
+    addTypeDep(elements.getType(owner), JavaRelation.TYPE);
+  }
+
+  @Override
+  public void visitTypeInsn(int opcode, String type) {
+    addTypeDep(elements.getType(type), JavaRelation.TYPE);
+  }
+
+  @Override
+  public void visitTryCatchBlock(
+      Label start, Label end, Label handler, String type) {
+
+    // No type indicates a finally block, and adds no dependency
+    if (null == type) {
+      return;
+    }
+    addTypeDep(elements.getType(type), JavaRelation.ERROR_HANDLING);
+  }
+
+  private void addTypeDep(TypeElement type, JavaRelation relation) {
+    // Self references add nothing at the type level.
+    if (mainClass.equals(type)) {
+      return;
+    }
+    builder.newDep(mainClass, type, relation);
+  }
+}
@@ -61,9 +61,7 @@ public class TypeNameUtil {
    *     dependency graph
    */
   public static InterfaceElement fromInterfaceName(String interfaceName) {
-    Type type = Type.getObjectType(interfaceName);
-    String fullyQualifiedName = getFullyQualifiedInterfaceName(type);
-    return new InterfaceElement(fullyQualifiedName);
+    return new InterfaceElement(getInterfaceClassName(interfaceName));
   }
 
   /**
@@ -76,8 +74,7 @@ public class TypeNameUtil {
    */
   public static String getFullyQualifiedTypeName(Type type) {
     if (type.getSort() == Type.ARRAY) {
-      return Type.getType(type.toString().replaceAll("^\\[*", ""))
-          .getClassName();
+      return type.getElementType().getClassName();
     }
     return type.getClassName();
   }
@@ -91,9 +88,7 @@ public class TypeNameUtil {
    * @return {@code TypeElement} suitable for addition to a dependency graph
    */
   public static TypeElement fromDescriptor(String desc) {
-    Type type = Type.getType(desc);
-    String fullyQualifiedName = getFullyQualifiedTypeName(type);
-    return new TypeElement(fullyQualifiedName);
+    return new TypeElement(getDescriptorClassName(desc));
   }
 
   /**
@@ -104,18 +99,128 @@ public class TypeNameUtil {
    * @return {@code TypeElement} suitable for addition to a dependency graph
    */
   public static TypeElement fromInternalName(String internalName) {
-    Type type = Type.getObjectType(internalName);
-    String fullyQualifiedName = getFullyQualifiedTypeName(type);
-    return new TypeElement(fullyQualifiedName);
+    return new TypeElement(getInternalClassName(internalName));
+  }
+
+  /////////////////////////////////////
+  // Name parsing, without the intermediate Type objects.
+
+  /**
+   * Provide the fully qualified name for a type descriptor.  Array
+   * descriptors name their element type, so "[[I" becomes "int".
+   */
+  public static String getDescriptorClassName(String desc) {
+    return getElementClassName(desc, skipArrayDims(desc, 0));
+  }
+
+  /**
+   * Provide the fully qualified name for an internal name, such as
+   * an instruction's owner.  Internal names for arrays are descriptors,
+   * and name their element type.
+   */
+  public static String getInternalClassName(String internalName) {
+    if ('[' == internalName.charAt(0)) {
+      return getDescriptorClassName(internalName);
+    }
+    return internalName.replace('/', '.');
   }
 
+  /**
+   * Provide the fully qualified name for an interface's internal name.
+   * Unlike other references, array names keep their dimensions.
+   */
+  public static String getInterfaceClassName(String internalName) {
+    int dims = skipArrayDims(internalName, 0);
+    if (0 == dims) {
+      return internalName.replace('/', '.');
+    }
+    StringBuilder result = new StringBuilder(
+        getElementClassName(internalName, dims));
+    for (int index = 0; index < dims; index++) {
+      result.append("[]");
+    }
+    return result.toString();
+  }
+
+  /**
+   * Provide the index of the character that follows the type descriptor
+   * starting at {@code start}.  This allows callers to step through
+   * the argument descriptors of a method descriptor.
+   */
+  public static int skipDescriptor(String desc, int start) {
+    int index = skipArrayDims(desc, start);
+    if ('L' == desc.charAt(index)) {
+      return desc.indexOf(';', index) + 1;
+    }
+    return index + 1;
+  }
+
+  private static int skipArrayDims(String desc, int start) {
+    int index = start;
+    while ('[' == desc.charAt(index)) {
+      index++;
+    }
+    return index;
+  }
+
+  /**
+   * Provide the name of the non-array type descriptor at {@code start}.
+   */
+  private static String getElementClassName(String desc, int start) {
+    char kind = desc.charAt(start);
+    if ('L' == kind) {
+      int end = desc.indexOf(';', start);
+      return desc.substring(start + 1, end).replace('/', '.');
+    }
+    return getPrimitiveClassName(kind);
+  }
+
+  private static String getPrimitiveClassName(char kind) {
+    switch (kind) {
+    case 'V':
+      return "void";
+    case 'Z':
+      return "boolean";
+    case 'C':
+      return "char";
+    case 'B':
+      return "byte";
+    case 'S':
+      return "short";
+    case 'I':
+      return "int";
+    case 'F':
+      return "float";
+    case 'J':
+      return "long";
+    case 'D':
+      return "double";
+    default:
+      throw new IllegalArgumentException(
+          "Invalid type descriptor character " + kind);
+    }
+  }
+
+  /////////////////////////////////////
+  // Dependency builders
+
   /**
    * Create the dependency from a {@link JavaElement} to an annotation.
    */
   public static void buildAnnotationDep(
       DependenciesListener builder, JavaElement target,
       String desc, boolean visible) {
-    TypeElement type = TypeNameUtil.fromDescriptor(desc);
+    buildAnnotationDep(
+        builder, target, TypeNameUtil.fromDescriptor(desc), visible);
+  }
+
+  /**
+   * Create the dependency from a {@link JavaElement} to an already
+   * resolved annotation type.
+   */
+  public static void buildAnnotationDep(
+      DependenciesListener builder, JavaElement target,
+      TypeElement type, boolean visible) {
     if (visible) {
       builder.newDep(target, type, JavaRelation.RUNTIME_ANNOTATION);
       return;
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.java.bytecode.eclipse;
+
+import static org.junit.Assert.*;
+
+import com.google.devtools.depan.filesystem.graph.FileElement;
+import com.google.devtools.depan.java.graph.FieldElement;
+import com.google.devtools.depan.java.graph.JavaRelation;
+import com.google.devtools.depan.java.graph.MethodElement;
+import com.google.devtools.depan.java.graph.TypeElement;
+import com.google.devtools.depan.model.GraphEdge;
+import com.google.devtools.depan.model.GraphModel;
+import com.google.devtools.depan.model.GraphNode;
+import com.google.devtools.depan.model.builder.api.GraphBuilder;
+import com.google.devtools.depan.model.builder.api.GraphBuilders;
+import com.google.devtools.depan.model.builder.chain.DependenciesDispatcher;
+
+import com.google.common.io.ByteStreams;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+public class AnalysisGranularityTest {
+
+  private static final String CLASS_PATH =
+      "com/google/devtools/depan/java/bytecode/eclipse/"
+      + "AnalysisGranularityTest.class";
+
+  /** Provides a field node and a declared type dependency. */
+  private List<String> memberRef;
+
+  @Test
+  public void testLabels() {
+    for (AnalysisGranularity item : AnalysisGranularity.values()) {
+      assertSame(item, AnalysisGranularity.getAnalysisGranularity(item.label));
+    }
+    assertNull(AnalysisGranularity.getAnalysisGranularity("bogus"));
+  }
+
+  @Test
+  public void testTypeGranularity() throws IOException {
+    GraphModel graph = analyze(AnalysisGranularity.TYPE);
+    assertEquals(0, countNodes(graph, MethodElement.class));
+    assertEquals(0, countNodes(graph, FieldElement.class));
+    assertEquals(0, countEdges(graph, JavaRelation.CALL));
+    assertEquals(1, countEdges(graph, JavaRelation.CLASSFILE));
+
+    // Types from declarations and method bodies are still dependencies.
+    assertTrue(hasType(graph, "java.util.List"));
+    assertTrue(hasType(graph, "com.google.common.io.ByteStreams"));
+  }
+
+  @Test
+  public void testMemberGranularity() throws IOException {
+    GraphModel graph = analyze(AnalysisGranularity.MEMBER);
+    assertTrue(countNodes(graph, MethodElement.class) > 0);
+    assertTrue(countNodes(graph, FieldElement.class) > 0);
+    assertEquals(0, countEdges(graph, JavaRelation.CALL));
+    assertEquals(1, countEdges(graph, JavaRelation.CLASSFILE));
+  }
+
+  @Test
+  public void testFullGranularity() throws IOException {
+    GraphModel graph = analyze(AnalysisGranularity.FULL);
+    assertTrue(countNodes(graph, MethodElement.class) > 0);
+    assertTrue(countEdges(graph, JavaRelation.CALL) > 0);
+    assertEquals(1, countEdges(graph, JavaRelation.CLASSFILE));
+  }
+
+  private GraphModel analyze(AnalysisGranularity granularity)
+      throws IOException {
+    InputStream input = getClass().getClassLoader()
+        .getResourceAsStream(CLASS_PATH);
+    byte[] content;
+    try {
+      content = ByteStreams.toByteArray(input);
+    } finally {
+      input.close();
+    }
+
+    GraphBuilder graphBuilder = GraphBuilders.createGraphModelBuilder();
+    ClassFileReader reader = new ClassFileReader(
+        AsmFactory.ASM5_FACTORY, new ClassAnalysisStats(), granularity);
+    reader.readClassFile(new DependenciesDispatcher(graphBuilder),
+        new FileElement(CLASS_PATH), content);
+    return graphBuilder.createGraphModel();
+  }
+
+  private static int countNodes(GraphModel graph, Class<?> type) {
+    int result = 0;
+    for (GraphNode node : graph.getNodes()) {
+      if (type.isInstance(node)) {
+        result++;
+      }
+    }
+    return result;
+  }
+
+  private static boolean hasType(GraphModel graph, String name) {
+    for (GraphNode node : graph.getNodes()) {
+      if ((node instanceof TypeElement)
+          && name.equals(((TypeElement) node).getFullyQualifiedName())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static int countEdges(GraphModel graph, JavaRelation relation) {
+    int result = 0;
+    for (GraphEdge edge : graph.getEdges()) {
+      if (relation == edge.getRelation()) {
+        result++;
+      }
+    }
+    return result;
+  }
+}
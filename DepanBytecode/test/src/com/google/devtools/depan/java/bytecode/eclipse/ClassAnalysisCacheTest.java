@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.java.bytecode.eclipse;
+
+import static org.junit.Assert.*;
+
+import com.google.devtools.depan.filesystem.graph.FileElement;
+import com.google.devtools.depan.model.GraphEdge;
+import com.google.devtools.depan.model.GraphModel;
+import com.google.devtools.depan.model.GraphNode;
+import com.google.devtools.depan.model.builder.api.GraphBuilder;
+import com.google.devtools.depan.model.builder.api.GraphBuilders;
+import com.google.devtools.depan.model.builder.chain.DependenciesDispatcher;
+
+import com.google.common.collect.Sets;
+import com.google.common.io.ByteStreams;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+
+public class ClassAnalysisCacheTest {
+
+  private static final String CLASS_PATH =
+      "com/google/devtools/depan/java/bytecode/eclipse/"
+      + "ClassAnalysisCacheTest.class";
+
+  private static final AsmFactory ASM_FACTORY = AsmFactory.ASM5_FACTORY;
+
+  private File cacheFile;
+
+  private byte[] content;
+
+  @Before
+  public void setUp() throws IOException {
+    cacheFile = File.createTempFile("depan-class-cache", ".bin");
+    cacheFile.delete();
+
+    InputStream input = getClass().getClassLoader()
+        .getResourceAsStream(CLASS_PATH);
+    try {
+      content = ByteStreams.toByteArray(input);
+    } finally {
+      input.close();
+    }
+  }
+
+  @After
+  public void tearDown() {
+    cacheFile.delete();
+  }
+
+  @Test
+  public void testReplayFromCache() throws IOException {
+    ClassAnalysisStats parsedStats = new ClassAnalysisStats();
+    GraphModel parsed = analyze(loadCache(), parsedStats, content);
+    assertEquals(1, parsedStats.getClassesLoaded());
+    assertEquals(0, parsedStats.getClassesCached());
+    assertTrue(cacheFile.exists());
+
+    ClassAnalysisStats cachedStats = new ClassAnalysisStats();
+    GraphModel cached = analyze(loadCache(), cachedStats, content);
+    assertEquals(1, cachedStats.getClassesLoaded());
+    assertEquals(1, cachedStats.getClassesCached());
+
+    assertFalse(parsed.getEdges().isEmpty());
+    assertEquals(getNodeIds(parsed), getNodeIds(cached));
+    assertEquals(getEdgeIds(parsed), getEdgeIds(cached));
+  }
+
+  @Test
+  public void testChangedContent() throws IOException {
+    analyze(loadCache(), new ClassAnalysisStats(), content);
+
+    ClassAnalysisCache cache = loadCache();
+    long crc = ClassAnalysisCache.computeCrc(content);
+    assertNotNull(cache.find(CLASS_PATH, content.length, crc));
+    assertNull(cache.find(CLASS_PATH, content.length + 1, crc));
+    assertNull(cache.find(CLASS_PATH, content.length, crc + 1));
+    assertNull(cache.find("other.class", content.length, crc));
+  }
+
+  @Test
+  public void testSettingsMismatch() throws IOException {
+    analyze(loadCache(), new ClassAnalysisStats(), content);
+
+    long crc = ClassAnalysisCache.computeCrc(content);
+    ClassAnalysisCache cache = ClassAnalysisCache.load(cacheFile,
+        AsmFactory.ASM4_FACTORY.getApiLevel(), AnalysisGranularity.FULL);
+    assertNull(cache.find(CLASS_PATH, content.length, crc));
+
+    cache = ClassAnalysisCache.load(
+        cacheFile, ASM_FACTORY.getApiLevel(), AnalysisGranularity.TYPE);
+    assertNull(cache.find(CLASS_PATH, content.length, crc));
+  }
+
+  private ClassAnalysisCache loadCache() {
+    return ClassAnalysisCache.load(
+        cacheFile, ASM_FACTORY.getApiLevel(), AnalysisGranularity.FULL);
+  }
+
+  private GraphModel analyze(
+      ClassAnalysisCache cache, ClassAnalysisStats stats, byte[] bytes)
+      throws IOException {
+    GraphBuilder graphBuilder = GraphBuilders.createGraphModelBuilder();
+    ParallelClassFileReader reader = new ParallelClassFileReader(
+        new ClassFileReader(ASM_FACTORY, stats), 1, cache);
+    reader.readClassFile(new DependenciesDispatcher(graphBuilder),
+        new FileElement(CLASS_PATH), bytes);
+    reader.finish();
+    cache.save();
+    return graphBuilder.createGraphModel();
+  }
+
+  private static Set<String> getNodeIds(GraphModel graph) {
+    Set<String> result = Sets.newHashSet();
+    for (GraphNode node : graph.getNodes()) {
+      result.add(node.getId());
+    }
+    return result;
+  }
+
+  private static Set<String> getEdgeIds(GraphModel graph) {
+    Set<String> result = Sets.newHashSet();
+    for (GraphEdge edge : graph.getEdges()) {
+      result.add(edge.getHead().getId() + " " + edge.getRelation()
+          + " " + edge.getTail().getId());
+    }
+    return result;
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.java.bytecode.eclipse;
+
+import static org.junit.Assert.*;
+
+import com.google.devtools.depan.filesystem.graph.FileElement;
+import com.google.devtools.depan.java.graph.FieldElement;
+import com.google.devtools.depan.java.graph.MethodElement;
+import com.google.devtools.depan.java.graph.PackageElement;
+import com.google.devtools.depan.java.graph.TypeElement;
+
+import org.junit.Test;
+
+public class DefaultElementFilterTest {
+
+  @Test
+  public void testEmptyFilter() {
+    DefaultElementFilter filter = DefaultElementFilter.build("  ");
+    assertTrue(filter.passFilter(new TypeElement("java.lang.String")));
+    assertTrue(filter.passFilter(new PackageElement("")));
+  }
+
+  @Test
+  public void testWhitelist() {
+    DefaultElementFilter filter =
+        DefaultElementFilter.build("com.google.devtools org.objectweb");
+    assertTrue(filter.passFilter(type("com.google.devtools.depan.Foo")));
+    assertTrue(filter.passFilter(type("org.objectweb.asm.Type")));
+    assertTrue(filter.passFilter(new PackageElement("com.google.devtools")));
+    assertFalse(filter.passFilter(new PackageElement("com.google")));
+    assertFalse(filter.passFilter(type("java.lang.String")));
+
+    // Plain prefixes, as before: not restricted to whole package names.
+    assertTrue(filter.passFilter(type("com.google.devtoolsx.Foo")));
+  }
+
+  @Test
+  public void testBlacklist() {
+    DefaultElementFilter filter = DefaultElementFilter.build(
+        "com.google -com.google.common com.google.common.base");
+    assertTrue(filter.passFilter(type("com.google.devtools.Foo")));
+    assertFalse(filter.passFilter(type("com.google.common.collect.Lists")));
+    assertTrue(filter.passFilter(type("com.google.common.base.Strings")));
+    assertFalse(filter.passFilter(type("java.lang.String")));
+  }
+
+  @Test
+  public void testBlacklistOnly() {
+    DefaultElementFilter filter = DefaultElementFilter.build("-java.");
+    assertTrue(filter.passFilter(type("com.google.devtools.Foo")));
+    assertFalse(filter.passFilter(type("java.lang.String")));
+  }
+
+  @Test
+  public void testExcludeWins() {
+    DefaultElementFilter filter =
+        DefaultElementFilter.build("com.google -com.google");
+    assertFalse(filter.passFilter(type("com.google.devtools.Foo")));
+  }
+
+  @Test
+  public void testMembers() {
+    DefaultElementFilter filter = DefaultElementFilter.build("com.google");
+    TypeElement inside = type("com.google.Foo");
+    TypeElement outside = type("java.lang.String");
+
+    assertTrue(filter.passFilter(new MethodElement("()V", "run", inside)));
+    assertFalse(filter.passFilter(new MethodElement("()V", "run", outside)));
+    assertTrue(filter.passFilter(new FieldElement("f", inside, inside)));
+    assertFalse(filter.passFilter(new FieldElement("f", outside, inside)));
+    assertTrue(filter.passFilter(new FileElement("java/lang/String.class")));
+  }
+
+  @Test
+  public void testManyPrefixes() {
+    StringBuilder packages = new StringBuilder();
+    for (int index = 0; index < 500; index++) {
+      packages.append("org.example").append(index).append(".pkg ");
+    }
+    DefaultElementFilter filter =
+        DefaultElementFilter.build(packages.toString());
+    assertTrue(filter.passFilter(type("org.example0.pkg.Foo")));
+    assertTrue(filter.passFilter(type("org.example499.pkg.Foo")));
+    assertFalse(filter.passFilter(type("org.example500.pkg.Foo")));
+    assertFalse(filter.passFilter(type("org.example1.Foo")));
+  }
+
+  private static TypeElement type(String name) {
+    return new TypeElement(name);
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.java.bytecode.impl;
+
+import static org.junit.Assert.*;
+
+import com.google.devtools.depan.java.graph.FieldElement;
+import com.google.devtools.depan.java.graph.MethodElement;
+import com.google.devtools.depan.java.graph.TypeElement;
+
+import org.junit.Test;
+import org.objectweb.asm.Type;
+
+import java.util.List;
+
+public class JavaElementCacheTest {
+
+  private static final String[] DESCRIPTORS = {
+    "V", "Z", "C", "B", "S", "I", "F", "J", "D",
+    "Ljava/lang/String;", "[I", "[[Ljava/util/Map$Entry;", "LTopLevel;"
+  };
+
+  private static final String[] INTERNAL_NAMES = {
+    "java/lang/String", "java/util/Map$Entry", "TopLevel",
+    "[I", "[[Ljava/lang/Object;"
+  };
+
+  @Test
+  public void testDescriptorNames() {
+    for (String desc : DESCRIPTORS) {
+      Type type = Type.getType(desc);
+      assertEquals(desc, TypeNameUtil.getFullyQualifiedTypeName(type),
+          TypeNameUtil.getDescriptorClassName(desc));
+    }
+  }
+
+  @Test
+  public void testInternalNames() {
+    for (String name : INTERNAL_NAMES) {
+      Type type = Type.getObjectType(name);
+      assertEquals(name, TypeNameUtil.getFullyQualifiedTypeName(type),
+          TypeNameUtil.getInternalClassName(name));
+      assertEquals(name, TypeNameUtil.getFullyQualifiedInterfaceName(type),
+          TypeNameUtil.getInterfaceClassName(name));
+    }
+  }
+
+  @Test
+  public void testCanonicalTypes() {
+    JavaElementCache elements = new JavaElementCache();
+    TypeElement type = elements.getType("java/lang/String");
+    assertEquals("java.lang.String", type.getFullyQualifiedName());
+    assertSame(type, elements.getType("java/lang/String"));
+    assertSame(type, elements.getDescriptorType("Ljava/lang/String;"));
+    assertSame(type, elements.getDescriptorType("[Ljava/lang/String;"));
+    assertSame(type, elements.getType("[[Ljava/lang/String;"));
+  }
+
+  @Test
+  public void testCanonicalMembers() {
+    JavaElementCache elements = new JavaElementCache();
+    MethodElement method =
+        elements.getMethod("java/util/List", "add", "(Ljava/lang/Object;)Z");
+    assertSame(method,
+        elements.getMethod("java/util/List", "add", "(Ljava/lang/Object;)Z"));
+    assertSame(elements.getType("java/util/List"), method.getClassElement());
+    assertEquals(new MethodElement("(Ljava/lang/Object;)Z", "add",
+        new TypeElement("java.util.List")), method);
+    assertNotSame(method,
+        elements.getMethod("java/util/List", "add", "(ILjava/lang/Object;)V"));
+
+    FieldElement field =
+        elements.getField("java/lang/System", "out", "Ljava/io/PrintStream;");
+    assertSame(field, elements.getField(
+        "java/lang/System", "out", "Ljava/io/PrintStream;"));
+    assertEquals(new FieldElement("out", new TypeElement("java.io.PrintStream"),
+        new TypeElement("java.lang.System")), field);
+  }
+
+  @Test
+  public void testStableIds() {
+    MethodElement method = new MethodElement("(Ljava/lang/Object;)Z", "add",
+        new TypeElement("java.util.List"));
+    int methodHash = method.hashCode();
+    String methodId = method.getId();
+
+    // Equal elements share one id instance, and cached values never change.
+    MethodElement other = new MethodElement("(Ljava/lang/Object;)Z", "add",
+        new TypeElement("java.util.List"));
+    assertSame(methodId, other.getId());
+    assertSame(methodId, method.getId());
+    assertEquals(methodHash, method.hashCode());
+    assertEquals(methodHash, other.hashCode());
+
+    FieldElement field = new FieldElement("out",
+        new TypeElement("java.io.PrintStream"),
+        new TypeElement("java.lang.System"));
+    int fieldHash = field.hashCode();
+    String fieldId = field.getId();
+    FieldElement otherField = new FieldElement("out",
+        new TypeElement("java.io.PrintStream"),
+        new TypeElement("java.lang.System"));
+    assertSame(fieldId, otherField.getId());
+    assertSame(fieldId, field.getId());
+    assertEquals(fieldHash, field.hashCode());
+    assertEquals(fieldHash, otherField.hashCode());
+
+    TypeElement type = new TypeElement("java.util.List");
+    assertSame(type.getId(), new TypeElement("java.util.List").getId());
+    assertSame(type.getId(), method.getClassElement().getId());
+  }
+
+  @Test
+  public void testMethodTypes() {
+    JavaElementCache elements = new JavaElementCache();
+    String desc = "(I[JLjava/lang/String;[[Ljava/util/List;D)[Ljava/util/Map;";
+    List<TypeElement> args = elements.getArgumentTypes(desc);
+
+    Type[] expected = Type.getArgumentTypes(desc);
+    assertEquals(expected.length, args.size());
+    for (int index = 0; index < expected.length; index++) {
+      assertEquals(TypeNameUtil.getFullyQualifiedTypeName(expected[index]),
+          args.get(index).getFullyQualifiedName());
+    }
+    assertEquals("java.util.Map",
+        elements.getReturnType(desc).getFullyQualifiedName());
+    assertSame(args, elements.getArgumentTypes(desc));
+
+    assertTrue(elements.getArgumentTypes("()V").isEmpty());
+    assertEquals("void", elements.getReturnType("()V").getFullyQualifiedName());
+  }
+}
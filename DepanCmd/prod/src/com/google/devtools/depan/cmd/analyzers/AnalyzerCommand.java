@@ -18,15 +18,21 @@ package com.google.devtools.depan.cmd.analyzers;
 
 import com.google.devtools.depan.cmd.CmdLogger;
 import com.google.devtools.depan.cmd.dispatch.AbstractCommandExec;
+import com.google.devtools.depan.filesystem.builder.PathFilter;
 import com.google.devtools.depan.graph_doc.model.GraphDocument;
 import com.google.devtools.depan.graph_doc.persistence.GraphModelXmlPersist;
 import com.google.devtools.depan.graphml.builder.GraphFactory;
+import com.google.devtools.depan.java.bytecode.eclipse.AnalysisGranularity;
 import com.google.devtools.depan.java.bytecode.eclipse.AsmFactory;
 import com.google.devtools.depan.java.bytecode.eclipse.DefaultElementFilter;
+import com.google.devtools.depan.java.bytecode.eclipse.ParallelClassFileReader;
+import com.google.devtools.depan.maven.builder.MavenAnalysisProperties;
+import com.google.devtools.depan.maven.builder.MavenContext;
 import com.google.devtools.depan.maven.builder.PomProcessing;
 import com.google.devtools.depan.maven.graphml.MavenGraphFactory;
 import com.google.devtools.depan.model.builder.chain.ElementFilter;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.text.MessageFormat;
@@ -64,12 +70,15 @@ public class AnalyzerCommand extends AbstractCommandExec {
     URI location = buildLocation(getParm(1));
     String treePrefix = getParm(2);
     String pathText = getParm(3);
+    PathFilter pathFilter = PathFilter.build(getParm(5), getParm(4));
+    File snapshotFile = getCacheFile(getParm(6));
 
-    FileSystemAnalyst analyzer =
-        new FileSystemAnalyst(treePrefix, pathText);
+    FileSystemAnalyst analyzer = new FileSystemAnalyst(treePrefix, pathText,
+        pathFilter, snapshotFile, new File(location));
 
     try {
       performAnalysis(analyzer, location);
+      analyzer.saveSnapshot();
     } catch (IOException errIo) {
       CmdLogger.LOG.error("File system dependency analysis failed", errIo);
     }
@@ -108,9 +117,14 @@ public class AnalyzerCommand extends AbstractCommandExec {
       String classPath = getParm(2);
       String filterText = getParm(3, "");
       AsmFactory asmFactory = getAsmFactory(getParm(4));
+      int threadCount = getThreadCount(getParm(5),
+          ParallelClassFileReader.getDefaultThreadCount());
+      File cacheFile = getCacheFile(getParm(6));
+      AnalysisGranularity granularity = getGranularity(getParm(7));
 
       ElementFilter filter = DefaultElementFilter.build(filterText);
-      JavaAnalyst analyzer = new JavaAnalyst(asmFactory, classPath, filter);
+      JavaAnalyst analyzer = new JavaAnalyst(asmFactory, classPath, filter,
+          granularity, threadCount, cacheFile);
 
       performAnalysis(analyzer, location);
     } catch (IOException errIo) {
@@ -129,13 +143,63 @@ public class AnalyzerCommand extends AbstractCommandExec {
     return AsmFactory.ASM5_FACTORY;
   }
 
+  /**
+   * Level of detail for Java analysis: {@code type}, {@code member}, or
+   * {@code full} (the default).
+   */
+  private AnalysisGranularity getGranularity(String parm) {
+    if (null == parm) {
+      return AnalysisGranularity.FULL;
+    }
+    AnalysisGranularity result =
+        AnalysisGranularity.getAnalysisGranularity(parm);
+    if (null == result) {
+      CmdLogger.LOG.warn("Ignoring unknown granularity {}", parm);
+      return AnalysisGranularity.FULL;
+    }
+    return result;
+  }
+
+  /**
+   * Number of worker threads, such as class file parsers or Maven
+   * processes.  Use {@code 1} for single-threaded analysis.
+   */
+  private int getThreadCount(String parm, int defaultCount) {
+    if (null == parm) {
+      return defaultCount;
+    }
+    try {
+      return Math.max(1, Integer.parseInt(parm));
+    } catch (NumberFormatException errNum) {
+      CmdLogger.LOG.warn("Ignoring invalid thread count {}", parm);
+      return defaultCount;
+    }
+  }
+
+  /**
+   * Optional location for a persistent analysis cache, such as the
+   * class analysis cache, the file system tree snapshot, or the
+   * effective POM cache directory.
+   */
+  private File getCacheFile(String parm) {
+    if ((null == parm) || parm.isEmpty()) {
+      return null;
+    }
+    return new File(parm);
+  }
+
   private void analyzeMaven() {
     URI location = buildLocation(getParm(1));
     String mavenPath = getParm(2);
     PomProcessing processing = getPomProcessing(getParm(3));
+    int threadCount =
+        getThreadCount(getParm(4), MavenContext.getDefaultThreadCount());
+    String mavenExe = getParm(5,
+        MavenAnalysisProperties.MVN_ANALYSIS_EXECUTABLE);
+    File pomCacheDir = getCacheFile(getParm(6));
 
-    MavenAnalyst analyzer =
-        new MavenAnalyst(mavenPath, processing);
+    MavenAnalyst analyzer = new MavenAnalyst(
+        mavenPath, processing, mavenExe, threadCount, pomCacheDir);
 
     try {
       performAnalysis(analyzer, location);
@@ -148,6 +212,9 @@ public class AnalyzerCommand extends AbstractCommandExec {
     if ("compute".equals(parm)) {
       return PomProcessing.EFFECTIVE;
     }
+    if ("reactor".equals(parm)) {
+      return PomProcessing.REACTOR;
+    }
 
     return  PomProcessing.NONE;
   }
@@ -157,6 +224,10 @@ public class AnalyzerCommand extends AbstractCommandExec {
 
     GraphModelXmlPersist persist = GraphModelXmlPersist.build(false);
     GraphDocument analysis = analyzer.runAnalysis();
+    if (null == analysis) {
+      CmdLogger.LOG.info("Analysis unchanged, keeping {}", location);
+      return;
+    }
     persist.save(location, analysis);
   }
 }
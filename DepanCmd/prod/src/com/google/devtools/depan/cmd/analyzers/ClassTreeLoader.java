@@ -19,30 +19,46 @@ package com.google.devtools.depan.cmd.analyzers;
 import com.google.devtools.depan.filesystem.builder.TreeLoader;
 import com.google.devtools.depan.filesystem.graph.DirectoryElement;
 import com.google.devtools.depan.filesystem.graph.FileElement;
-import com.google.devtools.depan.java.bytecode.eclipse.ClassFileReader;
+import com.google.devtools.depan.java.bytecode.eclipse.ParallelClassFileReader;
 import com.google.devtools.depan.model.builder.chain.DependenciesListener;
 
+import com.google.common.io.Files;
+
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 
 /**
  * Build dependencies from all .class files in a file system tree.
+ * The class file contents may be parsed concurrently by the supplied
+ * {@link ParallelClassFileReader}.  The caller is responsible for
+ * finishing the reader once the tree has been analyzed.
  * 
  * @author <a href="leeca@google.com">Lee Carver</a>
  */
 public class ClassTreeLoader extends TreeLoader {
 
-  private final ClassFileReader reader;
+  private final ParallelClassFileReader reader;
 
   public ClassTreeLoader(
       String prefixPath,
       DependenciesListener builder,
-      ClassFileReader reader) {
+      ParallelClassFileReader reader) {
     super(builder, prefixPath);
     this.reader = reader;
   }
 
+  /**
+   * @param threadCount number of threads that list directories
+   */
+  public ClassTreeLoader(
+      String prefixPath,
+      DependenciesListener builder,
+      ParallelClassFileReader reader,
+      int threadCount) {
+    super(builder, prefixPath, threadCount);
+    this.reader = reader;
+  }
+
   @Override
   protected void beginAnalysis(String treePath) {
     super.beginAnalysis(treePath);
@@ -63,7 +79,7 @@ public class ClassTreeLoader extends TreeLoader {
     FileElement fileNode = super.visitFile(treeFile);
 
     if (treeFile.getName().endsWith(".class")) {
-      FileInputStream content = new FileInputStream(treeFile);
+      byte[] content = Files.toByteArray(treeFile);
       reader.readClassFile(getBuilder(), fileNode, content);
     }
 
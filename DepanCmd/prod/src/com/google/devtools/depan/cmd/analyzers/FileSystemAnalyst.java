@@ -16,12 +16,18 @@
 
 package com.google.devtools.depan.cmd.analyzers;
 
+import com.google.devtools.depan.cmd.CmdLogger;
 import com.google.devtools.depan.filesystem.builder.FileSystemAnalyzer;
+import com.google.devtools.depan.filesystem.builder.PathFilter;
+import com.google.devtools.depan.filesystem.builder.TreeSnapshot;
 import com.google.devtools.depan.graph_doc.model.GraphDocument;
+import com.google.devtools.depan.graph_doc.persistence.GraphModelXmlPersist;
+import com.google.devtools.depan.model.GraphModel;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
 
+import java.io.File;
 import java.io.IOException;
 
 /**
@@ -31,17 +37,93 @@ public class FileSystemAnalyst implements DependencyAnalyst {
 
   private final String treePrefix;
   private final String pathText;
+  private final PathFilter pathFilter;
+  private final File snapshotFile;
+  private final File graphFile;
 
-  public FileSystemAnalyst(String treePrefix, String pathText) {
+  private TreeSnapshot snapshot;
+
+  /**
+   * @param snapshotFile location of the tree snapshot, or {@code null}
+   *     to always analyze the full tree
+   * @param graphFile graph document produced with the snapshot.  The
+   *     snapshot is only used if this document exists.
+   */
+  public FileSystemAnalyst(String treePrefix, String pathText,
+      PathFilter pathFilter, File snapshotFile, File graphFile) {
     this.treePrefix = treePrefix;
     this.pathText = pathText;
+    this.pathFilter = pathFilter;
+    this.snapshotFile = snapshotFile;
+    this.graphFile = graphFile;
+  }
+
+  public FileSystemAnalyst(
+      String treePrefix, String pathText, PathFilter pathFilter) {
+    this(treePrefix, pathText, pathFilter, null, null);
+  }
+
+  public FileSystemAnalyst(String treePrefix, String pathText) {
+    this(treePrefix, pathText, PathFilter.ALL_PATHS);
   }
 
+  /**
+   * @return {@code null} if a snapshot shows that the existing graph
+   *     document is still correct
+   */
   @Override
   public GraphDocument runAnalysis() throws IOException {
     FileSystemAnalyzer analyzer =
-        new FileSystemAnalyzer(treePrefix, pathText);
+        new FileSystemAnalyzer(treePrefix, pathText, pathFilter);
     IProgressMonitor monitor = new NullProgressMonitor();
-    return analyzer.generateAnalysisDocument(monitor);
+    if (null == snapshotFile) {
+      return analyzer.generateAnalysisDocument(monitor);
+    }
+
+    TreeSnapshot previous = null;
+    if ((null != graphFile) && graphFile.exists()) {
+      previous = TreeSnapshot.load(snapshotFile);
+    }
+    TreeSnapshot.Diff changes = analyzer.scanTree(monitor, previous);
+    snapshot = analyzer.getSnapshot();
+    if (!changes.isComparable()) {
+      return analyzer.updateAnalysisDocument(monitor, null);
+    }
+
+    CmdLogger.LOG.info("File system changes: {} added, {} removed",
+        changes.getAdded().size(), changes.getRemoved().size());
+    if (changes.isGraphUnchanged()) {
+      return null;
+    }
+    GraphModel previousGraph = loadPreviousGraph();
+    return analyzer.updateAnalysisDocument(monitor, previousGraph);
+  }
+
+  /**
+   * Load the graph that the earlier snapshot describes, so the changes
+   * can be applied to it.
+   *
+   * @return {@code null} if the graph document cannot be loaded
+   */
+  private GraphModel loadPreviousGraph() {
+    try {
+      GraphModelXmlPersist loader = GraphModelXmlPersist.build(true);
+      return loader.load(graphFile.toURI()).getGraph();
+    } catch (RuntimeException err) {
+      CmdLogger.LOG.warn(
+          "Unable to load previous graph {}, analyzing full tree",
+          graphFile, err);
+    }
+    return null;
+  }
+
+  /**
+   * Save the snapshot from the last analysis, once its graph document
+   * has been saved.
+   */
+  public void saveSnapshot() throws IOException {
+    if ((null != snapshotFile) && (null != snapshot)) {
+      snapshot.save(snapshotFile);
+    }
   }
 }
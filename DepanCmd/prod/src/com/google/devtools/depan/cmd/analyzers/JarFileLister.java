@@ -19,10 +19,12 @@ package com.google.devtools.depan.cmd.analyzers;
 import com.google.devtools.depan.filesystem.graph.DirectoryElement;
 import com.google.devtools.depan.filesystem.graph.FileElement;
 import com.google.devtools.depan.filesystem.graph.FileSystemRelation;
-import com.google.devtools.depan.java.bytecode.eclipse.ClassFileReader;
+import com.google.devtools.depan.java.bytecode.eclipse.ParallelClassFileReader;
 import com.google.devtools.depan.model.GraphNode;
 import com.google.devtools.depan.model.builder.chain.DependenciesListener;
 
+import com.google.common.io.ByteStreams;
+
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -36,6 +38,11 @@ import java.util.zip.ZipFile;
 /**
  * Similar to {@code ClassTreeLoader}, except that it reads the files contained
  * in a jar or zip archive. (any kind of zipped file actually).
+ *
+ * The archive entries are read sequentially, but the class file contents
+ * may be parsed concurrently by the supplied
+ * {@link ParallelClassFileReader}.  The caller is responsible for
+ * finishing the reader once the archive has been listed.
  * 
  * @author ycoppel@google.com (Yohann Coppel)
  */
@@ -48,7 +55,7 @@ public class JarFileLister {
 
   private final DependenciesListener builder;
 
-  private final ClassFileReader reader;
+  private final ParallelClassFileReader reader;
 
   /**
    * Create a new JarFileLister, to list files in file, and call callbacks of
@@ -63,7 +70,9 @@ public class JarFileLister {
    *         opening the {@link ZipFile}
    */
   public JarFileLister(
-      ZipFile zipFile, DependenciesListener builder, ClassFileReader reader) {
+      ZipFile zipFile,
+      DependenciesListener builder,
+      ParallelClassFileReader reader) {
     this.zipFile = zipFile;
     this.builder = builder;
     this.reader = reader;
@@ -115,12 +124,7 @@ public class JarFileLister {
       // If it is a .class file, parse those contents.
       // TODO(leeca): re-add path filtering
       if (!entry.isDirectory() && name.endsWith(".class")) {
-        try {
-          InputStream inputStream = zipFile.getInputStream(entry);
-          reader.readClassFile(getBuilder(), (FileElement) entryNode, inputStream);
-        } catch (IOException e1) {
-          LOG.error("Error while reading file {}.", name);
-        }
+        readClassEntry(entry, (FileElement) entryNode);
       }
     }
 
@@ -131,6 +135,20 @@ public class JarFileLister {
     }
   }
 
+  private void readClassEntry(ZipEntry entry, FileElement entryNode) {
+    // The archive already knows the size and CRC-32 of its entries.
+    if (reader.readCachedClassFile(
+        getBuilder(), entryNode, entry.getSize(), entry.getCrc())) {
+      return;
+    }
+    try (InputStream inputStream = zipFile.getInputStream(entry)) {
+      byte[] content = ByteStreams.toByteArray(inputStream);
+      reader.readClassFile(getBuilder(), entryNode, content);
+    } catch (IOException e1) {
+      LOG.error("Error while reading file {}.", entry.getName());
+    }
+  }
+
   private GraphNode createEntryNode(ZipEntry entry) {
     if (entry.isDirectory()) {
       // Ensure directory name is in canonical form
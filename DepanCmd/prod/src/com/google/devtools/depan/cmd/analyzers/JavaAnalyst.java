@@ -20,9 +20,12 @@ import com.google.devtools.depan.cmd.CmdLogger;
 import com.google.devtools.depan.filesystem.builder.TreeLoader;
 import com.google.devtools.depan.graph_doc.model.GraphDocument;
 import com.google.devtools.depan.java.JavaPluginActivator;
+import com.google.devtools.depan.java.bytecode.eclipse.AnalysisGranularity;
 import com.google.devtools.depan.java.bytecode.eclipse.AsmFactory;
+import com.google.devtools.depan.java.bytecode.eclipse.ClassAnalysisCache;
 import com.google.devtools.depan.java.bytecode.eclipse.ClassAnalysisStats;
 import com.google.devtools.depan.java.bytecode.eclipse.ClassFileReader;
+import com.google.devtools.depan.java.bytecode.eclipse.ParallelClassFileReader;
 import com.google.devtools.depan.model.GraphModel;
 import com.google.devtools.depan.model.builder.api.GraphBuilder;
 import com.google.devtools.depan.model.builder.api.GraphBuilders;
@@ -35,6 +38,11 @@ import java.io.IOException;
 import java.util.zip.ZipFile;
 
 /**
+ * Build Java dependencies from a jar file or a tree of class files.
+ * Class files are parsed on up to {@code threadCount} worker threads.
+ * If a cache file is supplied, unchanged class files are replayed from the
+ * cache instead of being parsed again.
+ *
  * @author <a href="leeca@pnambic.com">Lee Carver</a>
  */
 public class JavaAnalyst implements DependencyAnalyst {
@@ -45,54 +53,102 @@ public class JavaAnalyst implements DependencyAnalyst {
 
   private final ElementFilter filter;
 
+  private final AnalysisGranularity granularity;
+
+  private final int threadCount;
+
+  /** {@code null} if class dependencies are not cached. */
+  private final File cacheFile;
+
   private final ClassAnalysisStats analysisStats;
 
   public JavaAnalyst(
-      AsmFactory asmFactory, String classPath, ElementFilter filter) {
+      AsmFactory asmFactory, String classPath, ElementFilter filter,
+      AnalysisGranularity granularity, int threadCount, File cacheFile) {
     this.asmFactory = asmFactory;
     this.filter = filter;
     this.classPath = classPath;
+    this.granularity = granularity;
+    this.threadCount = threadCount;
+    this.cacheFile = cacheFile;
     analysisStats = new ClassAnalysisStats();
   }
 
+  public JavaAnalyst(
+      AsmFactory asmFactory, String classPath, ElementFilter filter) {
+    this(asmFactory, classPath, filter, AnalysisGranularity.FULL,
+        ParallelClassFileReader.getDefaultThreadCount(), null);
+  }
+
   @Override
   public GraphDocument runAnalysis() throws IOException {
     GraphBuilder graphBuilder = GraphBuilders.createGraphModelBuilder();
     DependenciesListener builder =
         new DependenciesDispatcher(filter, graphBuilder);
 
-    if (classPath.endsWith(".jar") || classPath.endsWith(".zip")) {
-      readZipFile(classPath, builder);
-    } else {
-      readTree(classPath, builder);
+    ClassAnalysisCache cache = loadCache();
+    ClassFileReader classReader =
+        new ClassFileReader(asmFactory, analysisStats, granularity);
+    ParallelClassFileReader reader =
+        new ParallelClassFileReader(classReader, threadCount, cache);
+    try {
+      if (classPath.endsWith(".jar") || classPath.endsWith(".zip")) {
+        readZipFile(classPath, builder, reader);
+      } else {
+        readTree(classPath, builder, reader);
+      }
+    } finally {
+      // Always release the worker threads, even for failed reads.
+      reader.finish();
     }
+    saveCache(cache);
 
     CmdLogger.LOG.info(
         analysisStats.getClassesLoaded() + "/" + analysisStats.getClassesTotal()
-        + " classes loaded. " + analysisStats.getClassesFailed() + " failed.");
+        + " classes loaded. " + analysisStats.getClassesFailed() + " failed. "
+        + analysisStats.getClassesCached() + " from cache.");
 
     GraphModel resultGraph = graphBuilder.createGraphModel();
 
     return new GraphDocument(JavaPluginActivator.JAVA_MODEL, resultGraph);
   }
 
+  private ClassAnalysisCache loadCache() {
+    if (null == cacheFile) {
+      return null;
+    }
+    return ClassAnalysisCache.load(
+        cacheFile, asmFactory.getApiLevel(), granularity);
+  }
+
+  private void saveCache(ClassAnalysisCache cache) {
+    if (null == cache) {
+      return;
+    }
+    try {
+      cache.save();
+    } catch (IOException errIo) {
+      CmdLogger.LOG.warn("Unable to save class cache " + cacheFile, errIo);
+    }
+  }
+
   /**
    * Build Java dependencies from a Jar file.
    * 
    * @param classPath path to Jar file
    * @param builder destination of discovered dependencies
-   * @param progress indicator for user interface
+   * @param reader parser for the archive's class files
    * @throws IOException
    */
   private void readZipFile(
-      String classPath, DependenciesListener builder) throws IOException {
-
-    ClassFileReader reader =
-        new ClassFileReader(asmFactory, analysisStats);
-    ZipFile zipFile = new ZipFile(classPath);
-    JarFileLister jarReader =
-        new JarFileLister(zipFile, builder, reader);
-    jarReader.start();
+      String classPath, DependenciesListener builder,
+      ParallelClassFileReader reader) throws IOException {
+
+    try (ZipFile zipFile = new ZipFile(classPath)) {
+      JarFileLister jarReader =
+          new JarFileLister(zipFile, builder, reader);
+      jarReader.start();
+    }
   }
 
   /**
@@ -100,21 +156,20 @@ public class JavaAnalyst implements DependencyAnalyst {
    * 
    * @param classPath root of directory tree
    * @param builder destination of discovered dependencies
-   * @param progress indicator for user interface
+   * @param reader parser for the tree's class files
    * @throws IOException
    */
   private void readTree(
-      String classPath, DependenciesListener builder) throws IOException {
+      String classPath, DependenciesListener builder,
+      ParallelClassFileReader reader) throws IOException {
 
     // TODO(leeca): Instead of just assuming one level of path retention,
     // let the user decide like in NewFileSystemWizard.  But first, that needs
     // to be cleaned up and refactored.
     String treePrefix = new File(classPath).getParent();
 
-    ClassFileReader reader = new ClassFileReader(asmFactory, analysisStats);
-
     TreeLoader loader =
-        new ClassTreeLoader(treePrefix, builder, reader);
+        new ClassTreeLoader(treePrefix, builder, reader, threadCount);
     loader.analyzeTree(classPath);
   }
 }
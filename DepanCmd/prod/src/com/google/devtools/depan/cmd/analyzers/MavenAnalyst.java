@@ -19,20 +19,18 @@ package com.google.devtools.depan.cmd.analyzers;
 import com.google.devtools.depan.cmd.CmdLogger;
 import com.google.devtools.depan.graph_doc.model.GraphDocument;
 import com.google.devtools.depan.maven.MavenPluginActivator;
+import com.google.devtools.depan.maven.builder.EffectivePomCache;
 import com.google.devtools.depan.maven.builder.MavenAnalysisProperties;
 import com.google.devtools.depan.maven.builder.MavenContext;
-import com.google.devtools.depan.maven.builder.MavenDocumentHandler;
 import com.google.devtools.depan.maven.builder.MavenGraphResolver;
 import com.google.devtools.depan.maven.builder.PomProcessing;
 import com.google.devtools.depan.maven.builder.PomTools;
+import com.google.devtools.depan.maven.builder.ProjectLoader;
 import com.google.devtools.depan.model.GraphModel;
 import com.google.devtools.depan.model.builder.api.GraphBuilder;
 import com.google.devtools.depan.model.builder.api.GraphBuilders;
 import com.google.devtools.depan.model.builder.chain.DependenciesDispatcher;
 import com.google.devtools.depan.model.builder.chain.DependenciesListener;
-import com.google.devtools.depan.pushxml.PushDownXmlHandler.DocumentHandler;
-
-import org.xml.sax.InputSource;
 
 import java.io.File;
 import java.io.IOException;
@@ -44,10 +42,37 @@ public class MavenAnalyst implements DependencyAnalyst {
 
   private final String mavenPath;
   private final PomProcessing processing;
-
-  public MavenAnalyst(String mavenPath, PomProcessing processing) {
+  private final String mavenExe;
+  private final int threadCount;
+  private final File pomCacheDir;
+
+  /**
+   * @param mavenExe Maven command for effective POMs
+   * @param threadCount number of concurrent Maven processes
+   * @param pomCacheDir location of the effective POM cache, or
+   *     {@code null} to run Maven for every module
+   */
+  public MavenAnalyst(String mavenPath, PomProcessing processing,
+      String mavenExe, int threadCount, File pomCacheDir) {
     this.mavenPath = mavenPath;
     this.processing = processing;
+    this.mavenExe = mavenExe;
+    this.threadCount = threadCount;
+    this.pomCacheDir = pomCacheDir;
+  }
+
+  /**
+   * @param mavenExe Maven command for effective POMs
+   * @param threadCount number of concurrent Maven processes
+   */
+  public MavenAnalyst(String mavenPath, PomProcessing processing,
+      String mavenExe, int threadCount) {
+    this(mavenPath, processing, mavenExe, threadCount, null);
+  }
+
+  public MavenAnalyst(String mavenPath, PomProcessing processing) {
+    this(mavenPath, processing,
+        MavenAnalysisProperties.MVN_ANALYSIS_EXECUTABLE, 1);
   }
 
   @Override
@@ -88,16 +113,19 @@ public class MavenAnalyst implements DependencyAnalyst {
     File pomFile = PomTools.getPomFile(moduleFile);
     File mavenDir = pomFile.getParentFile();
     MavenContext context = buildMavenContext(builder, mavenDir);
+    try {
+      ProjectLoader project =
+          PomTools.loadProject(pomFile, context, processing);
 
-    InputSource pomSource = PomTools.getPomSource(pomFile, context, processing);
+      // TODO: Improve error handling ?? Add err state to context?
+      if (null == project) {
+        return;
+      }
 
-    // TODO: Improve error handling ?? Add err state to context?
-    if (null == pomSource) {
-      return;
+      project.addDependencies();
+    } finally {
+      context.shutdown();
     }
-
-    DocumentHandler pomLoader = new MavenDocumentHandler(context);
-    PomTools.loadModule(pomLoader, pomSource);
   }
 
   private MavenContext buildMavenContext(
@@ -105,11 +133,16 @@ public class MavenAnalyst implements DependencyAnalyst {
     File pomFile = PomTools.getPomFile(moduleFile);
     File mavenDir = pomFile.getParentFile();
 
-    String mavenExe = MavenAnalysisProperties.MVN_ANALYSIS_EXECUTABLE;
     String effPomCmd = MavenAnalysisProperties.MVN_ANALYSIS_EFFECTIVEPOM;
     String javaHome = getJavaHome();
 
-    return new MavenContext(builder, mavenDir, javaHome, mavenExe, effPomCmd);
+    EffectivePomCache pomCache = null;
+    if (null != pomCacheDir) {
+      pomCache = new EffectivePomCache(pomCacheDir);
+    }
+
+    return new MavenContext(builder, mavenDir, javaHome, mavenExe, effPomCmd,
+        threadCount, pomCache);
   }
 
   private String getJavaHome() {
@@ -15,6 +15,8 @@
  */
 package com.google.devtools.depan.graph.api;
 
+import java.util.Collection;
+
 /**
  * Basic definitions of a graph.  A graph is an immutable set of nodes
  * and edges.
@@ -42,4 +44,28 @@ public interface Graph<T> {
    */
   Edge<? extends T> findEdge(Relation relation,
       Node<? extends T> head, Node<? extends T> tail);
+
+  /**
+   * Provide the edges that depart from a node, where the node is the
+   * edge's head.  Implementations should deliver these in time proportional
+   * to the node's out-degree, not the size of the graph.
+   * 
+   * @param node starting node for the edges
+   * @return unmodifiable collection of edges with the node as their head,
+   *     or an empty collection if there are none
+   */
+  Collection<? extends Edge<? extends T>> getForwardEdges(
+      Node<? extends T> node);
+
+  /**
+   * Provide the edges that arrive at a node, where the node is the
+   * edge's tail.  Implementations should deliver these in time proportional
+   * to the node's in-degree, not the size of the graph.
+   * 
+   * @param node final node for the edges
+   * @return unmodifiable collection of edges with the node as their tail,
+   *     or an empty collection if there are none
+   */
+  Collection<? extends Edge<? extends T>> getReverseEdges(
+      Node<? extends T> node);
 }
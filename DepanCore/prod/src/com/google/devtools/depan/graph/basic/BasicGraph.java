@@ -20,12 +20,21 @@ import com.google.devtools.depan.graph.api.Graph;
 import com.google.devtools.depan.graph.api.Node;
 import com.google.devtools.depan.graph.api.Relation;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 /**
+ * The contents of a {@code BasicGraph} are fixed at construction.
+ * Forward and reverse adjacency indexes are built from the supplied edges,
+ * so the edges of any node can be enumerated without scanning the entire
+ * graph.
+ * 
  * @author <a href="leeca@google.com">Lee Carver</a>
  * 
  * @param <T> Node content type.
@@ -36,14 +45,53 @@ public class BasicGraph<T> implements Graph<T> {
 
   private final Set<BasicEdge<? extends T>> edges;
 
+  /** Edges indexed by their head node. */
+  private final Map<Node<? extends T>, List<BasicEdge<? extends T>>>
+      forwardEdges;
+
+  /** Edges indexed by their tail node. */
+  private final Map<Node<? extends T>, List<BasicEdge<? extends T>>>
+      reverseEdges;
+
   /**
-   * 
+   * The graph takes ownership of the supplied collections.  The adjacency
+   * indexes are built once, so callers must not modify the collections
+   * after construction.  Builders that continue to add nodes and edges
+   * should pass copies.
    */
   public BasicGraph(
       Map<T, BasicNode<? extends T>> nodes,
       Set<BasicEdge<? extends T>> edges) {
     this.nodes = nodes;
     this.edges = edges;
+
+    this.forwardEdges = Maps.newHashMapWithExpectedSize(nodes.size());
+    this.reverseEdges = Maps.newHashMapWithExpectedSize(nodes.size());
+    for (BasicEdge<? extends T> edge : edges) {
+      indexEdge(forwardEdges, edge.getHead(), edge);
+      indexEdge(reverseEdges, edge.getTail(), edge);
+    }
+  }
+
+  private static <T> void indexEdge(
+      Map<Node<? extends T>, List<BasicEdge<? extends T>>> index,
+      Node<? extends T> node, BasicEdge<? extends T> edge) {
+    List<BasicEdge<? extends T>> nodeEdges = index.get(node);
+    if (null == nodeEdges) {
+      nodeEdges = Lists.newArrayListWithCapacity(2);
+      index.put(node, nodeEdges);
+    }
+    nodeEdges.add(edge);
+  }
+
+  private static <T> Collection<BasicEdge<? extends T>> lookupEdges(
+      Map<Node<? extends T>, List<BasicEdge<? extends T>>> index,
+      Node<? extends T> node) {
+    List<BasicEdge<? extends T>> result = index.get(node);
+    if (null == result) {
+      return Collections.emptyList();
+    }
+    return Collections.unmodifiableList(result);
   }
 
   /////////////////////////////////////
@@ -58,7 +106,11 @@ public class BasicGraph<T> implements Graph<T> {
   @Override
   public BasicEdge<? extends T> findEdge(final Relation relation,
       final Node<? extends T> head, final Node<? extends T> tail) {
-    for (BasicEdge<? extends T> edge : edges) {
+    List<BasicEdge<? extends T>> headEdges = forwardEdges.get(head);
+    if (null == headEdges) {
+      return null;
+    }
+    for (BasicEdge<? extends T> edge : headEdges) {
       if ((relation == edge.getRelation()) &&
           (head == edge.getHead()) &&
           (tail == edge.getTail())) {
@@ -70,6 +122,18 @@ public class BasicGraph<T> implements Graph<T> {
     return null;
   }
 
+  @Override
+  public Collection<? extends BasicEdge<? extends T>> getForwardEdges(
+      Node<? extends T> node) {
+    return lookupEdges(forwardEdges, node);
+  }
+
+  @Override
+  public Collection<? extends BasicEdge<? extends T>> getReverseEdges(
+      Node<? extends T> node) {
+    return lookupEdges(reverseEdges, node);
+  }
+
   /////////////////////////////////////
   // BasicGraph methods
 
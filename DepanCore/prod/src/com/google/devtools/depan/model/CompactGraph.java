@@ -0,0 +1,353 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.model;
+
+import com.google.devtools.depan.graph.api.Relation;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, compressed-sparse-row snapshot of a {@link GraphModel}.
+ *
+ * Every node is assigned a dense ordinal in {@code [0, getNodeCount())},
+ * and every distinct relation is assigned a dense ordinal in
+ * {@code [0, getRelationCount())}.  The departing edges of node {@code n}
+ * occupy the edge slots {@code [forwardStart(n), forwardEnd(n))}, where
+ * {@link #forwardTarget(int)} provides the tail ordinal and
+ * {@link #forwardRelation(int)} provides the relation ordinal of each slot.
+ * The arriving edges are laid out the same way through the reverse
+ * accessors.
+ *
+ * Traversals that only read the graph can walk these arrays without
+ * touching any {@link GraphEdge} instances.
+ *
+ * A node-only index has the node ordinals without any edges.  It is a
+ * cheaper universe for {@link GraphNodeSet}s that are only used for set
+ * algebra.  Node sets over a node-only index and over the full snapshot
+ * of the same model share the same ordinals, and may be combined.
+ */
+public class CompactGraph implements RelationOrdinals {
+
+  /** Ordinal reported for nodes and relations not in the snapshot. */
+  public static final int MISSING = RelationOrdinals.MISSING;
+
+  private final GraphNode[] nodes;
+
+  private final Map<GraphNode, Integer> nodeOrdinals;
+
+  private final Relation[] relations;
+
+  private final Map<Relation, Integer> relationOrdinals;
+
+  private final int[] forwardOffsets;
+  private final int[] forwardTargets;
+  private final short[] forwardRelations;
+
+  private final int[] reverseOffsets;
+  private final int[] reverseTargets;
+  private final short[] reverseRelations;
+
+  /**
+   * Build a snapshot of the nodes and edges of the supplied model.
+   * Node ordinals follow the iteration order of {@link GraphModel#getNodes()}.
+   *
+   * @throws IllegalArgumentException if the model contains more distinct
+   *     relations than can be encoded in a {@code short}
+   */
+  public CompactGraph(GraphModel model) {
+    this(model, null);
+  }
+
+  /**
+   * Build a snapshot of the supplied model that reuses the node ordinals
+   * of a node-only index for the same model.
+   *
+   * @param nodeIndex node-only index from {@link #nodesOf(GraphModel)}
+   *     for the same model, or {@code null} to assign new ordinals
+   */
+  CompactGraph(GraphModel model, CompactGraph nodeIndex) {
+    Collection<GraphEdge> modelEdges = model.getEdges();
+    int edgeCount = modelEdges.size();
+
+    if (null != nodeIndex) {
+      nodes = nodeIndex.nodes;
+      nodeOrdinals = nodeIndex.nodeOrdinals;
+    } else {
+      nodes = toNodeArray(model.getNodes());
+      nodeOrdinals = buildNodeOrdinals(nodes);
+    }
+    int nodeCount = nodes.length;
+
+    // Count degrees and assign relation ordinals in one pass.
+    int[] heads = new int[edgeCount];
+    int[] tails = new int[edgeCount];
+    short[] kinds = new short[edgeCount];
+    forwardOffsets = new int[nodeCount + 1];
+    reverseOffsets = new int[nodeCount + 1];
+    relationOrdinals = Maps.newHashMap();
+
+    int edgeIndex = 0;
+    for (GraphEdge edge : modelEdges) {
+      int head = nodeOrdinals.get(edge.getHead());
+      int tail = nodeOrdinals.get(edge.getTail());
+      heads[edgeIndex] = head;
+      tails[edgeIndex] = tail;
+      kinds[edgeIndex] = internRelation(edge.getRelation());
+      forwardOffsets[head + 1]++;
+      reverseOffsets[tail + 1]++;
+      edgeIndex++;
+    }
+
+    relations = new Relation[relationOrdinals.size()];
+    for (Map.Entry<Relation, Integer> entry : relationOrdinals.entrySet()) {
+      relations[entry.getValue()] = entry.getKey();
+    }
+
+    for (int ordinal = 0; ordinal < nodeCount; ordinal++) {
+      forwardOffsets[ordinal + 1] += forwardOffsets[ordinal];
+      reverseOffsets[ordinal + 1] += reverseOffsets[ordinal];
+    }
+
+    // Scatter the edges into their rows.
+    forwardTargets = new int[edgeCount];
+    forwardRelations = new short[edgeCount];
+    reverseTargets = new int[edgeCount];
+    reverseRelations = new short[edgeCount];
+
+    int[] forwardFill = new int[nodeCount];
+    int[] reverseFill = new int[nodeCount];
+    for (int index = 0; index < edgeCount; index++) {
+      int head = heads[index];
+      int tail = tails[index];
+
+      int forwardSlot = forwardOffsets[head] + forwardFill[head]++;
+      forwardTargets[forwardSlot] = tail;
+      forwardRelations[forwardSlot] = kinds[index];
+
+      int reverseSlot = reverseOffsets[tail] + reverseFill[tail]++;
+      reverseTargets[reverseSlot] = head;
+      reverseRelations[reverseSlot] = kinds[index];
+    }
+  }
+
+  /**
+   * Build a node-only index, with no relations or edges.
+   */
+  private CompactGraph(
+      GraphNode[] nodes, Map<GraphNode, Integer> nodeOrdinals) {
+    this.nodes = nodes;
+    this.nodeOrdinals = nodeOrdinals;
+    relations = new Relation[0];
+    relationOrdinals = Collections.emptyMap();
+
+    forwardOffsets = new int[nodes.length + 1];
+    forwardTargets = new int[0];
+    forwardRelations = new short[0];
+    reverseOffsets = forwardOffsets;
+    reverseTargets = forwardTargets;
+    reverseRelations = forwardRelations;
+  }
+
+  /**
+   * Build a node-only index for the nodes of the supplied model.
+   * Node ordinals follow the iteration order of {@link GraphModel#getNodes()},
+   * as they do for the full snapshot.
+   */
+  public static CompactGraph nodesOf(GraphModel model) {
+    GraphNode[] nodes = toNodeArray(model.getNodes());
+    return new CompactGraph(nodes, buildNodeOrdinals(nodes));
+  }
+
+  /**
+   * Provide a universe for the union of the nodes in {@code base} and the
+   * {@code more} nodes.  The nodes of {@code base} keep their ordinals, and
+   * the other nodes follow them in iteration order.  If {@code base}
+   * already contains every node, it is returned directly.  Otherwise, the
+   * result is a node-only index.
+   */
+  public static CompactGraph unionOf(
+      CompactGraph base, Collection<? extends GraphNode> more) {
+    List<GraphNode> extras = Lists.newArrayList();
+    for (GraphNode node : more) {
+      if (!base.nodeOrdinals.containsKey(node)) {
+        extras.add(node);
+      }
+    }
+    if (extras.isEmpty()) {
+      return base;
+    }
+
+    int baseCount = base.nodes.length;
+    GraphNode[] nodes = Arrays.copyOf(base.nodes, baseCount + extras.size());
+    Map<GraphNode, Integer> nodeOrdinals =
+        Maps.newHashMapWithExpectedSize(nodes.length);
+    nodeOrdinals.putAll(base.nodeOrdinals);
+    for (int index = 0; index < extras.size(); index++) {
+      nodes[baseCount + index] = extras.get(index);
+      nodeOrdinals.put(extras.get(index), baseCount + index);
+    }
+    return new CompactGraph(nodes, nodeOrdinals);
+  }
+
+  private static GraphNode[] toNodeArray(Collection<GraphNode> modelNodes) {
+    return modelNodes.toArray(new GraphNode[modelNodes.size()]);
+  }
+
+  private static Map<GraphNode, Integer> buildNodeOrdinals(
+      GraphNode[] nodes) {
+    Map<GraphNode, Integer> result =
+        Maps.newHashMapWithExpectedSize(nodes.length);
+    for (int ordinal = 0; ordinal < nodes.length; ordinal++) {
+      result.put(nodes[ordinal], ordinal);
+    }
+    return result;
+  }
+
+  private short internRelation(Relation relation) {
+    Integer result = relationOrdinals.get(relation);
+    if (null != result) {
+      return result.shortValue();
+    }
+    int ordinal = relationOrdinals.size();
+    if (ordinal > Short.MAX_VALUE) {
+      throw new IllegalArgumentException(
+          "Too many distinct relations for a compact graph");
+    }
+    relationOrdinals.put(relation, ordinal);
+    return (short) ordinal;
+  }
+
+  /////////////////////////////////////
+  // Nodes
+
+  public int getNodeCount() {
+    return nodes.length;
+  }
+
+  public GraphNode getNode(int ordinal) {
+    return nodes[ordinal];
+  }
+
+  /**
+   * Provide the ordinal for the node, or {@link #MISSING} if the node
+   * is not part of this snapshot.
+   */
+  public int getNodeOrdinal(GraphNode node) {
+    Integer result = nodeOrdinals.get(node);
+    if (null == result) {
+      return MISSING;
+    }
+    return result;
+  }
+
+  /**
+   * Indicate whether both snapshots assign the same ordinals to the
+   * same nodes, such as a node-only index and the full snapshot of
+   * one model.
+   */
+  public boolean hasSameNodes(CompactGraph that) {
+    return nodes == that.nodes;
+  }
+
+  /////////////////////////////////////
+  // Relations
+
+  @Override
+  public int getRelationCount() {
+    return relations.length;
+  }
+
+  @Override
+  public Relation getRelation(int ordinal) {
+    return relations[ordinal];
+  }
+
+  /**
+   * Provide the ordinal for the relation, or {@link #MISSING} if no edge in
+   * this snapshot uses the relation.
+   */
+  @Override
+  public int getRelationOrdinal(Relation relation) {
+    Integer result = relationOrdinals.get(relation);
+    if (null == result) {
+      return MISSING;
+    }
+    return result;
+  }
+
+  /////////////////////////////////////
+  // Edges
+
+  public int getEdgeCount() {
+    return forwardTargets.length;
+  }
+
+  /** First edge slot for the departing edges of the node. */
+  public int forwardStart(int node) {
+    return forwardOffsets[node];
+  }
+
+  /** Limit (exclusive) edge slot for the departing edges of the node. */
+  public int forwardEnd(int node) {
+    return forwardOffsets[node + 1];
+  }
+
+  /** Ordinal of the tail node for a departing edge slot. */
+  public int forwardTarget(int slot) {
+    return forwardTargets[slot];
+  }
+
+  /** Ordinal of the relation for a departing edge slot. */
+  public int forwardRelation(int slot) {
+    return forwardRelations[slot];
+  }
+
+  public int getForwardDegree(int node) {
+    return forwardOffsets[node + 1] - forwardOffsets[node];
+  }
+
+  /** First edge slot for the arriving edges of the node. */
+  public int reverseStart(int node) {
+    return reverseOffsets[node];
+  }
+
+  /** Limit (exclusive) edge slot for the arriving edges of the node. */
+  public int reverseEnd(int node) {
+    return reverseOffsets[node + 1];
+  }
+
+  /** Ordinal of the head node for an arriving edge slot. */
+  public int reverseTarget(int slot) {
+    return reverseTargets[slot];
+  }
+
+  /** Ordinal of the relation for an arriving edge slot. */
+  public int reverseRelation(int slot) {
+    return reverseRelations[slot];
+  }
+
+  public int getReverseDegree(int node) {
+    return reverseOffsets[node + 1] - reverseOffsets[node];
+  }
+}
@@ -16,6 +16,7 @@
 
 package com.google.devtools.depan.model;
 
+import com.google.devtools.depan.graph.api.Node;
 import com.google.devtools.depan.graph.basic.BasicEdge;
 import com.google.devtools.depan.graph.basic.BasicGraph;
 import com.google.devtools.depan.graph.basic.BasicNode;
@@ -38,6 +39,12 @@ import java.util.Set;
  */
 public class GraphModel extends BasicGraph<String> {
 
+  /** Lazily built, read-only snapshot.  See {@link #getCompactGraph()}. */
+  private transient volatile CompactGraph compactGraph;
+
+  /** Lazily built node-only index.  See {@link #getNodeIndex()}. */
+  private transient volatile CompactGraph nodeIndex;
+
   /**
    * Basic constructor for a view model.
    */
@@ -103,35 +110,115 @@ public class GraphModel extends BasicGraph<String> {
     return Sets.newHashSet(getEdges());
   }
 
-  /////////////////////////////////////
-  // Expanded Graph methods.
-  // These should probably be pushed up into the Graph interface.
+  /**
+   * Returns the edges that have the supplied node as their head.
+   *
+   * @return the collection of departing edges for the node.
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public Collection<GraphEdge> getForwardEdges(Node<? extends String> node) {
+    return (Collection<GraphEdge>) super.getForwardEdges(node);
+  }
 
-  public Collection<GraphNode> and(GraphModel that) {
-    Collection<GraphNode> result = Sets.newHashSet(getNodesSet());
-    result.retainAll(that.getNodes());
+  /**
+   * Returns the edges that have the supplied node as their tail.
+   *
+   * @return the collection of arriving edges for the node.
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public Collection<GraphEdge> getReverseEdges(Node<? extends String> node) {
+    return (Collection<GraphEdge>) super.getReverseEdges(node);
+  }
+
+  /**
+   * Provides a compressed-sparse-row snapshot of this graph, suitable for
+   * read-only traversals.  The snapshot is built on first use and shared
+   * by all later callers.
+   *
+   * @return the compact snapshot of this graph
+   */
+  public CompactGraph getCompactGraph() {
+    CompactGraph result = compactGraph;
+    if (null == result) {
+      result = new CompactGraph(this, nodeIndex);
+      compactGraph = result;
+    }
+    return result;
+  }
 
+  /**
+   * Provides the node ordinals of this graph, without building the edge
+   * arrays if the compact snapshot does not exist yet.  Node sets over the
+   * index can be combined with node sets over {@link #getCompactGraph()}.
+   *
+   * @return the compact snapshot if it is built, otherwise a node-only
+   *     index
+   */
+  public CompactGraph getNodeIndex() {
+    CompactGraph result = compactGraph;
+    if (null != result) {
+      return result;
+    }
+    result = nodeIndex;
+    if (null == result) {
+      result = CompactGraph.nodesOf(this);
+      nodeIndex = result;
+    }
     return result;
   }
 
-  public Collection<GraphNode> not(GraphModel that) {
-    Collection<GraphNode> result = Sets.newHashSet(getNodesSet());
-    result.removeAll(that.getNodes());
+  /////////////////////////////////////
+  // Expanded Graph methods.
+  // These should probably be pushed up into the Graph interface.
+  //
+  // The results are node sets for set algebra.  Their universe may be a
+  // node-only index, so edge traversals should use a node set over
+  // getCompactGraph() instead.
 
+  public GraphNodeSet and(GraphModel that) {
+    return GraphNodeSet.retainOf(getNodeIndex(), that.getNodes());
+  }
+
+  public GraphNodeSet not(GraphModel that) {
+    CompactGraph universe = getNodeIndex();
+    GraphNodeSet result = GraphNodeSet.allOf(universe);
+    removeNodes(result, universe, that);
     return result;
   }
 
-  public Collection<GraphNode> or(GraphModel that) {
-    Collection<GraphNode> result = Sets.newHashSet(getNodesSet());
-    result.addAll(that.getNodes());
+  public GraphNodeSet or(GraphModel that) {
+    return GraphNodeSet.allOf(getUnionUniverse(that));
+  }
 
+  public GraphNodeSet xor(GraphModel that) {
+    GraphNodeSet result = GraphNodeSet.allOf(getUnionUniverse(that));
+    removeNodes(result, getNodeIndex(), that);
     return result;
   }
 
-  public Collection<GraphNode> xor(GraphModel that) {
-    Collection<GraphNode> result = Sets.newHashSet(getNodesSet());
-    result.addAll(that.getNodes());
+  /**
+   * Provide a universe that contains the nodes from both graphs.  The
+   * nodes of this graph keep their ordinals from {@link #getNodeIndex()},
+   * and the other graph's remaining nodes follow them.
+   */
+  private CompactGraph getUnionUniverse(GraphModel that) {
+    return CompactGraph.unionOf(getNodeIndex(), that.getNodes());
+  }
 
-    return result;
+  /**
+   * Remove the nodes of {@code that} graph which this graph's index
+   * contains.  Those nodes have the same ordinals in the result's
+   * universe.
+   */
+  private static void removeNodes(
+      GraphNodeSet result, CompactGraph index, GraphModel that) {
+    for (GraphNode node : that.getNodes()) {
+      int ordinal = index.getNodeOrdinal(node);
+      if (CompactGraph.MISSING != ordinal) {
+        result.removeOrdinal(ordinal);
+      }
+    }
   }
 }
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.model;
+
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A mutable set of {@link GraphNode}s, stored as a {@link BitSet} over the
+ * dense node ordinals of a {@link CompactGraph}.
+ *
+ * Set algebra between node sets from the same universe reduces to word
+ * operations on the bit sets.  Universes with the same nodes, as reported
+ * by {@link CompactGraph#hasSameNodes(CompactGraph)}, count as the same
+ * universe.  Only nodes from the universe may be added;
+ * attempts to add any other node are rejected with an
+ * {@link IllegalArgumentException}.
+ */
+public class GraphNodeSet extends AbstractSet<GraphNode> {
+
+  private final CompactGraph universe;
+
+  private final BitSet members;
+
+  /**
+   * Create an empty node set for the universe.
+   */
+  public GraphNodeSet(CompactGraph universe) {
+    this(universe, new BitSet(universe.getNodeCount()));
+  }
+
+  private GraphNodeSet(CompactGraph universe, BitSet members) {
+    this.universe = universe;
+    this.members = members;
+  }
+
+  /**
+   * Create a node set that contains every node in the universe.
+   */
+  public static GraphNodeSet allOf(CompactGraph universe) {
+    BitSet members = new BitSet(universe.getNodeCount());
+    members.set(0, universe.getNodeCount());
+    return new GraphNodeSet(universe, members);
+  }
+
+  /**
+   * Create a node set that contains the supplied nodes.
+   *
+   * @throws IllegalArgumentException if any node is not in the universe
+   */
+  public static GraphNodeSet copyOf(
+      CompactGraph universe, Collection<? extends GraphNode> nodes) {
+    if (nodes instanceof GraphNodeSet) {
+      GraphNodeSet source = (GraphNodeSet) nodes;
+      if (universe.hasSameNodes(source.universe)) {
+        return new GraphNodeSet(universe, (BitSet) source.members.clone());
+      }
+    }
+
+    GraphNodeSet result = new GraphNodeSet(universe);
+    result.addAll(nodes);
+    return result;
+  }
+
+  /**
+   * Create a node set that contains the supplied nodes that are part of the
+   * universe.  Nodes outside of the universe are ignored.
+   */
+  public static GraphNodeSet retainOf(
+      CompactGraph universe, Collection<? extends GraphNode> nodes) {
+    if (nodes instanceof GraphNodeSet) {
+      GraphNodeSet source = (GraphNodeSet) nodes;
+      if (universe.hasSameNodes(source.universe)) {
+        return new GraphNodeSet(universe, (BitSet) source.members.clone());
+      }
+    }
+
+    GraphNodeSet result = new GraphNodeSet(universe);
+    for (GraphNode node : nodes) {
+      int ordinal = universe.getNodeOrdinal(node);
+      if (CompactGraph.MISSING != ordinal) {
+        result.members.set(ordinal);
+      }
+    }
+    return result;
+  }
+
+  public CompactGraph getUniverse() {
+    return universe;
+  }
+
+  public GraphNodeSet copy() {
+    return new GraphNodeSet(universe, (BitSet) members.clone());
+  }
+
+  /////////////////////////////////////
+  // Ordinal access
+
+  public boolean containsOrdinal(int ordinal) {
+    return members.get(ordinal);
+  }
+
+  /**
+   * Add the node with the given ordinal.
+   *
+   * @return {@code true} if the node was not already a member
+   */
+  public boolean addOrdinal(int ordinal) {
+    if (members.get(ordinal)) {
+      return false;
+    }
+    members.set(ordinal);
+    return true;
+  }
+
+  public void removeOrdinal(int ordinal) {
+    members.clear(ordinal);
+  }
+
+  /**
+   * Provide the first member ordinal at or after {@code from},
+   * or {@code -1} if there are no more members.
+   */
+  public int nextOrdinal(int from) {
+    return members.nextSetBit(from);
+  }
+
+  public int cardinality() {
+    return members.cardinality();
+  }
+
+  /////////////////////////////////////
+  // Set algebra
+
+  /** Nodes in both this set and {@code that} set. */
+  public GraphNodeSet and(GraphNodeSet that) {
+    BitSet result = copyMembers(that);
+    result.and(that.members);
+    return new GraphNodeSet(universe, result);
+  }
+
+  /** Nodes in either this set or {@code that} set. */
+  public GraphNodeSet or(GraphNodeSet that) {
+    BitSet result = copyMembers(that);
+    result.or(that.members);
+    return new GraphNodeSet(universe, result);
+  }
+
+  /** Nodes in this set that are not in {@code that} set. */
+  public GraphNodeSet andNot(GraphNodeSet that) {
+    BitSet result = copyMembers(that);
+    result.andNot(that.members);
+    return new GraphNodeSet(universe, result);
+  }
+
+  /** Nodes in exactly one of this set and {@code that} set. */
+  public GraphNodeSet xor(GraphNodeSet that) {
+    BitSet result = copyMembers(that);
+    result.xor(that.members);
+    return new GraphNodeSet(universe, result);
+  }
+
+  private BitSet copyMembers(GraphNodeSet that) {
+    if (!universe.hasSameNodes(that.universe)) {
+      throw new IllegalArgumentException(
+          "Node sets are from different universes");
+    }
+    return (BitSet) members.clone();
+  }
+
+  /////////////////////////////////////
+  // Set<GraphNode> methods
+
+  @Override
+  public int size() {
+    return members.cardinality();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return members.isEmpty();
+  }
+
+  @Override
+  public boolean contains(Object obj) {
+    if (!(obj instanceof GraphNode)) {
+      return false;
+    }
+    int ordinal = universe.getNodeOrdinal((GraphNode) obj);
+    if (CompactGraph.MISSING == ordinal) {
+      return false;
+    }
+    return members.get(ordinal);
+  }
+
+  @Override
+  public boolean add(GraphNode node) {
+    int ordinal = universe.getNodeOrdinal(node);
+    if (CompactGraph.MISSING == ordinal) {
+      throw new IllegalArgumentException(
+          "Node " + node + " is not in the node set's universe");
+    }
+    return addOrdinal(ordinal);
+  }
+
+  @Override
+  public boolean remove(Object obj) {
+    if (!(obj instanceof GraphNode)) {
+      return false;
+    }
+    int ordinal = universe.getNodeOrdinal((GraphNode) obj);
+    if ((CompactGraph.MISSING == ordinal) || !members.get(ordinal)) {
+      return false;
+    }
+    members.clear(ordinal);
+    return true;
+  }
+
+  @Override
+  public void clear() {
+    members.clear();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj instanceof GraphNodeSet) {
+      GraphNodeSet that = (GraphNodeSet) obj;
+      if (universe.hasSameNodes(that.universe)) {
+        return members.equals(that.members);
+      }
+    }
+    return super.equals(obj);
+  }
+
+  @Override
+  public int hashCode() {
+    // Must agree with other Set implementations.
+    return super.hashCode();
+  }
+
+  @Override
+  public Iterator<GraphNode> iterator() {
+    return new Iterator<GraphNode>() {
+      private int next = members.nextSetBit(0);
+      private int last = -1;
+
+      @Override
+      public boolean hasNext() {
+        return next >= 0;
+      }
+
+      @Override
+      public GraphNode next() {
+        if (next < 0) {
+          throw new NoSuchElementException();
+        }
+        last = next;
+        next = members.nextSetBit(next + 1);
+        return universe.getNode(last);
+      }
+
+      @Override
+      public void remove() {
+        if (last < 0) {
+          throw new IllegalStateException();
+        }
+        members.clear(last);
+        last = -1;
+      }
+    };
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.model;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * Shared, thread-safe pool for {@link GraphNode} ids.
+ *
+ * Node ids are long, heavily duplicated strings.  Interning them through
+ * this pool lets every node, edge reference, and analysis that mentions the
+ * same id share a single instance.  The pool holds its entries weakly,
+ * so ids that are no longer referenced can be collected.
+ */
+public class NodeIds {
+
+  private static final Interner<String> POOL = Interners.newWeakInterner();
+
+  private NodeIds() {
+    // Prevent instantiation.
+  }
+
+  /**
+   * Provide the canonical instance for the supplied node id.
+   */
+  public static String intern(String nodeId) {
+    return POOL.intern(nodeId);
+  }
+}
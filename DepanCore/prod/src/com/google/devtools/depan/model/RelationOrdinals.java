@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.model;
+
+import com.google.devtools.depan.graph.api.Relation;
+
+/**
+ * Assigns dense ordinals in {@code [0, getRelationCount())} to a fixed
+ * population of {@link Relation}s.
+ */
+public interface RelationOrdinals {
+
+  /** Ordinal reported for relations outside of the population. */
+  int MISSING = -1;
+
+  int getRelationCount();
+
+  Relation getRelation(int ordinal);
+
+  /**
+   * Provide the ordinal for the relation, or {@link #MISSING} if the
+   * relation is not part of the population.
+   */
+  int getRelationOrdinal(Relation relation);
+}
@@ -119,7 +119,12 @@ public class RelationSets {
 
     @Override
     public boolean contains(Relation relation) {
-      return Arrays.asList(relations).contains(relation);
+      for (Relation member : relations) {
+        if (member.equals(relation)) {
+          return true;
+        }
+      }
+      return false;
     }
 
     /**
@@ -164,4 +169,90 @@ public class RelationSets {
       return Sets.newHashSet(relationSet);
     }
   }
+
+  /////////////////////////////////////
+  // Bitmask relation sets over relation ordinals.
+  // Intended for matching loops, not for persistence.
+
+  /**
+   * Build a {@link Bitmask} with the same membership as the {@code source}
+   * relation set.  Relations outside of the ordinal population are
+   * delegated to {@code source}.
+   */
+  public static Bitmask createBitmask(
+      RelationOrdinals ordinals, RelationSet source) {
+    if (source instanceof Bitmask) {
+      return ((Bitmask) source).forOrdinals(ordinals);
+    }
+    return buildBitmask(ordinals, source);
+  }
+
+  private static Bitmask buildBitmask(
+      RelationOrdinals ordinals, RelationSet source) {
+    int count = ordinals.getRelationCount();
+    long[] bits = new long[(count + 63) >>> 6];
+    for (int ordinal = 0; ordinal < count; ordinal++) {
+      if (source.contains(ordinals.getRelation(ordinal))) {
+        bits[ordinal >>> 6] |= 1L << ordinal;
+      }
+    }
+    return new Bitmask(ordinals, bits, source);
+  }
+
+  public static class Bitmask implements RelationSet {
+
+    private final RelationOrdinals ordinals;
+
+    private final long[] bits;
+
+    private final RelationSet fallback;
+
+    private Bitmask(
+        RelationOrdinals ordinals, long[] bits, RelationSet fallback) {
+      this.ordinals = ordinals;
+      this.bits = bits;
+      this.fallback = fallback;
+    }
+
+    /**
+     * Membership test by relation, which first looks up the relation's
+     * ordinal.  Edge matching loops should convert the bitmask once with
+     * {@link #forOrdinals(RelationOrdinals)}, and pass each edge's relation
+     * ordinal to {@link #containsOrdinal(int)} instead.
+     */
+    @Override
+    public boolean contains(Relation relation) {
+      int ordinal = ordinals.getRelationOrdinal(relation);
+      if (RelationOrdinals.MISSING == ordinal) {
+        return fallback.contains(relation);
+      }
+      return containsOrdinal(ordinal);
+    }
+
+    /**
+     * Membership test for relations already expressed as ordinals of
+     * this set's {@link RelationOrdinals}.
+     */
+    public boolean containsOrdinal(int ordinal) {
+      return 0 != (bits[ordinal >>> 6] & (1L << ordinal));
+    }
+
+    public RelationOrdinals getOrdinals() {
+      return ordinals;
+    }
+
+    /**
+     * Provide a bitmask with the same membership over another population
+     * of ordinals, such as the relations of a {@link CompactGraph}.  This
+     * costs one lookup for each relation of the other population, so a
+     * bitmask over the {@code RelationRegistry} can be built once and
+     * reused for every graph.
+     */
+    public Bitmask forOrdinals(RelationOrdinals target) {
+      if (ordinals == target) {
+        return this;
+      }
+      return buildBitmask(target, this);
+    }
+  }
 }
@@ -45,4 +45,26 @@ public class BasicGraphTest extends BasicGraphTestCase {
     assertSame(headNode, fixture.edge.getHead());
     assertSame(tailNode, fixture.edge.getTail());
   }
+
+  @Test
+  public void testAdjacency() {
+    SimpleGraphFixture fixture = new SimpleGraphFixture();
+    fixture.create();
+
+    BasicGraph<String> graph = fixture.graph;
+    assertEquals(1, graph.getForwardEdges(fixture.headNode).size());
+    assertSame(fixture.edge,
+        graph.getForwardEdges(fixture.headNode).iterator().next());
+    assertTrue(graph.getReverseEdges(fixture.headNode).isEmpty());
+
+    assertEquals(1, graph.getReverseEdges(fixture.tailNode).size());
+    assertSame(fixture.edge,
+        graph.getReverseEdges(fixture.tailNode).iterator().next());
+    assertTrue(graph.getForwardEdges(fixture.tailNode).isEmpty());
+
+    assertSame(fixture.edge, graph.findEdge(
+        MockRelation.SIMPLE_RELATION, fixture.headNode, fixture.tailNode));
+    assertNull(graph.findEdge(
+        MockRelation.SIMPLE_RELATION, fixture.tailNode, fixture.headNode));
+  }
 }
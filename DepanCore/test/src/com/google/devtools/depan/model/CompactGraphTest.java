@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.model;
+
+import static org.junit.Assert.*;
+
+import com.google.devtools.depan.graph.basic.BasicEdge;
+import com.google.devtools.depan.graph.basic.BasicNode;
+import com.google.devtools.depan.graph.basic.MockElement;
+import com.google.devtools.depan.graph.basic.MockRelation;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+public class CompactGraphTest {
+
+  @Test
+  public void testStar() {
+    GraphNode hub = new MockElement("hub");
+    GraphNode left = new MockElement("left");
+    GraphNode right = new MockElement("right");
+
+    Map<String, BasicNode<? extends String>> nodes = Maps.newHashMap();
+    nodes.put(hub.getId(), hub);
+    nodes.put(left.getId(), left);
+    nodes.put(right.getId(), right);
+
+    Set<BasicEdge<? extends String>> edges = Sets.newHashSet();
+    edges.add(new GraphEdge(hub, left, MockRelation.SIMPLE_RELATION));
+    edges.add(new GraphEdge(hub, right, MockRelation.MEMBER_RELATION));
+    edges.add(new GraphEdge(left, right, MockRelation.SIMPLE_RELATION));
+
+    GraphModel model = new GraphModel(nodes, edges);
+    CompactGraph compact = model.getCompactGraph();
+    assertSame(compact, model.getCompactGraph());
+
+    assertEquals(3, compact.getNodeCount());
+    assertEquals(3, compact.getEdgeCount());
+    assertEquals(2, compact.getRelationCount());
+
+    int hubId = compact.getNodeOrdinal(hub);
+    int leftId = compact.getNodeOrdinal(left);
+    int rightId = compact.getNodeOrdinal(right);
+    assertSame(hub, compact.getNode(hubId));
+    assertEquals(CompactGraph.MISSING,
+        compact.getNodeOrdinal(new MockElement("absent")));
+
+    assertEquals(2, compact.getForwardDegree(hubId));
+    assertEquals(0, compact.getReverseDegree(hubId));
+    assertEquals(1, compact.getForwardDegree(leftId));
+    assertEquals(1, compact.getReverseDegree(leftId));
+    assertEquals(0, compact.getForwardDegree(rightId));
+    assertEquals(2, compact.getReverseDegree(rightId));
+
+    int slot = compact.forwardStart(leftId);
+    assertEquals(rightId, compact.forwardTarget(slot));
+    assertSame(MockRelation.SIMPLE_RELATION,
+        compact.getRelation(compact.forwardRelation(slot)));
+
+    for (slot = compact.reverseStart(rightId);
+        slot < compact.reverseEnd(rightId); slot++) {
+      int head = compact.reverseTarget(slot);
+      if (head == hubId) {
+        assertSame(MockRelation.MEMBER_RELATION,
+            compact.getRelation(compact.reverseRelation(slot)));
+      } else {
+        assertEquals(leftId, head);
+      }
+    }
+  }
+}
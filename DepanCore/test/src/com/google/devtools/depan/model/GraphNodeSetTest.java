@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.model;
+
+import static org.junit.Assert.*;
+
+import com.google.devtools.depan.graph.basic.BasicEdge;
+import com.google.devtools.depan.graph.basic.BasicNode;
+import com.google.devtools.depan.graph.basic.MockElement;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+public class GraphNodeSetTest {
+
+  private final GraphNode nodeA = new MockElement("a");
+  private final GraphNode nodeB = new MockElement("b");
+  private final GraphNode nodeC = new MockElement("c");
+
+  private static GraphModel buildModel(GraphNode... nodes) {
+    Map<String, BasicNode<? extends String>> graphNodes = Maps.newHashMap();
+    for (GraphNode node : nodes) {
+      graphNodes.put(node.getId(), node);
+    }
+    Set<BasicEdge<? extends String>> edges = Collections.emptySet();
+    return new GraphModel(graphNodes, edges);
+  }
+
+  @Test
+  public void testAlgebra() {
+    CompactGraph universe = buildModel(nodeA, nodeB, nodeC).getCompactGraph();
+    GraphNodeSet ab = GraphNodeSet.copyOf(
+        universe, ImmutableSet.of(nodeA, nodeB));
+    GraphNodeSet bc = GraphNodeSet.copyOf(
+        universe, ImmutableSet.of(nodeB, nodeC));
+
+    assertEquals(ImmutableSet.of(nodeB), ab.and(bc));
+    assertEquals(ImmutableSet.of(nodeA, nodeB, nodeC), ab.or(bc));
+    assertEquals(ImmutableSet.of(nodeA), ab.andNot(bc));
+    assertEquals(ImmutableSet.of(nodeA, nodeC), ab.xor(bc));
+    assertEquals(1, ab.and(bc).cardinality());
+
+    // Operands are unchanged.
+    assertEquals(ImmutableSet.of(nodeA, nodeB), ab);
+    assertEquals(ImmutableSet.of(nodeB, nodeC), bc);
+  }
+
+  @Test
+  public void testMembership() {
+    CompactGraph universe = buildModel(nodeA, nodeB).getCompactGraph();
+    GraphNodeSet nodes = new GraphNodeSet(universe);
+    assertTrue(nodes.isEmpty());
+    assertTrue(nodes.add(nodeA));
+    assertFalse(nodes.add(nodeA));
+    assertTrue(nodes.contains(nodeA));
+    assertFalse(nodes.contains(nodeB));
+    assertFalse(nodes.contains(nodeC));
+    assertEquals(1, nodes.size());
+    assertSame(nodeA, nodes.iterator().next());
+    assertEquals(ImmutableSet.of(nodeA).hashCode(), nodes.hashCode());
+
+    assertTrue(nodes.remove(nodeA));
+    assertTrue(nodes.isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testForeignNode() {
+    CompactGraph universe = buildModel(nodeA, nodeB).getCompactGraph();
+    new GraphNodeSet(universe).add(nodeC);
+  }
+
+  @Test
+  public void testGraphModelOps() {
+    GraphModel ab = buildModel(nodeA, nodeB);
+    GraphModel bc = buildModel(nodeB, nodeC);
+
+    assertEquals(ImmutableSet.of(nodeB), ab.and(bc));
+    assertEquals(ImmutableSet.of(nodeA), ab.not(bc));
+    assertEquals(ImmutableSet.of(nodeA, nodeB, nodeC), ab.or(bc));
+    assertEquals(ImmutableSet.of(nodeA, nodeC), ab.xor(bc));
+
+    GraphModel abc = buildModel(nodeA, nodeB, nodeC);
+    assertSame(abc.getCompactGraph(), abc.or(ab).getUniverse());
+    assertEquals(ImmutableSet.of(nodeC), abc.xor(ab));
+  }
+
+  @Test
+  public void testNodeIndex() {
+    GraphModel ab = buildModel(nodeA, nodeB);
+    GraphModel b = buildModel(nodeB);
+
+    // Set algebra before the compact snapshot uses a node-only index.
+    GraphNodeSet both = ab.and(b);
+    CompactGraph index = both.getUniverse();
+    assertSame(index, ab.getNodeIndex());
+    assertEquals(0, index.getEdgeCount());
+
+    // The full snapshot keeps the index's ordinals.
+    CompactGraph compact = ab.getCompactGraph();
+    assertNotSame(index, compact);
+    assertTrue(compact.hasSameNodes(index));
+    assertSame(compact, ab.getNodeIndex());
+    GraphNodeSet others = ab.not(b);
+    assertSame(compact, others.getUniverse());
+    assertEquals(ImmutableSet.of(nodeA, nodeB), both.or(others));
+    assertEquals(both, GraphNodeSet.retainOf(compact, both));
+  }
+
+  @Test
+  public void testUnionUniverse() {
+    GraphModel ab = buildModel(nodeA, nodeB);
+    CompactGraph index = ab.getNodeIndex();
+    assertSame(index,
+        CompactGraph.unionOf(index, ImmutableSet.of(nodeB, nodeA)));
+
+    CompactGraph union =
+        CompactGraph.unionOf(index, ImmutableSet.of(nodeC, nodeB));
+    assertEquals(3, union.getNodeCount());
+    assertEquals(index.getNodeOrdinal(nodeA), union.getNodeOrdinal(nodeA));
+    assertEquals(index.getNodeOrdinal(nodeB), union.getNodeOrdinal(nodeB));
+    assertEquals(2, union.getNodeOrdinal(nodeC));
+    assertSame(nodeC, union.getNode(2));
+    assertEquals(0, union.getForwardDegree(2));
+  }
+}
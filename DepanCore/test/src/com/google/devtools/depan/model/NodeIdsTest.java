@@ -0,0 +1,71 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.model;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class NodeIdsTest {
+
+  @Test
+  public void testEqualIds() {
+    String first = NodeIds.intern(buildId("java.lang.String"));
+    String second = NodeIds.intern(buildId("java.lang.String"));
+    assertSame(first, second);
+    assertSame(first, NodeIds.intern(first));
+    assertEquals(buildId("java.lang.String"), first);
+    assertEquals(buildId("java.lang.String").hashCode(), first.hashCode());
+
+    assertNotSame(first, NodeIds.intern(buildId("java.lang.Object")));
+  }
+
+  @Test
+  public void testConcurrentIds() throws Exception {
+    ExecutorService threads = Executors.newFixedThreadPool(4);
+    try {
+      Callable<String> task = new Callable<String>() {
+
+        @Override
+        public String call() {
+          return NodeIds.intern(buildId("java.util.List"));
+        }
+      };
+
+      String expected = NodeIds.intern(buildId("java.util.List"));
+      for (Future<String> result : threads.invokeAll(
+          Collections.nCopies(16, task))) {
+        assertSame(expected, result.get());
+      }
+    } finally {
+      threads.shutdownNow();
+    }
+  }
+
+  /**
+   * Build a new, un-interned id string on each call.
+   */
+  private static String buildId(String name) {
+    return new StringBuilder("java:").append(name).toString();
+  }
+}
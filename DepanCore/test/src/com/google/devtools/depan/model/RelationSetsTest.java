@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.model;
+
+import static org.junit.Assert.*;
+
+import com.google.devtools.depan.graph.api.Relation;
+import com.google.devtools.depan.graph.api.RelationSet;
+import com.google.devtools.depan.graph.basic.MockRelation;
+
+import org.junit.Test;
+
+public class RelationSetsTest {
+
+  /** Only the {@link MockRelation#MEMBER_RELATION} gets an ordinal. */
+  private static final RelationOrdinals MEMBER_ONLY = new RelationOrdinals() {
+
+    @Override
+    public int getRelationCount() {
+      return 1;
+    }
+
+    @Override
+    public Relation getRelation(int ordinal) {
+      return MockRelation.MEMBER_RELATION;
+    }
+
+    @Override
+    public int getRelationOrdinal(Relation relation) {
+      if (MockRelation.MEMBER_RELATION == relation) {
+        return 0;
+      }
+      return MISSING;
+    }
+  };
+
+  /** The {@link MockRelation#SIMPLE_RELATION} is first. */
+  private static final RelationOrdinals BOTH = new RelationOrdinals() {
+
+    @Override
+    public int getRelationCount() {
+      return 2;
+    }
+
+    @Override
+    public Relation getRelation(int ordinal) {
+      if (0 == ordinal) {
+        return MockRelation.SIMPLE_RELATION;
+      }
+      return MockRelation.MEMBER_RELATION;
+    }
+
+    @Override
+    public int getRelationOrdinal(Relation relation) {
+      if (MockRelation.SIMPLE_RELATION == relation) {
+        return 0;
+      }
+      if (MockRelation.MEMBER_RELATION == relation) {
+        return 1;
+      }
+      return MISSING;
+    }
+  };
+
+  @Test
+  public void testBitmask() {
+    RelationSets.Bitmask members = RelationSets.createBitmask(MEMBER_ONLY,
+        RelationSets.createSingle(MockRelation.MEMBER_RELATION));
+    assertTrue(members.containsOrdinal(0));
+    assertTrue(members.contains(MockRelation.MEMBER_RELATION));
+    assertFalse(members.contains(MockRelation.SIMPLE_RELATION));
+
+    RelationSets.Bitmask none =
+        RelationSets.createBitmask(MEMBER_ONLY, RelationSets.EMPTY);
+    assertFalse(none.containsOrdinal(0));
+    assertFalse(none.contains(MockRelation.MEMBER_RELATION));
+  }
+
+  @Test
+  public void testBitmaskFallback() {
+    // Relations without an ordinal are answered by the source set.
+    RelationSets.Bitmask all =
+        RelationSets.createBitmask(MEMBER_ONLY, RelationSets.ALL);
+    assertTrue(all.contains(MockRelation.MEMBER_RELATION));
+    assertTrue(all.contains(MockRelation.SIMPLE_RELATION));
+  }
+
+  @Test
+  public void testForOrdinals() {
+    RelationSets.Bitmask members = RelationSets.createBitmask(MEMBER_ONLY,
+        RelationSets.createSingle(MockRelation.MEMBER_RELATION));
+    assertSame(members, members.forOrdinals(MEMBER_ONLY));
+    assertSame(members, RelationSets.createBitmask(MEMBER_ONLY, members));
+
+    // The same membership over a population with other ordinals.
+    RelationSets.Bitmask reordered = members.forOrdinals(BOTH);
+    assertSame(BOTH, reordered.getOrdinals());
+    assertFalse(reordered.containsOrdinal(0));
+    assertTrue(reordered.containsOrdinal(1));
+    assertTrue(reordered.contains(MockRelation.MEMBER_RELATION));
+    assertFalse(reordered.contains(MockRelation.SIMPLE_RELATION));
+  }
+
+  @Test
+  public void testArray() {
+    RelationSet array = RelationSets.createArray(
+        new Relation[] { MockRelation.SIMPLE_RELATION });
+    assertTrue(array.contains(MockRelation.SIMPLE_RELATION));
+    assertFalse(array.contains(MockRelation.MEMBER_RELATION));
+  }
+}
@@ -4,6 +4,7 @@
 package com.google.devtools.depan.relations.models;
 
 import com.google.devtools.depan.analysis_doc.model.ModelMatcher;
+import com.google.devtools.depan.graph.registry.RelationRegistry;
 import com.google.devtools.depan.model.RelationSets;
 
 /**
@@ -21,4 +22,15 @@ public class RelationSetDescriptors {
 
   public static RelationSetDescriptor ALL = new RelationSetDescriptor(
       "All", ModelMatcher.ALL_MODELS, RelationSets.ALL);
+
+  /**
+   * Convert the descriptor's relation set into a bitmask over the ordinals
+   * of the {@link RelationRegistry}, for fast membership tests in edge
+   * matching loops.  The result is not intended for persistence.
+   */
+  public static RelationSets.Bitmask buildBitmask(
+      RelationSetDescriptor descriptor) {
+    return RelationSets.createBitmask(
+        RelationRegistry.getInstance(), descriptor.getInfo());
+  }
 }
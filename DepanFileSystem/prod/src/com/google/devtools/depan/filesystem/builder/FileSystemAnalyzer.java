@@ -18,7 +18,9 @@ package com.google.devtools.depan.filesystem.builder;
 
 import com.google.devtools.depan.filesystem.FileSystemPluginActivator;
 import com.google.devtools.depan.graph_doc.model.GraphDocument;
+import com.google.devtools.depan.model.GraphEdge;
 import com.google.devtools.depan.model.GraphModel;
+import com.google.devtools.depan.model.GraphNode;
 import com.google.devtools.depan.model.builder.api.GraphBuilder;
 import com.google.devtools.depan.model.builder.api.GraphBuilders;
 import com.google.devtools.depan.model.builder.chain.DependenciesListener;
@@ -26,6 +28,7 @@ import com.google.devtools.depan.model.builder.chain.DependenciesListener;
 import org.eclipse.core.runtime.IProgressMonitor;
 
 import java.io.IOException;
+import java.util.Set;
 
 /**
  * Wizard for converting a file system tree into a DepAn analysis graph.
@@ -36,10 +39,27 @@ public class FileSystemAnalyzer {
 
   private final String treePrefix;
   private final String pathText;
+  private final PathFilter pathFilter;
 
-  public FileSystemAnalyzer(String treePrefix, String pathText) {
+  private TreeSnapshot previous;
+
+  private TreeSnapshot snapshot;
+
+  private TreeSnapshot.Diff changes;
+
+  /**
+   * @param pathFilter rules for the files and directories to analyze.
+   *     Excluded directories are not traversed.
+   */
+  public FileSystemAnalyzer(
+      String treePrefix, String pathText, PathFilter pathFilter) {
     this.treePrefix = treePrefix;
     this.pathText = pathText;
+    this.pathFilter = pathFilter;
+  }
+
+  public FileSystemAnalyzer(String treePrefix, String pathText) {
+    this(treePrefix, pathText, PathFilter.ALL_PATHS);
   }
 
   public static int countAnalysisWork(String treePrefix, String pathText) {
@@ -47,8 +67,8 @@ public class FileSystemAnalyzer {
   }
 
   /**
-   * Create {@link GraD} graph by traversing the file system tree from
-   * the named starting point.
+   * Create {@link GraphDocument} graph by traversing the file system tree
+   * from the named starting point.
    *
    * Note that this generates two (2) monitor.worked() calls.
    */
@@ -68,7 +88,8 @@ public class FileSystemAnalyzer {
     // Step 2) Read through the file system to build the analysis graph
     monitor.setTaskName("Loading file tree...");
 
-    TreeLoader loader = new TreeLoader(builder, treePrefix);
+    TreeLoader loader = new TreeLoader(builder, treePrefix,
+        FileTreeWalker.getDefaultThreadCount(), pathFilter);
     loader.analyzeTree(pathText);
 
     GraphModel graph = graphBuilder.createGraphModel();
@@ -77,4 +98,106 @@ public class FileSystemAnalyzer {
     // Done
     return new GraphDocument(FileSystemPluginActivator.FILE_SYSTEM_MODEL, graph);
   }
+
+  /**
+   * Compare the file system tree with the snapshot from an earlier
+   * analysis.  Unchanged directories from the earlier analysis are not
+   * read again, and no entries are visited.  If the changes affect the
+   * graph, {@link #updateAnalysisDocument(IProgressMonitor, GraphModel)}
+   * provides the new graph.
+   *
+   * Afterwards, {@link #getSnapshot()} provides the snapshot to save for
+   * the next analysis.
+   *
+   * Note that this generates one (1) monitor.worked() call.
+   *
+   * @param previous snapshot from the analysis that produced the current
+   *     graph document, or {@code null}
+   * @return the added and removed entries
+   */
+  public TreeSnapshot.Diff scanTree(
+      IProgressMonitor monitor, TreeSnapshot previous) throws IOException {
+    monitor.setTaskName("Scanning file tree...");
+
+    // Scanning never sends dependencies to the builder.
+    TreeLoader loader = new TreeLoader(null, treePrefix,
+        FileTreeWalker.getDefaultThreadCount(), pathFilter);
+    snapshot = loader.scanTree(pathText, previous);
+    this.previous = previous;
+    changes = snapshot.diff(previous);
+    monitor.worked(1);
+    return changes;
+  }
+
+  /**
+   * Create {@link GraphDocument} graph for the tree from the last
+   * {@link #scanTree(IProgressMonitor, TreeSnapshot)}.  The nodes and
+   * edges of the earlier graph are reused, less those for the removed
+   * entries, and only the added entries are visited.  Without an earlier
+   * graph, or if the earlier snapshot was made with other settings, every
+   * entry of the tree is visited.
+   *
+   * Note that this generates one (1) monitor.worked() call.
+   *
+   * @param previousGraph graph from the analysis that produced the
+   *     earlier snapshot, or {@code null}
+   */
+  public GraphDocument updateAnalysisDocument(
+      IProgressMonitor monitor, GraphModel previousGraph) throws IOException {
+    monitor.setTaskName("Updating file tree...");
+
+    GraphBuilder graphBuilder = GraphBuilders.createGraphModelBuilder();
+    TreeLoader loader =
+        new TreeLoader(new FileSystemDependencyDispatcher(graphBuilder),
+            treePrefix, FileTreeWalker.getDefaultThreadCount(), pathFilter);
+
+    TreeSnapshot.Diff additions = changes;
+    if (changes.isComparable() && (null != previousGraph)) {
+      Set<String> removedIds = loader.findElementIds(
+          pathText, previous, changes.getRemoved());
+      copyRemaining(graphBuilder, previousGraph, removedIds);
+    } else {
+      additions = snapshot.diff(null);
+    }
+    loader.updateTree(pathText, snapshot, additions);
+
+    GraphModel graph = graphBuilder.createGraphModel();
+    monitor.worked(1);
+
+    // Done
+    return new GraphDocument(FileSystemPluginActivator.FILE_SYSTEM_MODEL, graph);
+  }
+
+  /**
+   * Seed the builder with the nodes and edges of the earlier graph that
+   * do not involve a removed entry.  The instances are reused as they are.
+   */
+  private static void copyRemaining(GraphBuilder graphBuilder,
+      GraphModel previousGraph, Set<String> removedIds) {
+    for (GraphNode node : previousGraph.getNodes()) {
+      if (!removedIds.contains(node.getId())) {
+        graphBuilder.newNode(node);
+      }
+    }
+    for (GraphEdge edge : previousGraph.getEdges()) {
+      if (!removedIds.contains(edge.getHead().getId())
+          && !removedIds.contains(edge.getTail().getId())) {
+        graphBuilder.addEdge(edge);
+      }
+    }
+  }
+
+  /**
+   * Provide the snapshot from the last scan.
+   */
+  public TreeSnapshot getSnapshot() {
+    return snapshot;
+  }
+
+  /**
+   * Provide the changes found by the last scan.
+   */
+  public TreeSnapshot.Diff getChanges() {
+    return changes;
+  }
 }
@@ -0,0 +1,343 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.filesystem.builder;
+
+import com.google.devtools.depan.filesystem.builder.TreeSnapshot.EntryKind;
+
+import com.google.common.collect.Lists;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * List the contents of a file system tree on a fork-join pool.
+ *
+ * Each directory is listed by its own task, with a single
+ * {@link DirectoryStream} pass that also reads every entry's
+ * {@link BasicFileAttributes}.  The caller consumes the tree on its own
+ * thread, in directory listing order, through
+ * {@link TreeEntry#takeChildren()}.  Taking a directory's children starts
+ * the listings of its sub-directories, so they are read while the caller
+ * visits their siblings.  Listing only runs one level ahead of the caller,
+ * and directories release their entries once they are taken.  The
+ * retained entries are bounded by the directories that the caller is
+ * still visiting and their immediate sub-directories.
+ *
+ * Only the root is canonicalized.  Every entry's path is its canonical
+ * root followed by the names of the directories below it.
+ *
+ * Entries rejected by the walker's {@link PathFilter} are left out of the
+ * listing, and excluded directories are never read.
+ *
+ * Given the {@link TreeSnapshot} of an earlier walk, a directory whose
+ * modification time is unchanged is not read again.  Its entries are
+ * taken from the snapshot, and only their attributes are read.
+ */
+public class FileTreeWalker {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(FileTreeWalker.class.getName());
+
+  private final ForkJoinPool pool;
+
+  private final PathFilter filter;
+
+  /**
+   * @param threadCount number of threads that list directories
+   * @param filter rules for the entries to list
+   */
+  public FileTreeWalker(int threadCount, PathFilter filter) {
+    this.pool = new ForkJoinPool(Math.max(1, threadCount));
+    this.filter = filter;
+  }
+
+  /**
+   * @param threadCount number of threads that list directories
+   */
+  public FileTreeWalker(int threadCount) {
+    this(threadCount, PathFilter.ALL_PATHS);
+  }
+
+  /**
+   * Provide the number of listing threads for the current machine.
+   */
+  public static int getDefaultThreadCount() {
+    return Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * Start listing the tree at {@code root}.  If the root is a directory,
+   * its contents are listed in the background.
+   *
+   * @return entry for the canonical root of the tree
+   * @throws IOException if the canonical root cannot be determined
+   */
+  public TreeEntry walk(File root) throws IOException {
+    return walk(root, null);
+  }
+
+  /**
+   * Start listing the tree at {@code root}, reusing the listings of
+   * unchanged directories from an earlier walk.
+   *
+   * @param previous snapshot of an earlier walk with the same settings,
+   *     or {@code null} to read every directory
+   * @return entry for the canonical root of the tree
+   * @throws IOException if the canonical root cannot be determined
+   */
+  public TreeEntry walk(File root, TreeSnapshot previous) throws IOException {
+    Path rootPath = root.getCanonicalFile().toPath();
+    BasicFileAttributes attrs = readAttributes(rootPath);
+    if ((null != attrs) && attrs.isDirectory()) {
+      ListTask task = new ListTask(rootPath, rootPath, attrs, previous);
+      task.start();
+      return new TreeEntry(rootPath, attrs, task);
+    }
+    return new TreeEntry(rootPath, attrs, null);
+  }
+
+  /**
+   * Release the listing threads.  Any listing still in progress is
+   * abandoned.
+   */
+  public void shutdown() {
+    pool.shutdownNow();
+  }
+
+  /////////////////////////////////////
+  // Tree entries
+
+  /**
+   * A single file system object discovered by the walk.
+   */
+  public static class TreeEntry {
+    private final Path path;
+    private final EntryKind kind;
+    private final long size;
+    private final long lastModified;
+
+    /**
+     * {@code null} unless this entry is a directory whose children have
+     * not been taken.
+     */
+    private ListTask children;
+
+    private TreeEntry(Path path, BasicFileAttributes attrs,
+        ListTask children) {
+      this.path = path;
+      this.kind = getEntryKind(attrs);
+      this.size = (null != attrs) ? attrs.size() : 0;
+      this.lastModified =
+          (null != attrs) ? attrs.lastModifiedTime().toMillis() : 0;
+      this.children = children;
+    }
+
+    /**
+     * Provide the path to this entry, below the canonical root of the tree.
+     */
+    public File getFile() {
+      return path.toFile();
+    }
+
+    public boolean isFile() {
+      return EntryKind.FILE == kind;
+    }
+
+    public boolean isDirectory() {
+      return EntryKind.DIRECTORY == kind;
+    }
+
+    public EntryKind getKind() {
+      return kind;
+    }
+
+    public long getSize() {
+      return size;
+    }
+
+    /**
+     * Provide the modification time of this entry, in milliseconds.
+     */
+    public long getLastModified() {
+      return lastModified;
+    }
+
+    /**
+     * Provide the contents of a directory, in listing order, waiting
+     * for the listing to complete if necessary.  Other entries have
+     * no children.
+     *
+     * Taking the children starts the listings of any sub-directories
+     * among them.  The entry does not keep its children once they are
+     * taken, so each directory's children can only be taken once.  Later
+     * calls provide an empty list.
+     */
+    public List<TreeEntry> takeChildren() {
+      ListTask listing = children;
+      if (null == listing) {
+        return Collections.emptyList();
+      }
+      children = null;
+      List<TreeEntry> result = listing.join();
+      for (TreeEntry child : result) {
+        if (null != child.children) {
+          child.children.start();
+        }
+      }
+      return result;
+    }
+  }
+
+  /////////////////////////////////////
+  // Listing tasks
+
+  private class ListTask extends RecursiveTask<List<TreeEntry>> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Path root;
+
+    private final Path directory;
+
+    private final BasicFileAttributes attrs;
+
+    private final TreeSnapshot previous;
+
+    public ListTask(Path root, Path directory,
+        BasicFileAttributes attrs, TreeSnapshot previous) {
+      this.root = root;
+      this.directory = directory;
+      this.attrs = attrs;
+      this.previous = previous;
+    }
+
+    /**
+     * Queue this listing on the walker's pool.  Directory listings start
+     * from the caller's thread, so they are never forked into the
+     * common pool.
+     */
+    public void start() {
+      pool.execute(this);
+    }
+
+    @Override
+    protected List<TreeEntry> compute() {
+      List<TreeEntry> result = Lists.newArrayList();
+      List<String> knownNames = findUnchangedNames();
+      if (null != knownNames) {
+        for (String name : knownNames) {
+          TreeEntry entry = buildEntry(directory.resolve(name));
+          if (null != entry) {
+            result.add(entry);
+          }
+        }
+        return result;
+      }
+
+      try (DirectoryStream<Path> listing =
+          Files.newDirectoryStream(directory)) {
+        for (Path child : listing) {
+          TreeEntry entry = buildEntry(child);
+          if (null != entry) {
+            result.add(entry);
+          }
+        }
+      } catch (IOException | DirectoryIteratorException errList) {
+        LOG.error("Unable to list directory {}", directory, errList);
+      }
+      return result;
+    }
+
+    /**
+     * Provide this directory's entry names from the earlier walk, if the
+     * directory is unchanged since then.
+     */
+    private List<String> findUnchangedNames() {
+      if (null == previous) {
+        return null;
+      }
+      return previous.findUnchangedDirectory(
+          root.relativize(directory).toString(),
+          attrs.lastModifiedTime().toMillis());
+    }
+
+    /**
+     * Create the entry for a listed path.  Directories get their own
+     * listing task, which starts when their parent's children are taken.
+     *
+     * @return {@code null} if the filter rejects the path
+     */
+    private TreeEntry buildEntry(Path path) {
+      BasicFileAttributes attrs = readAttributes(path);
+      boolean isDirectory = (null != attrs) && attrs.isDirectory();
+      if (!filter.isEmpty()) {
+        Path relPath = root.relativize(path);
+        boolean accept = isDirectory
+            ? filter.acceptDirectory(relPath) : filter.acceptFile(relPath);
+        if (!accept) {
+          return null;
+        }
+      }
+
+      if (isDirectory) {
+        return new TreeEntry(path, attrs,
+            new ListTask(root, path, attrs, previous));
+      }
+      return new TreeEntry(path, attrs, null);
+    }
+  }
+
+  private static EntryKind getEntryKind(BasicFileAttributes attrs) {
+    if (null == attrs) {
+      return EntryKind.OTHER;
+    }
+    if (attrs.isDirectory()) {
+      return EntryKind.DIRECTORY;
+    }
+    if (attrs.isRegularFile()) {
+      return EntryKind.FILE;
+    }
+    return EntryKind.OTHER;
+  }
+
+  /**
+   * Read the attributes of a path, following symbolic links like
+   * {@link File#isFile()} and {@link File#isDirectory()}.
+   *
+   * @return {@code null} if the path cannot be read, such as for
+   *     a broken link
+   */
+  private static BasicFileAttributes readAttributes(Path path) {
+    try {
+      return Files.readAttributes(path, BasicFileAttributes.class);
+    } catch (IOException errAttrs) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.filesystem.builder;
+
+import com.google.common.collect.ImmutableList;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Include and exclude rules for the entries of a file system walk.
+ * Rules are applied while the tree is listed, so an excluded directory
+ * is never read.
+ *
+ * Each rule is a glob, such as {@code target} or {@code *.java}, or a
+ * regular expression written as {@code regex:.*\.java}.  Rules without
+ * a {@code /} match the entry's name, as in {@code .git} or
+ * {@code *.class}.  Rules with a {@code /} match the entry's path
+ * relative to the root of the walk, as in {@code build/generated}.
+ *
+ * A directory is skipped, with all its contents, if it matches any
+ * exclude rule.  A file is skipped if it matches any exclude rule, or if
+ * there are include rules and it matches none of them.  Include rules do
+ * not apply to directories, since their contents might still match.
+ *
+ * Instances are immutable, and may be shared by several threads.
+ */
+public class PathFilter {
+
+  /** Accept every file and directory. */
+  public static final PathFilter ALL_PATHS = new PathFilter(
+      Collections.<String>emptyList(), Collections.<String>emptyList());
+
+  private static final String GLOB_SYNTAX = "glob:";
+
+  private static final String REGEX_SYNTAX = "regex:";
+
+  private final List<PathRule> includes;
+
+  private final List<PathRule> excludes;
+
+  /** Original rules, for comparison with other filters. */
+  private final String description;
+
+  public PathFilter(Collection<String> includes, Collection<String> excludes) {
+    this.includes = buildRules(includes);
+    this.excludes = buildRules(excludes);
+    this.description = "include " + includes + " exclude " + excludes;
+  }
+
+  /**
+   * Build a filter from lines of space separated rules, such as
+   * {@code ".git target node_modules"}.
+   *
+   * @param includes rules for the files to keep, or {@code null}
+   *     to keep all files
+   * @param excludes rules for the files and directories to skip,
+   *     or {@code null}
+   */
+  public static PathFilter build(String includes, String excludes) {
+    return new PathFilter(splitRules(includes), splitRules(excludes));
+  }
+
+  /**
+   * Determine whether the walk should descend into a directory.
+   *
+   * @param relPath path to the directory from the root of the walk
+   */
+  public boolean acceptDirectory(Path relPath) {
+    return !matchesAny(excludes, relPath);
+  }
+
+  /**
+   * Determine whether the walk should report a file.
+   *
+   * @param relPath path to the file from the root of the walk
+   */
+  public boolean acceptFile(Path relPath) {
+    if (matchesAny(excludes, relPath)) {
+      return false;
+    }
+    return includes.isEmpty() || matchesAny(includes, relPath);
+  }
+
+  /**
+   * Indicate whether the filter accepts every path.
+   */
+  public boolean isEmpty() {
+    return includes.isEmpty() && excludes.isEmpty();
+  }
+
+  /**
+   * Describe the filter's rules.  Filters with the same description
+   * accept the same paths.
+   */
+  @Override
+  public String toString() {
+    return description;
+  }
+
+  private static boolean matchesAny(List<PathRule> rules, Path relPath) {
+    for (PathRule rule : rules) {
+      if (rule.matches(relPath)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static List<String> splitRules(String rulesText) {
+    ImmutableList.Builder<String> result = ImmutableList.builder();
+    if (null == rulesText) {
+      return result.build();
+    }
+    for (String rule : rulesText.split("\\p{Space}+")) {
+      if (!rule.isEmpty()) {
+        result.add(rule);
+      }
+    }
+    return result.build();
+  }
+
+  private static List<PathRule> buildRules(Collection<String> patterns) {
+    ImmutableList.Builder<PathRule> result = ImmutableList.builder();
+    for (String pattern : patterns) {
+      result.add(buildRule(pattern));
+    }
+    return result.build();
+  }
+
+  private static PathRule buildRule(String pattern) {
+    String syntax = GLOB_SYNTAX;
+    String body = pattern;
+    if (pattern.startsWith(REGEX_SYNTAX)) {
+      syntax = REGEX_SYNTAX;
+      body = pattern.substring(REGEX_SYNTAX.length());
+    } else if (pattern.startsWith(GLOB_SYNTAX)) {
+      body = pattern.substring(GLOB_SYNTAX.length());
+    }
+
+    PathMatcher matcher =
+        FileSystems.getDefault().getPathMatcher(syntax + body);
+    return new PathRule(matcher, body.contains("/"));
+  }
+
+  /////////////////////////////////////
+  // Compiled rules
+
+  private static class PathRule {
+    private final PathMatcher matcher;
+
+    /** Match the relative path, instead of just the entry's name. */
+    private final boolean matchPath;
+
+    public PathRule(PathMatcher matcher, boolean matchPath) {
+      this.matcher = matcher;
+      this.matchPath = matchPath;
+    }
+
+    public boolean matches(Path relPath) {
+      if (matchPath) {
+        return matcher.matches(relPath);
+      }
+      return matcher.matches(relPath.getFileName());
+    }
+  }
+}
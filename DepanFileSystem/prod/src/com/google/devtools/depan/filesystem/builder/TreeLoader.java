@@ -16,21 +16,37 @@
 
 package com.google.devtools.depan.filesystem.builder;
 
+import com.google.devtools.depan.filesystem.builder.FileTreeWalker.TreeEntry;
+import com.google.devtools.depan.filesystem.builder.TreeSnapshot.EntryKind;
 import com.google.devtools.depan.filesystem.graph.DirectoryElement;
 import com.google.devtools.depan.filesystem.graph.FileElement;
 import com.google.devtools.depan.filesystem.graph.FileSystemRelation;
 import com.google.devtools.depan.model.GraphNode;
 import com.google.devtools.depan.model.builder.chain.DependenciesListener;
 
+import com.google.common.collect.Sets;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Set;
 
 /**
  * Populate a GraphModel based on the contents of an accessible
  * file system tree.
+ *
+ * Directories are listed concurrently by a {@link FileTreeWalker}, but
+ * all the visit methods and dependency callbacks run on the caller's
+ * thread, in directory listing order.
+ *
+ * An analysis can also record a {@link TreeSnapshot} of the tree, so a
+ * later analysis of the same tree can skip reading unchanged directories.
+ * A tree can also be scanned for its snapshot alone, and only the entries
+ * added since an earlier snapshot visited with
+ * {@link #updateTree(String, TreeSnapshot, TreeSnapshot.Diff)}.
  * 
  * @author <a href="leeca@google.com">Lee Carver</a>
  */
@@ -41,21 +57,218 @@ public class TreeLoader {
 
   private final DependenciesListener builder;
   private final String prefixPath;
+  private final int threadCount;
+  private final PathFilter pathFilter;
 
   /**
    * @param builder
+   * @param threadCount number of threads that list directories
+   * @param pathFilter rules for the files and directories to analyze
    */
-  public TreeLoader(DependenciesListener builder, String prefixPath) {
+  public TreeLoader(
+      DependenciesListener builder, String prefixPath, int threadCount,
+      PathFilter pathFilter) {
     this.builder = builder;
     this.prefixPath = prefixPath;
+    this.threadCount = threadCount;
+    this.pathFilter = pathFilter;
+  }
+
+  /**
+   * @param builder
+   * @param threadCount number of threads that list directories
+   */
+  public TreeLoader(
+      DependenciesListener builder, String prefixPath, int threadCount) {
+    this(builder, prefixPath, threadCount, PathFilter.ALL_PATHS);
+  }
+
+  /**
+   * @param builder
+   */
+  public TreeLoader(DependenciesListener builder, String prefixPath) {
+    this(builder, prefixPath, FileTreeWalker.getDefaultThreadCount());
   }
 
   public void analyzeTree(String treePath) throws IOException {
+    analyzeTree(treePath, null, null);
+  }
+
+  /**
+   * Analyze the tree, and record a snapshot of its contents.
+   *
+   * @param previous snapshot from an earlier analysis, or {@code null}.
+   *     It is ignored unless it was made with the same settings.
+   * @return snapshot of the analyzed tree
+   */
+  public TreeSnapshot analyzeTree(String treePath, TreeSnapshot previous)
+      throws IOException {
+    File rootFile = new File(treePath).getCanonicalFile();
+    String settings = getSnapshotSettings(rootFile);
+    if ((null != previous) && !previous.matches(settings)) {
+      previous = null;
+    }
+    TreeSnapshot.Builder snapshot =
+        new TreeSnapshot.Builder(settings, System.currentTimeMillis());
+    analyzeTree(treePath, previous, snapshot);
+    return snapshot.build();
+  }
+
+  /**
+   * Record a snapshot of the tree, without visiting any of its entries.
+   *
+   * @param previous snapshot from an earlier analysis, or {@code null}.
+   *     It is ignored unless it was made with the same settings.
+   * @return snapshot of the scanned tree
+   */
+  public TreeSnapshot scanTree(String treePath, TreeSnapshot previous)
+      throws IOException {
+    File rootFile = new File(treePath).getCanonicalFile();
+    String settings = getSnapshotSettings(rootFile);
+    if ((null != previous) && !previous.matches(settings)) {
+      previous = null;
+    }
+    TreeSnapshot.Builder snapshot =
+        new TreeSnapshot.Builder(settings, System.currentTimeMillis());
+    FileTreeWalker walker = new FileTreeWalker(threadCount, pathFilter);
+    try {
+      TreeEntry root = walker.walk(new File(treePath), previous);
+      int rootIndex = snapshot.addRoot(
+          root.getKind(), root.getSize(), root.getLastModified());
+      if (root.isDirectory()) {
+        recordTree(root, snapshot, rootIndex);
+      }
+    } finally {
+      walker.shutdown();
+    }
+    return snapshot.build();
+  }
+
+  private void recordTree(TreeEntry dirEntry,
+      TreeSnapshot.Builder snapshot, int dirIndex) {
+    for (TreeEntry child : dirEntry.takeChildren()) {
+      int childIndex = snapshot.addEntry(dirIndex,
+          child.getFile().getName(), child.getKind(),
+          child.getSize(), child.getLastModified());
+      if (child.isDirectory()) {
+        recordTree(child, snapshot, childIndex);
+      }
+    }
+  }
+
+  /**
+   * Visit only the entries of the tree that were added since an earlier
+   * snapshot.  Each added entry is sent to the builder with its containing
+   * directory, which the builder is expected to have already unless that
+   * directory was also added.
+   *
+   * If the snapshots are not comparable, every entry is reported as added,
+   * and this builds the same dependencies as a full analysis.
+   *
+   * @param current snapshot from {@link #scanTree(String, TreeSnapshot)}
+   * @param changes differences between {@code current} and the
+   *     earlier snapshot
+   */
+  public void updateTree(String treePath,
+      TreeSnapshot current, TreeSnapshot.Diff changes) throws IOException {
+    File rootFile = new File(treePath).getCanonicalFile();
     beginAnalysis(treePath);
-    processRoot(treePath);
+    for (String relPath : changes.getAdded()) {
+      addEntry(rootFile, relPath, current.getKind(relPath));
+    }
     finishAnalysis(treePath);
   }
 
+  /**
+   * Provide the node ids of a snapshot's entries, such as the entries
+   * removed since that snapshot.  Entries that are neither files nor
+   * directories have no nodes.
+   */
+  public Set<String> findElementIds(String treePath,
+      TreeSnapshot snapshot, Collection<String> relPaths)
+      throws IOException {
+    File rootFile = new File(treePath).getCanonicalFile();
+    Set<String> result = Sets.newHashSetWithExpectedSize(relPaths.size());
+    for (String relPath : relPaths) {
+      File entryFile = getTreeFile(rootFile, relPath);
+      EntryKind kind = snapshot.getKind(relPath);
+      if (EntryKind.FILE == kind) {
+        result.add(createFile(entryFile).getId());
+      } else if (EntryKind.DIRECTORY == kind) {
+        result.add(createDirectory(entryFile).getId());
+      }
+    }
+    return result;
+  }
+
+  private void addEntry(File rootFile, String relPath, EntryKind kind)
+      throws IOException {
+    File entryFile = getTreeFile(rootFile, relPath);
+
+    // As in processRoot(), a lone file is the only node for the root.
+    if (relPath.isEmpty()) {
+      if (EntryKind.FILE == kind) {
+        getBuilder().newNode(visitFile(entryFile));
+      } else if (EntryKind.DIRECTORY == kind) {
+        visitDirectory(entryFile);
+      }
+      return;
+    }
+
+    GraphNode parentNode = createDirectory(entryFile.getParentFile());
+    try {
+      if (EntryKind.FILE == kind) {
+        GraphNode file = visitFile(entryFile);
+        getBuilder().newDep(
+            parentNode, file, FileSystemRelation.CONTAINS_FILE);
+        return;
+      }
+      if (EntryKind.DIRECTORY == kind) {
+        GraphNode dir = visitDirectory(entryFile);
+        getBuilder().newDep(parentNode, dir, FileSystemRelation.CONTAINS_DIR);
+        return;
+      }
+      LOG.warn("Unknown file system object {}", entryFile.getPath());
+    } catch (IOException e) {
+      LOG.error("Unable to access tree entity {}", entryFile.getPath(), e);
+    }
+  }
+
+  /**
+   * Provide the path name of a snapshot entry, below the tree's
+   * canonical root.  This matches the paths from the walker.
+   */
+  private File getTreeFile(File rootFile, String relPath) {
+    if (relPath.isEmpty()) {
+      return rootFile;
+    }
+    return new File(rootFile, relPath);
+  }
+
+  private void analyzeTree(String treePath,
+      TreeSnapshot previous, TreeSnapshot.Builder snapshot)
+      throws IOException {
+    beginAnalysis(treePath);
+    FileTreeWalker walker = new FileTreeWalker(threadCount, pathFilter);
+    try {
+      processRoot(walker.walk(new File(treePath), previous), treePath,
+          snapshot);
+    } finally {
+      walker.shutdown();
+    }
+    finishAnalysis(treePath);
+  }
+
+  /**
+   * Describe everything that affects the analysis of the tree, other
+   * than the tree's contents.
+   */
+  private String getSnapshotSettings(File rootFile) {
+    return "root " + rootFile.getPath()
+        + "\nprefix " + prefixPath
+        + "\nfilter " + pathFilter;
+  }
+
   protected DependenciesListener getBuilder() {
     return builder;
   }
@@ -79,7 +292,8 @@ public class TreeLoader {
   /**
    * Provides a {@code FileElement} for a discovered file.
    * 
-   * @param treeFile path name to file within the analysis tree
+   * @param treeFile path name to file within the analysis tree,
+   *     below the tree's canonical root
    * @throws IOException
    */
   protected FileElement visitFile(File treeFile) throws IOException {
@@ -89,7 +303,8 @@ public class TreeLoader {
   /**
    * Provides a {@code DirectoryElement} for a discovered directory.
    * 
-   * @param treeFile path name to directory within the analysis tree
+   * @param treeFile path name to directory within the analysis tree,
+   *     below the tree's canonical root
    * @throws IOException
    */
   protected DirectoryElement visitDirectory(File treeFile) throws IOException {
@@ -101,23 +316,29 @@ public class TreeLoader {
    * Process the root of the tree specially, since none of the elements
    * have relations with containers.
    * 
+   * @param root entry for the canonical root of the tree
    * @param treePath
+   * @param snapshot records the tree's entries, or {@code null}
    * @throws IOException
    */
-  private void processRoot(String treePath) throws IOException {
-    File treeFile = new File(treePath);
+  private void processRoot(TreeEntry root, String treePath,
+      TreeSnapshot.Builder snapshot) throws IOException {
+    if (null != snapshot) {
+      snapshot.addRoot(
+          root.getKind(), root.getSize(), root.getLastModified());
+    }
 
     // If it is just a file, it's pretty uninteresting - one node
-    if (treeFile.isFile()) {
-      FileElement fileNode = visitFile(treeFile);
+    if (root.isFile()) {
+      FileElement fileNode = visitFile(root.getFile());
       getBuilder().newNode(fileNode);
       return;
     }
 
     // If it's a directory, traverse the full tree
-    if (treeFile.isDirectory()) {
-      DirectoryElement parentNode = visitDirectory(treeFile);
-      traverseTree(parentNode, treeFile);
+    if (root.isDirectory()) {
+      DirectoryElement parentNode = visitDirectory(root.getFile());
+      traverseTree(parentNode, root, snapshot, 0);
       return;
     }
 
@@ -125,12 +346,16 @@ public class TreeLoader {
     LOG.info("Unable to load tree from {}", treePath);
   }
 
-  private void traverseTree(GraphNode rootNode, File rootFile) {
-
-    // TODO(leeca):  Based on performance, maybe revise to sort into
-    // lists of files and directories, and process each type in batches.
-    for (File child : rootFile.listFiles()) {
-      buildChild(rootNode, child);
+  private void traverseTree(GraphNode rootNode, TreeEntry rootEntry,
+      TreeSnapshot.Builder snapshot, int rootIndex) {
+    for (TreeEntry child : rootEntry.takeChildren()) {
+      int childIndex = -1;
+      if (null != snapshot) {
+        childIndex = snapshot.addEntry(rootIndex,
+            child.getFile().getName(), child.getKind(),
+            child.getSize(), child.getLastModified());
+      }
+      buildChild(rootNode, child, snapshot, childIndex);
     }
   }
 
@@ -140,23 +365,27 @@ public class TreeLoader {
    * 
    * @param rootNode Node for the parent directory
    * @param child a child element of the parent directory
+   * @param snapshot records the tree's entries, or {@code null}
+   * @param childIndex snapshot index of the child
    */
-  private void buildChild(GraphNode rootNode, File child) {
+  private void buildChild(GraphNode rootNode, TreeEntry child,
+      TreeSnapshot.Builder snapshot, int childIndex) {
+    File childFile = child.getFile();
     try {
       if (child.isFile()) {
-        GraphNode file = visitFile(child);
+        GraphNode file = visitFile(childFile);
         getBuilder().newDep(rootNode, file, FileSystemRelation.CONTAINS_FILE);
         return;
       }
       if (child.isDirectory()) {
-        GraphNode dir = visitDirectory(child);
+        GraphNode dir = visitDirectory(childFile);
         getBuilder().newDep(rootNode, dir, FileSystemRelation.CONTAINS_DIR);
-        traverseTree(dir, child);
+        traverseTree(dir, child, snapshot, childIndex);
         return;
       }
-      LOG.warn("Unknown file system object {}", child.getCanonicalPath());
+      LOG.warn("Unknown file system object {}", childFile.getPath());
     } catch (IOException e) {
-      LOG.error("Unable to access tree entity {}", child.getPath());
+      LOG.error("Unable to access tree entity {}", childFile.getPath(), e);
     }
   }
 
@@ -173,14 +402,15 @@ public class TreeLoader {
 
   /**
    * Tidy up the path for elements, mostly by removing the prefix path if
-   * it is present.
+   * it is present.  Paths from the walker are already below the tree's
+   * canonical root, so they are not canonicalized again.
    * 
    * @param elementPath path to file system element
    * @return canonical name for element
    * @throws IOException
    */
   private String getElementPath(File elementPath) throws IOException {
-    String dirPath = elementPath.getCanonicalPath();
+    String dirPath = elementPath.getPath();
     if (dirPath.startsWith(prefixPath)) {
       return dirPath.substring(prefixPath.length());
     }
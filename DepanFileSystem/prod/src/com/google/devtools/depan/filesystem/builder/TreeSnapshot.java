@@ -0,0 +1,411 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.filesystem.builder;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact record of a file system walk: the path, kind, size, and
+ * modification time of every entry, in walk order.
+ *
+ * A snapshot saved after one analysis helps the next analysis of the
+ * same tree.  A directory whose modification time has not changed still
+ * has the same entries, so the walker reuses the snapshot's names instead
+ * of reading the directory again.  Comparing the new snapshot with the
+ * previous one with {@link #diff(TreeSnapshot)} shows whether the tree's
+ * graph has changed at all.
+ *
+ * Snapshots are tied to the settings of the walk that made them, such as
+ * the root and the path filter.  A snapshot made with other settings is
+ * never reused.
+ *
+ * Instances are immutable, and may be shared by several threads.
+ */
+public class TreeSnapshot {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(TreeSnapshot.class.getName());
+
+  private static final int MAGIC = 0x4446736e; // "DFsn"
+
+  /** Increment whenever the format changes. */
+  private static final int FORMAT_VERSION = 1;
+
+  /**
+   * Directories modified this close to the start of the previous walk
+   * might have changed again within the file system's timestamp
+   * resolution, so they are always read again.
+   */
+  private static final long SETTLE_MILLIS = 2000;
+
+  /** Parent index of the root entry. */
+  private static final int NO_PARENT = -1;
+
+  public static enum EntryKind {
+    FILE, DIRECTORY, OTHER
+  }
+
+  private final String settings;
+
+  private final long scanTime;
+
+  private final List<SnapshotEntry> entries;
+
+  /** Entries by path relative to the root. */
+  private final Map<String, SnapshotEntry> paths;
+
+  private TreeSnapshot(
+      String settings, long scanTime, List<SnapshotEntry> entries) {
+    this.settings = settings;
+    this.scanTime = scanTime;
+    this.entries = entries;
+
+    paths = Maps.newHashMapWithExpectedSize(entries.size());
+    for (SnapshotEntry entry : entries) {
+      paths.put(entry.relPath, entry);
+    }
+  }
+
+  /**
+   * Load a snapshot saved by {@link #save(File)}.
+   *
+   * @return {@code null} if the snapshot file is missing or unreadable
+   */
+  public static TreeSnapshot load(File snapshotFile) {
+    if (!snapshotFile.exists()) {
+      return null;
+    }
+    try {
+      return readSnapshot(snapshotFile);
+    } catch (IOException errIo) {
+      LOG.warn("Ignoring unreadable tree snapshot {}", snapshotFile, errIo);
+    } catch (RuntimeException errRuntime) {
+      LOG.warn("Ignoring corrupt tree snapshot {}", snapshotFile, errRuntime);
+    }
+    return null;
+  }
+
+  /**
+   * Write this snapshot.  The file is replaced only after the new
+   * contents are completely written.
+   */
+  public void save(File snapshotFile) throws IOException {
+    File tempFile = new File(snapshotFile.getPath() + ".tmp");
+    DataOutputStream output = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(tempFile)));
+    try {
+      writeSnapshot(output);
+    } finally {
+      output.close();
+    }
+    Files.move(tempFile.toPath(), snapshotFile.toPath(),
+        StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  /**
+   * Indicate whether this snapshot was made by a walk with the given
+   * settings.
+   */
+  public boolean matches(String walkSettings) {
+    return settings.equals(walkSettings);
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Provide the kind of an entry.
+   *
+   * @param relPath entry path relative to the root
+   * @return {@code null} if the snapshot has no such entry
+   */
+  public EntryKind getKind(String relPath) {
+    SnapshotEntry entry = paths.get(relPath);
+    if (null == entry) {
+      return null;
+    }
+    return entry.kind;
+  }
+
+  /**
+   * Provide the recorded entry names of a directory, if its contents
+   * are known to be unchanged.
+   *
+   * @param relPath directory path relative to the root
+   * @param lastModified current modification time of the directory
+   * @return {@code null} if the directory must be read again
+   */
+  public List<String> findUnchangedDirectory(
+      String relPath, long lastModified) {
+    SnapshotEntry entry = paths.get(relPath);
+    if ((null == entry)
+        || (EntryKind.DIRECTORY != entry.kind)
+        || (entry.lastModified != lastModified)
+        || (lastModified + SETTLE_MILLIS > scanTime)) {
+      return null;
+    }
+    return Collections.unmodifiableList(entry.childNames);
+  }
+
+  /**
+   * Compare this snapshot with the snapshot from an earlier walk.
+   *
+   * @param previous earlier snapshot, or {@code null} if there is none
+   */
+  public Diff diff(TreeSnapshot previous) {
+    if ((null == previous) || !previous.matches(settings)) {
+      return new Diff(false, getAllPaths(), ImmutableList.<String>of(),
+          ImmutableList.<String>of());
+    }
+
+    List<String> added = Lists.newArrayList();
+    List<String> changed = Lists.newArrayList();
+    for (SnapshotEntry entry : entries) {
+      SnapshotEntry prior = previous.paths.get(entry.relPath);
+      if ((null == prior) || (prior.kind != entry.kind)) {
+        added.add(entry.relPath);
+      } else if ((EntryKind.FILE == entry.kind)
+          && ((prior.size != entry.size)
+              || (prior.lastModified != entry.lastModified))) {
+        changed.add(entry.relPath);
+      }
+    }
+
+    List<String> removed = Lists.newArrayList();
+    for (SnapshotEntry prior : previous.entries) {
+      SnapshotEntry entry = paths.get(prior.relPath);
+      if ((null == entry) || (prior.kind != entry.kind)) {
+        removed.add(prior.relPath);
+      }
+    }
+    return new Diff(true, added, removed, changed);
+  }
+
+  private List<String> getAllPaths() {
+    List<String> result = Lists.newArrayListWithExpectedSize(entries.size());
+    for (SnapshotEntry entry : entries) {
+      result.add(entry.relPath);
+    }
+    return result;
+  }
+
+  /////////////////////////////////////
+  // Entries
+
+  private static class SnapshotEntry {
+    private final int parent;
+    private final String name;
+    private final String relPath;
+    private final EntryKind kind;
+    private final long size;
+    private final long lastModified;
+
+    /** Names of the listed entries, for directories. */
+    private final List<String> childNames = Lists.newArrayList();
+
+    public SnapshotEntry(int parent, String name, String relPath,
+        EntryKind kind, long size, long lastModified) {
+      this.parent = parent;
+      this.name = name;
+      this.relPath = relPath;
+      this.kind = kind;
+      this.size = size;
+      this.lastModified = lastModified;
+    }
+  }
+
+  /**
+   * Differences between two snapshots, as paths relative to the root.
+   */
+  public static class Diff {
+    private final boolean comparable;
+    private final List<String> added;
+    private final List<String> removed;
+    private final List<String> changed;
+
+    private Diff(boolean comparable,
+        List<String> added, List<String> removed, List<String> changed) {
+      this.comparable = comparable;
+      this.added = added;
+      this.removed = removed;
+      this.changed = changed;
+    }
+
+    /**
+     * Indicate whether the earlier snapshot was made with the same
+     * settings.  If not, every entry is reported as added.
+     */
+    public boolean isComparable() {
+      return comparable;
+    }
+
+    public List<String> getAdded() {
+      return added;
+    }
+
+    public List<String> getRemoved() {
+      return removed;
+    }
+
+    /**
+     * Files whose size or modification time changed.  These do not
+     * change the graph.
+     */
+    public List<String> getChanged() {
+      return changed;
+    }
+
+    /**
+     * Indicate whether the graph for the earlier snapshot is still
+     * correct, since no entries were added or removed.
+     */
+    public boolean isGraphUnchanged() {
+      return comparable && added.isEmpty() && removed.isEmpty();
+    }
+  }
+
+  /////////////////////////////////////
+  // Construction
+
+  /**
+   * Collect the entries of a walk, parents before their children.
+   * Builders are not thread-safe.
+   */
+  public static class Builder {
+    private final String settings;
+    private final long scanTime;
+    private final List<SnapshotEntry> entries = Lists.newArrayList();
+
+    /**
+     * @param settings description of the walk's settings
+     * @param scanTime time, in milliseconds, when the walk started
+     */
+    public Builder(String settings, long scanTime) {
+      this.settings = settings;
+      this.scanTime = scanTime;
+    }
+
+    /**
+     * Add the root of the walk.
+     *
+     * @return index of the root, for its children
+     */
+    public int addRoot(EntryKind kind, long size, long lastModified) {
+      return addEntry(NO_PARENT, "", "", kind, size, lastModified);
+    }
+
+    /**
+     * Add an entry below a previously added directory.
+     *
+     * @return index of the entry, for its children
+     */
+    public int addEntry(
+        int parent, String name, EntryKind kind, long size, long lastModified) {
+      SnapshotEntry parentEntry = entries.get(parent);
+      parentEntry.childNames.add(name);
+      String relPath = parentEntry.relPath.isEmpty()
+          ? name : parentEntry.relPath + File.separator + name;
+      return addEntry(parent, name, relPath, kind, size, lastModified);
+    }
+
+    private int addEntry(int parent, String name, String relPath,
+        EntryKind kind, long size, long lastModified) {
+      entries.add(new SnapshotEntry(
+          parent, name, relPath, kind, size, lastModified));
+      return entries.size() - 1;
+    }
+
+    public TreeSnapshot build() {
+      return new TreeSnapshot(
+          settings, scanTime, ImmutableList.copyOf(entries));
+    }
+  }
+
+  /////////////////////////////////////
+  // Persistence
+
+  private void writeSnapshot(DataOutputStream output) throws IOException {
+    output.writeInt(MAGIC);
+    output.writeInt(FORMAT_VERSION);
+    output.writeUTF(settings);
+    output.writeLong(scanTime);
+    output.writeInt(entries.size());
+    for (SnapshotEntry entry : entries) {
+      output.writeInt(entry.parent);
+      output.writeUTF(entry.name);
+      output.writeByte(entry.kind.ordinal());
+      output.writeLong(entry.size);
+      output.writeLong(entry.lastModified);
+    }
+  }
+
+  private static TreeSnapshot readSnapshot(File snapshotFile)
+      throws IOException {
+    DataInputStream input = new DataInputStream(
+        new BufferedInputStream(new FileInputStream(snapshotFile)));
+    try {
+      if ((MAGIC != input.readInt())
+          || (FORMAT_VERSION != input.readInt())) {
+        LOG.info("Ignoring outdated tree snapshot {}", snapshotFile);
+        return null;
+      }
+
+      String settings = input.readUTF();
+      long scanTime = input.readLong();
+      int entryCount = input.readInt();
+      Builder builder = new Builder(settings, scanTime);
+      EntryKind[] kinds = EntryKind.values();
+      for (int index = 0; index < entryCount; index++) {
+        int parent = input.readInt();
+        String name = input.readUTF();
+        EntryKind kind = kinds[input.readByte()];
+        long size = input.readLong();
+        long lastModified = input.readLong();
+        if (NO_PARENT == parent) {
+          builder.addRoot(kind, size, lastModified);
+        } else if (parent < index) {
+          builder.addEntry(parent, name, kind, size, lastModified);
+        } else {
+          throw new IOException("Invalid parent reference " + parent);
+        }
+      }
+      return builder.build();
+    } finally {
+      input.close();
+    }
+  }
+}
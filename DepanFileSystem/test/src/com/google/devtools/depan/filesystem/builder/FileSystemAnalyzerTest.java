@@ -0,0 +1,157 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.filesystem.builder;
+
+import static org.junit.Assert.*;
+
+import com.google.devtools.depan.model.GraphEdge;
+import com.google.devtools.depan.model.GraphModel;
+import com.google.devtools.depan.model.GraphNode;
+
+import com.google.common.collect.Sets;
+import com.google.common.io.Files;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Set;
+
+public class FileSystemAnalyzerTest {
+
+  private final IProgressMonitor monitor = new NullProgressMonitor();
+
+  private File tempDir;
+
+  private File treeRoot;
+
+  @Before
+  public void setUp() throws IOException {
+    tempDir = Files.createTempDir();
+    treeRoot = new File(tempDir, "root");
+    for (int dir = 0; dir < 3; dir++) {
+      File dirFile = new File(treeRoot, "dir" + dir);
+      dirFile.mkdirs();
+      for (int file = 0; file < 4; file++) {
+        Files.touch(new File(dirFile, "file" + file + ".txt"));
+      }
+    }
+  }
+
+  @After
+  public void tearDown() {
+    deleteTree(tempDir);
+  }
+
+  @Test
+  public void testFirstAnalysis() throws IOException {
+    FileSystemAnalyzer analyzer = buildAnalyzer();
+    assertFalse(analyzer.scanTree(monitor, null).isComparable());
+    GraphModel first =
+        analyzer.updateAnalysisDocument(monitor, null).getGraph();
+
+    GraphModel full = analyzeFull();
+    assertEquals(1 + 3 + 12, first.getNodes().size());
+    assertSameGraph(full, first);
+  }
+
+  @Test
+  public void testApplyChanges() throws IOException {
+    FileSystemAnalyzer analyzer = buildAnalyzer();
+    analyzer.scanTree(monitor, null);
+    GraphModel first =
+        analyzer.updateAnalysisDocument(monitor, null).getGraph();
+    TreeSnapshot previous = analyzer.getSnapshot();
+
+    Files.touch(new File(treeRoot, "dir1/added.txt"));
+    File newDir = new File(treeRoot, "dir3/sub");
+    newDir.mkdirs();
+    Files.touch(new File(newDir, "deep.txt"));
+    deleteTree(new File(treeRoot, "dir2"));
+
+    analyzer = buildAnalyzer();
+    TreeSnapshot.Diff changes = analyzer.scanTree(monitor, previous);
+    assertEquals(4, changes.getAdded().size());
+    assertEquals(5, changes.getRemoved().size());
+    GraphModel update =
+        analyzer.updateAnalysisDocument(monitor, first).getGraph();
+
+    // Nodes for unchanged entries are reused from the earlier graph.
+    String dir0Id = "fs:" + new File("root", "dir0").getPath();
+    assertSame(first.findNode(dir0Id), update.findNode(dir0Id));
+    assertSameGraph(analyzeFull(), update);
+  }
+
+  @Test
+  public void testChangedKind() throws IOException {
+    FileSystemAnalyzer analyzer = buildAnalyzer();
+    analyzer.scanTree(monitor, null);
+    GraphModel first =
+        analyzer.updateAnalysisDocument(monitor, null).getGraph();
+    TreeSnapshot previous = analyzer.getSnapshot();
+
+    File file = new File(treeRoot, "dir0/file0.txt");
+    file.delete();
+    file.mkdir();
+    Files.touch(new File(file, "inner.txt"));
+
+    analyzer = buildAnalyzer();
+    analyzer.scanTree(monitor, previous);
+    GraphModel update =
+        analyzer.updateAnalysisDocument(monitor, first).getGraph();
+    assertSameGraph(analyzeFull(), update);
+  }
+
+  private FileSystemAnalyzer buildAnalyzer() throws IOException {
+    return new FileSystemAnalyzer(
+        tempDir.getCanonicalPath() + File.separator, treeRoot.getPath());
+  }
+
+  private GraphModel analyzeFull() throws IOException {
+    return buildAnalyzer().generateAnalysisDocument(monitor).getGraph();
+  }
+
+  private static void assertSameGraph(GraphModel expected, GraphModel actual) {
+    assertEquals(expected.getNodesMap().keySet(),
+        actual.getNodesMap().keySet());
+    assertEquals(describeEdges(expected), describeEdges(actual));
+  }
+
+  private static Set<String> describeEdges(GraphModel graph) {
+    Set<String> result = Sets.newHashSet();
+    for (GraphEdge edge : graph.getEdges()) {
+      GraphNode head = edge.getHead();
+      GraphNode tail = edge.getTail();
+      result.add(head.getId() + " " + edge.getRelation() + " " + tail.getId());
+    }
+    return result;
+  }
+
+  private static void deleteTree(File file) {
+    File[] children = file.listFiles();
+    if (null != children) {
+      for (File child : children) {
+        deleteTree(child);
+      }
+    }
+    file.delete();
+  }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.filesystem.builder;
+
+import static org.junit.Assert.*;
+
+import com.google.devtools.depan.filesystem.builder.FileTreeWalker.TreeEntry;
+import com.google.devtools.depan.filesystem.graph.FileSystemElement;
+import com.google.devtools.depan.filesystem.graph.FileSystemRelation;
+import com.google.devtools.depan.model.GraphNode;
+import com.google.devtools.depan.model.builder.chain.DependencyRecorder;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.io.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+public class TreeLoaderTest {
+
+  private File tempDir;
+
+  private File treeRoot;
+
+  @Before
+  public void setUp() throws IOException {
+    tempDir = Files.createTempDir();
+    treeRoot = new File(tempDir, "root");
+    for (int dir = 0; dir < 5; dir++) {
+      File dirFile = new File(treeRoot, "dir" + dir + "/sub");
+      dirFile.mkdirs();
+      for (int file = 0; file < 7; file++) {
+        Files.touch(new File(dirFile, "file" + file + ".txt"));
+        Files.touch(new File(dirFile.getParentFile(), "top" + file + ".txt"));
+      }
+    }
+    new File(treeRoot, "empty").mkdir();
+  }
+
+  @After
+  public void tearDown() {
+    deleteTree(tempDir);
+  }
+
+  @Test
+  public void testSameAsListFiles() throws IOException {
+    for (int threadCount : new int[] {1, 4}) {
+      DependencyRecorder recorder = new DependencyRecorder();
+      TreeLoader loader =
+          new TreeLoader(recorder, tempDir.getCanonicalPath(), threadCount);
+      loader.analyzeTree(treeRoot.getPath());
+
+      List<String> expected = Lists.newArrayList();
+      listTree(treeRoot.getCanonicalFile(), expected);
+      assertEquals(expected, getDeps(recorder));
+    }
+  }
+
+  @Test
+  public void testSingleFile() throws IOException {
+    File single = new File(treeRoot, "dir0/top0.txt");
+    DependencyRecorder recorder = new DependencyRecorder();
+    TreeLoader loader = new TreeLoader(recorder, tempDir.getCanonicalPath());
+    loader.analyzeTree(single.getPath());
+
+    assertEquals(1, recorder.size());
+    assertNull(recorder.getChild(0));
+    assertEquals("/root/dir0/top0.txt".replace('/', File.separatorChar),
+        getElementPath(recorder.getParent(0)));
+  }
+
+  @Test
+  public void testPathFilter() throws IOException {
+    Files.touch(new File(treeRoot, "dir3/notes.md"));
+    PathFilter filter = PathFilter.build(
+        "*.txt regex:.*\\.md", "dir1 dir2/sub top[0-5].txt");
+    DependencyRecorder recorder = new DependencyRecorder();
+    TreeLoader loader = new TreeLoader(
+        recorder, tempDir.getCanonicalPath(), 2, filter);
+    loader.analyzeTree(treeRoot.getPath());
+
+    Set<String> paths = Sets.newHashSet();
+    for (int index = 0; index < recorder.size(); index++) {
+      paths.add(getElementPath(recorder.getChild(index)));
+    }
+    assertTrue(paths.contains(path("/root/dir0/sub/file0.txt")));
+    assertTrue(paths.contains(path("/root/dir0/top6.txt")));
+    assertTrue(paths.contains(path("/root/dir3/notes.md")));
+    assertTrue(paths.contains(path("/root/dir2")));
+    assertTrue(paths.contains(path("/root/empty")));
+    assertFalse(paths.contains(path("/root/dir0/top5.txt")));
+    assertFalse(paths.contains(path("/root/dir1")));
+    assertFalse(paths.contains(path("/root/dir1/top6.txt")));
+    assertFalse(paths.contains(path("/root/dir2/sub")));
+    assertFalse(paths.contains(path("/root/dir2/sub/file0.txt")));
+
+    // 4 dirs and empty, 3 subs with 7 files each, top6.txt in the
+    // 4 dirs, and notes.md.
+    assertEquals(5 + 3 + 21 + 4 + 1, paths.size());
+  }
+
+  @Test
+  public void testTakeChildren() throws IOException {
+    FileTreeWalker walker = new FileTreeWalker(2);
+    try {
+      TreeEntry root = walker.walk(treeRoot);
+      List<TreeEntry> children = root.takeChildren();
+      assertEquals(5 + 1, children.size());
+
+      // Taken children are no longer retained by their directory.
+      assertTrue(root.takeChildren().isEmpty());
+      for (TreeEntry child : children) {
+        boolean isEmpty = "empty".equals(child.getFile().getName());
+        assertEquals(isEmpty, child.takeChildren().isEmpty());
+        assertTrue(child.takeChildren().isEmpty());
+      }
+    } finally {
+      walker.shutdown();
+    }
+  }
+
+  @Test
+  public void testListingFollowsCaller() throws IOException {
+    FileTreeWalker walker = new FileTreeWalker(2);
+    try {
+      TreeEntry root = walker.walk(treeRoot);
+      TreeEntry dir0 = findChild(root.takeChildren(), "dir0");
+
+      // The listing of dir0/sub starts when dir0's children are taken.
+      Files.touch(new File(treeRoot, "dir0/sub/late.txt"));
+      TreeEntry sub = findChild(dir0.takeChildren(), "sub");
+      assertNotNull(findChild(sub.takeChildren(), "late.txt"));
+    } finally {
+      walker.shutdown();
+    }
+  }
+
+  private static TreeEntry findChild(List<TreeEntry> children, String name) {
+    for (TreeEntry child : children) {
+      if (name.equals(child.getFile().getName())) {
+        return child;
+      }
+    }
+    return null;
+  }
+
+  private static String path(String path) {
+    return path.replace('/', File.separatorChar);
+  }
+
+  /**
+   * The original recursive walk, based on {@link File#listFiles()}.
+   */
+  private void listTree(File dir, List<String> result) throws IOException {
+    String dirPath = getPath(dir);
+    for (File child : dir.listFiles()) {
+      if (child.isFile()) {
+        result.add(dirPath + " " + FileSystemRelation.CONTAINS_FILE
+            + " " + getPath(child));
+      } else {
+        result.add(dirPath + " " + FileSystemRelation.CONTAINS_DIR
+            + " " + getPath(child));
+        listTree(child, result);
+      }
+    }
+  }
+
+  private String getPath(File file) throws IOException {
+    return file.getCanonicalPath().substring(
+        tempDir.getCanonicalPath().length());
+  }
+
+  private static List<String> getDeps(DependencyRecorder recorder) {
+    List<String> result = Lists.newArrayList();
+    for (int index = 0; index < recorder.size(); index++) {
+      result.add(getElementPath(recorder.getParent(index))
+          + " " + recorder.getRelation(index)
+          + " " + getElementPath(recorder.getChild(index)));
+    }
+    return result;
+  }
+
+  private static String getElementPath(GraphNode element) {
+    return ((FileSystemElement) element).getPath();
+  }
+
+  private static void deleteTree(File file) {
+    File[] children = file.listFiles();
+    if (null != children) {
+      for (File child : children) {
+        deleteTree(child);
+      }
+    }
+    file.delete();
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.filesystem.builder;
+
+import static org.junit.Assert.*;
+
+import com.google.devtools.depan.model.builder.chain.DependencyRecorder;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+public class TreeSnapshotTest {
+
+  /** A modification time well before any snapshot. */
+  private static final long SETTLED_TIME = 1000000000000L;
+
+  private File tempDir;
+
+  private File treeRoot;
+
+  @Before
+  public void setUp() throws IOException {
+    tempDir = Files.createTempDir();
+    treeRoot = new File(tempDir, "root");
+    for (int dir = 0; dir < 3; dir++) {
+      File dirFile = new File(treeRoot, "dir" + dir);
+      dirFile.mkdirs();
+      for (int file = 0; file < 4; file++) {
+        Files.touch(new File(dirFile, "file" + file + ".txt"));
+      }
+    }
+    settleTree(treeRoot);
+  }
+
+  @After
+  public void tearDown() {
+    deleteTree(tempDir);
+  }
+
+  @Test
+  public void testUnchanged() throws IOException {
+    TreeSnapshot first = analyze(null, PathFilter.ALL_PATHS);
+    assertEquals(1 + 3 + 12, first.size());
+    assertFalse(first.diff(null).isComparable());
+    assertEquals(16, first.diff(null).getAdded().size());
+
+    TreeSnapshot second = analyze(first, PathFilter.ALL_PATHS);
+    TreeSnapshot.Diff changes = second.diff(first);
+    assertTrue(changes.isComparable());
+    assertTrue(changes.isGraphUnchanged());
+    assertTrue(changes.getChanged().isEmpty());
+  }
+
+  @Test
+  public void testAddRemove() throws IOException {
+    TreeSnapshot first = analyze(null, PathFilter.ALL_PATHS);
+
+    Files.touch(new File(treeRoot, "dir1/added.txt"));
+    new File(treeRoot, "dir2/file3.txt").delete();
+    Files.write(new byte[] {1, 2, 3}, new File(treeRoot, "dir0/file0.txt"));
+
+    TreeSnapshot second = analyze(first, PathFilter.ALL_PATHS);
+    TreeSnapshot.Diff changes = second.diff(first);
+    assertFalse(changes.isGraphUnchanged());
+    assertEquals(ImmutableList.of(path("dir1/added.txt")), changes.getAdded());
+    assertEquals(ImmutableList.of(path("dir2/file3.txt")),
+        changes.getRemoved());
+    assertEquals(ImmutableList.of(path("dir0/file0.txt")),
+        changes.getChanged());
+  }
+
+  @Test
+  public void testReuseUnchangedDirectory() throws IOException {
+    TreeSnapshot first = analyze(null, PathFilter.ALL_PATHS);
+
+    // Hide a new file behind an unchanged directory time, so only a
+    // directory read would find it.
+    File dir1 = new File(treeRoot, "dir1");
+    Files.touch(new File(dir1, "hidden.txt"));
+    dir1.setLastModified(SETTLED_TIME);
+
+    TreeSnapshot second = analyze(first, PathFilter.ALL_PATHS);
+    assertTrue(second.diff(first).isGraphUnchanged());
+
+    // Without the snapshot, the directory is read.
+    TreeSnapshot full = analyze(null, PathFilter.ALL_PATHS);
+    assertEquals(ImmutableList.of(path("dir1/hidden.txt")),
+        full.diff(first).getAdded());
+  }
+
+  @Test
+  public void testSettingsMismatch() throws IOException {
+    TreeSnapshot first = analyze(null, PathFilter.ALL_PATHS);
+    PathFilter filter = PathFilter.build(null, "dir1");
+    TreeSnapshot second = analyze(first, filter);
+
+    TreeSnapshot.Diff changes = second.diff(first);
+    assertFalse(changes.isComparable());
+    assertFalse(changes.isGraphUnchanged());
+    assertEquals(1 + 2 + 8, second.size());
+  }
+
+  @Test
+  public void testSaveLoad() throws IOException {
+    TreeSnapshot first = analyze(null, PathFilter.ALL_PATHS);
+    File snapshotFile = new File(tempDir, "tree.snapshot");
+    first.save(snapshotFile);
+
+    TreeSnapshot loaded = TreeSnapshot.load(snapshotFile);
+    assertEquals(first.size(), loaded.size());
+    assertTrue(loaded.diff(first).isGraphUnchanged());
+    assertTrue(first.diff(loaded).getChanged().isEmpty());
+
+    assertNull(TreeSnapshot.load(new File(tempDir, "missing.snapshot")));
+    Files.write(new byte[] {1, 2, 3}, snapshotFile);
+    assertNull(TreeSnapshot.load(snapshotFile));
+  }
+
+  private TreeSnapshot analyze(TreeSnapshot previous, PathFilter filter)
+      throws IOException {
+    TreeLoader loader = new TreeLoader(new DependencyRecorder(),
+        tempDir.getCanonicalPath(), 2, filter);
+    return loader.analyzeTree(treeRoot.getPath(), previous);
+  }
+
+  private static String path(String path) {
+    return path.replace('/', File.separatorChar);
+  }
+
+  /**
+   * Back-date every directory, so a snapshot can reuse its listing.
+   */
+  private static void settleTree(File dir) {
+    for (File child : dir.listFiles()) {
+      if (child.isDirectory()) {
+        settleTree(child);
+      }
+    }
+    dir.setLastModified(SETTLED_TIME);
+  }
+
+  private static void deleteTree(File file) {
+    File[] children = file.listFiles();
+    if (null != children) {
+      for (File child : children) {
+        deleteTree(child);
+      }
+    }
+    file.delete();
+  }
+}
@@ -20,38 +20,18 @@ import com.google.devtools.depan.graph.api.Relation;
 import com.google.devtools.depan.model.GraphNode;
 import com.google.devtools.depan.model.builder.chain.DependenciesListener;
 
-import com.google.common.collect.Maps;
-
-import java.util.Map;
-
 /**
  * Common shared context for the analysis of a GraphML files.
+ *
+ * Nodes and edges are delivered to the {@link DependenciesListener} as
+ * soon as they are parsed.  The only retained state is the index from
+ * GraphML node ids to DepAn nodes, so the memory needed for an import
+ * depends on the size of the graph, not the size of the document.
  * 
  * @author <a href="mailto:leeca@pnambic.com">Lee Carver</a>
  */
 public class GraphMLContext {
 
-  /**
-   * Pair the GraphML node id with the node label.
-   * 
-   * A rich GraphML import mechanism probably moves this id map into
-   * the {@link GraphFactory}, since it would know how to interpret any
-   * nested elements.  This works for Maven integration.
-   */
-  private static class GraphMLNode {
-    public final String id;
-    public final String nodeLabel;
-
-    public GraphMLNode(String id, String nodeLabel) {
-      this.id = id;
-      this.nodeLabel = nodeLabel;
-    }
-
-    public static GraphMLNode build(String id, String nodeLabel) {
-      return new GraphMLNode(id, nodeLabel);
-    }
-  }
-
   /**
    * Destination for the discovered graph.
    * 
@@ -67,11 +47,14 @@ public class GraphMLContext {
    */
   private final GraphFactory graphFactory;
 
-  private final Map<String, GraphMLNode> graphMLNodes =
-      Maps.newHashMap();
-
-  private final Map<String, GraphNode> depanNodes =
-      Maps.newHashMap();
+  /**
+   * Pair the GraphML node id with the DepAn node.
+   * 
+   * A rich GraphML import mechanism probably moves this id map into
+   * the {@link GraphFactory}, since it would know how to interpret any
+   * nested elements.  This works for Maven integration.
+   */
+  private final GraphMLNodeIndex depanNodes = new GraphMLNodeIndex();
 
   public GraphMLContext(
       DependenciesListener builder, GraphFactory graphFactory) {
@@ -81,11 +64,19 @@ public class GraphMLContext {
 
   /**
    * Register a GraphML node.  The GraphML node id is the primary
-   * lookup key.
+   * lookup key.  The DepAn node for the label is added to the graph
+   * immediately.
    */
   public void addGraphMLNode(String id, String nodeLabel) {
-    GraphMLNode node = GraphMLNode.build(id, nodeLabel);
-    graphMLNodes.put(node.id,  node);
+    GraphNode node;
+    try {
+      node = graphFactory.buildNode(nodeLabel);
+    } catch (RuntimeException errNode) {
+      GraphMLLogger.LOG.warn(
+          "Unable to build node {} from label {}.", id, nodeLabel, errNode);
+      return;
+    }
+    depanNodes.put(id, builder.newNode(node));
   }
 
   /**
@@ -101,7 +92,7 @@ public class GraphMLContext {
     GraphNode head = getGraphNode(source);
     GraphNode tail = getGraphNode(target);
     Relation relation = getRelation(edgeLabel);
-    if (null != relation ) {
+    if ((null != head) && (null != tail) && (null != relation)) {
       builder.newDep(head, tail, relation);
       return;
     }
@@ -110,18 +101,10 @@ public class GraphMLContext {
   }
 
   private GraphNode getGraphNode(String id) {
-    GraphNode result = depanNodes.get(id);
-    if (null != result) {
-      return result;
-    }
-
-    GraphMLNode label = graphMLNodes.get(id);
-    if (null != label) {
-      result = graphFactory.buildNode(label.nodeLabel);
-      depanNodes.put(id, result);
-      return result;
+    if (null == id) {
+      return null;
     }
-    return null;
+    return depanNodes.get(id);
   }
 
   private Relation getRelation(String id) {
@@ -146,9 +129,9 @@ public class GraphMLContext {
     if (key.isEmpty()) {
       return "<empty>";
     }
-    GraphMLNode result = graphMLNodes.get(key);
+    GraphNode result = depanNodes.get(key);
     if (null != result) {
-      return result.nodeLabel;
+      return result.friendlyString();
     }
     return key;
   }
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.graphml.builder;
+
+import com.google.devtools.depan.model.GraphNode;
+
+import com.google.common.collect.Maps;
+
+import java.util.Map;
+
+/**
+ * Compact index from GraphML node ids to DepAn nodes.
+ *
+ * GraphML writers normally use numeric ids, such as the hash codes from
+ * Maven's {@code dependency:tree} or yEd's {@code n0}, {@code n1}, ...
+ * An id that ends with a number is split into its prefix and the number,
+ * and the number is kept as an {@code int} key in an open addressing
+ * table for that prefix.  Only other ids are kept as strings.
+ *
+ * Instances are not thread-safe.
+ */
+public class GraphMLNodeIndex {
+
+  /** Numbered ids, by prefix. */
+  private final Map<String, IntTable> numbered = Maps.newHashMap();
+
+  /** Ids without a usable number. */
+  private final Map<String, GraphNode> named = Maps.newHashMap();
+
+  /**
+   * Provide the node for a GraphML id.
+   *
+   * @return {@code null} if the id is unknown
+   */
+  public GraphNode get(String id) {
+    int split = findNumberStart(id);
+    if (split < 0) {
+      return named.get(id);
+    }
+    IntTable table = numbered.get(id.substring(0, split));
+    if (null == table) {
+      return null;
+    }
+    return table.get(Integer.parseInt(id.substring(split)));
+  }
+
+  public void put(String id, GraphNode node) {
+    int split = findNumberStart(id);
+    if (split < 0) {
+      named.put(id, node);
+      return;
+    }
+    String prefix = id.substring(0, split);
+    IntTable table = numbered.get(prefix);
+    if (null == table) {
+      table = new IntTable();
+      numbered.put(prefix, table);
+    }
+    table.put(Integer.parseInt(id.substring(split)), node);
+  }
+
+  /**
+   * Find the start of the id's trailing number.  The number must be
+   * written the way {@link Integer#toString(int)} would write it, so
+   * each id has exactly one prefix and number.
+   *
+   * @return {@code -1} if the id does not end with a usable number
+   */
+  private static int findNumberStart(String id) {
+    int start = id.length();
+    while ((start > 0) && isDigit(id.charAt(start - 1))) {
+      start--;
+    }
+    int digits = id.length() - start;
+    if ((0 == digits) || (digits > 10)) {
+      return -1;
+    }
+    if ((digits > 1) && ('0' == id.charAt(start))) {
+      return -1;
+    }
+    if ((10 == digits)
+        && (Long.parseLong(id.substring(start)) > Integer.MAX_VALUE)) {
+      return -1;
+    }
+    return start;
+  }
+
+  private static boolean isDigit(char value) {
+    return ('0' <= value) && (value <= '9');
+  }
+
+  /**
+   * Open addressing table from non-negative {@code int} keys to nodes.
+   */
+  private static class IntTable {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int[] keys = new int[INITIAL_CAPACITY];
+
+    /** {@code null} marks an empty slot. */
+    private GraphNode[] values = new GraphNode[INITIAL_CAPACITY];
+
+    private int size;
+
+    public GraphNode get(int key) {
+      int mask = keys.length - 1;
+      for (int slot = hash(key) & mask; null != values[slot];
+          slot = (slot + 1) & mask) {
+        if (key == keys[slot]) {
+          return values[slot];
+        }
+      }
+      return null;
+    }
+
+    public void put(int key, GraphNode node) {
+      int mask = keys.length - 1;
+      int slot = hash(key) & mask;
+      while (null != values[slot]) {
+        if (key == keys[slot]) {
+          values[slot] = node;
+          return;
+        }
+        slot = (slot + 1) & mask;
+      }
+      keys[slot] = key;
+      values[slot] = node;
+      size++;
+      if (2 * size > keys.length) {
+        grow();
+      }
+    }
+
+    private void grow() {
+      int[] oldKeys = keys;
+      GraphNode[] oldValues = values;
+      keys = new int[2 * oldKeys.length];
+      values = new GraphNode[2 * oldValues.length];
+      size = 0;
+      for (int index = 0; index < oldKeys.length; index++) {
+        if (null != oldValues[index]) {
+          put(oldKeys[index], oldValues[index]);
+        }
+      }
+    }
+
+    private static int hash(int key) {
+      int result = key * 0x9E3779B9;
+      return result ^ (result >>> 16);
+    }
+  }
+}
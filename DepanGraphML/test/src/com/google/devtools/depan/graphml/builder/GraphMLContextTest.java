@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.graphml.builder;
+
+import static org.junit.Assert.*;
+
+import com.google.devtools.depan.graph.api.Relation;
+import com.google.devtools.depan.graph.basic.BasicRelation;
+import com.google.devtools.depan.model.GraphNode;
+import com.google.devtools.depan.model.builder.chain.DependencyRecorder;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class GraphMLContextTest {
+
+  private static final Relation DEPENDS =
+      new BasicRelation("depends", "dependent");
+
+  /** Label that the factory cannot convert to a node. */
+  private static final String BAD_LABEL = "bad";
+
+  private static final GraphFactory FACTORY = new GraphFactory() {
+
+    @Override
+    public String[] getAnalysisPlugins() {
+      return new String[0];
+    }
+
+    @Override
+    public GraphNode buildNode(String info) {
+      if (BAD_LABEL.equals(info)) {
+        throw new IllegalArgumentException(info);
+      }
+      return new MockNode(info);
+    }
+
+    @Override
+    public Relation buildRelation(String info) {
+      if (DEPENDS.getForwardName().equals(info)) {
+        return DEPENDS;
+      }
+      return null;
+    }
+  };
+
+  private DependencyRecorder recorder;
+
+  private GraphMLContext context;
+
+  @Before
+  public void setUp() {
+    recorder = new DependencyRecorder();
+    context = new GraphMLContext(recorder, FACTORY);
+  }
+
+  @Test
+  public void testIsolatedNodes() {
+    context.addGraphMLNode("n0", "alpha");
+    context.addGraphMLNode("n1", "bravo");
+    context.addRelation("n0", "n0", "depends");
+
+    // Nodes are emitted when they are defined, with or without edges.
+    assertEquals(3, recorder.size());
+    assertNode(0, "alpha");
+    assertNode(1, "bravo");
+    assertDep(2, "alpha", "alpha");
+  }
+
+  @Test
+  public void testEdges() {
+    context.addGraphMLNode("n0", "alpha");
+    context.addGraphMLNode("n12345", "bravo");
+    context.addGraphMLNode("node", "charlie");
+    context.addRelation("n0", "n12345", "depends");
+    context.addRelation("n12345", "node", "depends");
+
+    assertEquals(5, recorder.size());
+    assertDep(3, "alpha", "bravo");
+    assertDep(4, "bravo", "charlie");
+  }
+
+  @Test
+  public void testUnknownEndpoints() {
+    context.addGraphMLNode("n0", "alpha");
+    context.addGraphMLNode("n1", "bravo");
+    context.addRelation("n0", "n2", "depends");
+    context.addRelation("n2", "n1", "depends");
+    context.addRelation("n0", "n01", "depends");
+    context.addRelation(null, "n1", "depends");
+    context.addRelation("n0", "", "depends");
+    context.addRelation("n0", "n1", "unknown");
+
+    // Only the nodes are emitted.
+    assertEquals(2, recorder.size());
+
+    context.addRelation("n0", "n1", "depends");
+    assertEquals(3, recorder.size());
+    assertDep(2, "alpha", "bravo");
+  }
+
+  @Test
+  public void testBadNode() {
+    context.addGraphMLNode("n0", "alpha");
+    context.addGraphMLNode("n1", BAD_LABEL);
+    context.addRelation("n0", "n1", "depends");
+
+    assertEquals(1, recorder.size());
+    assertNode(0, "alpha");
+  }
+
+  private void assertNode(int index, String id) {
+    assertEquals(id, recorder.getParent(index).getId());
+    assertNull(recorder.getChild(index));
+    assertNull(recorder.getRelation(index));
+  }
+
+  private void assertDep(int index, String headId, String tailId) {
+    assertEquals(headId, recorder.getParent(index).getId());
+    assertEquals(tailId, recorder.getChild(index).getId());
+    assertSame(DEPENDS, recorder.getRelation(index));
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.graphml.builder;
+
+import static org.junit.Assert.*;
+
+import com.google.devtools.depan.model.GraphNode;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class GraphMLNodeIndexTest {
+
+  @Test
+  public void testNegativeIds() {
+    assertDistinct(ImmutableList.of("5", "-5", "n5", "n-5", "--5"));
+  }
+
+  @Test
+  public void testLeadingZeros() {
+    assertDistinct(ImmutableList.of(
+        "n0", "n00", "n7", "n07", "n007", "0", "00", "007"));
+  }
+
+  @Test
+  public void testOverflowIds() {
+    // Each of the larger ids has a low 32 bits of 7.
+    assertDistinct(ImmutableList.of("n7", "n2147483647", "n2147483648",
+        "n4294967303", "n99999999999", "-2147483648", "-2147483647"));
+  }
+
+  @Test
+  public void testMixedPrefixes() {
+    GraphMLNodeIndex index = assertDistinct(ImmutableList.of(
+        "1", "a1", "b1", "node1", "node", "a", "x:y:1", ""));
+    assertNull(index.get("c1"));
+    assertNull(index.get("b2"));
+    assertNull(index.get("nod"));
+  }
+
+  @Test
+  public void testReplace() {
+    GraphMLNodeIndex index = new GraphMLNodeIndex();
+    GraphNode first = new MockNode("first");
+    GraphNode second = new MockNode("second");
+    index.put("n1", first);
+    index.put("key", first);
+    index.put("n1", second);
+    index.put("key", second);
+    assertSame(second, index.get("n1"));
+    assertSame(second, index.get("key"));
+  }
+
+  @Test
+  public void testTableGrowth() {
+    GraphMLNodeIndex index = new GraphMLNodeIndex();
+    Map<String, GraphNode> expected = Maps.newHashMap();
+    Random random = new Random(1);
+    for (int count = 0; count < 10000; count++) {
+      // Sequential ids, spread ids, and hash code ids.
+      addNode(index, expected, "n" + count);
+      addNode(index, expected, "s" + (count << 16));
+      addNode(index, expected, Integer.toString(random.nextInt()));
+    }
+
+    for (Map.Entry<String, GraphNode> entry : expected.entrySet()) {
+      assertSame(entry.getKey(), entry.getValue(), index.get(entry.getKey()));
+    }
+    assertNull(index.get("n10000"));
+    assertNull(index.get("s-1"));
+  }
+
+  private static void addNode(GraphMLNodeIndex index,
+      Map<String, GraphNode> expected, String id) {
+    GraphNode node = new MockNode(id);
+    index.put(id, node);
+    expected.put(id, node);
+  }
+
+  /**
+   * Index a node for each id, and check that each id finds its own node.
+   */
+  private static GraphMLNodeIndex assertDistinct(List<String> ids) {
+    GraphMLNodeIndex result = new GraphMLNodeIndex();
+    for (String id : ids) {
+      assertNull(id, result.get(id));
+      result.put(id, new MockNode(id));
+    }
+    for (String id : ids) {
+      assertEquals(id, id, result.get(id).getId());
+    }
+    return result;
+  }
+}
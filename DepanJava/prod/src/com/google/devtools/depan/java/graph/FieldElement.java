@@ -41,6 +41,11 @@ public class FieldElement extends JavaElement {
    */
   private final TypeElement containerClass;
 
+  /**
+   * Cached hash code, computed on first use.
+   */
+  private transient int hash;
+
   /**
    * Create a new {@link FieldElement}
    * @param name name of the variable
@@ -61,11 +66,16 @@ public class FieldElement extends JavaElement {
    */
   @Override
   public int hashCode() {
-    int hash = 1;
-    hash = hash * 31 + (null == name ? 0 : name.hashCode());
-    hash = hash * 31 + (null == type ? 0 : type.hashCode());
-    hash = hash * 31 + (null == containerClass ? 0 : containerClass.hashCode());
-    return hash;
+    int result = hash;
+    if (0 == result) {
+      result = 1;
+      result = result * 31 + (null == name ? 0 : name.hashCode());
+      result = result * 31 + (null == type ? 0 : type.hashCode());
+      result = result * 31
+          + (null == containerClass ? 0 : containerClass.hashCode());
+      hash = result;
+    }
+    return result;
   }
   
   /**
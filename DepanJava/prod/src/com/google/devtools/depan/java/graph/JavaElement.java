@@ -17,6 +17,7 @@
 package com.google.devtools.depan.java.graph;
 
 import com.google.devtools.depan.model.GraphNode;
+import com.google.devtools.depan.model.NodeIds;
 
 
 /**
@@ -41,11 +42,22 @@ public abstract class JavaElement extends GraphNode {
 
   public static final String JAVA_ID_PREFIX = "java";
 
+  /**
+   * Id computed on first use, and shared through {@link NodeIds}.
+   * Transient, so it is never persisted.
+   */
+  private transient String nodeId;
+
   public abstract String getJavaId();
 
   @Override
   public String getId() {
-    return JAVA_ID_PREFIX + ":" + getJavaId();
+    String result = nodeId;
+    if (null == result) {
+      result = NodeIds.intern(JAVA_ID_PREFIX + ":" + getJavaId());
+      nodeId = result;
+    }
+    return result;
   }
 
   /**
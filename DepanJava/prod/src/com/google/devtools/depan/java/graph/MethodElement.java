@@ -41,6 +41,11 @@ public class MethodElement extends JavaElement {
    */
   private final TypeElement classElement;
 
+  /**
+   * Cached hash code, computed on first use.
+   */
+  private transient int hash;
+
   /**
    * Construct a new Method Element.
    * @param methodSignature this method signature (basically arguments types)
@@ -62,12 +67,18 @@ public class MethodElement extends JavaElement {
    */
   @Override
   public int hashCode() {
-    int hash = 1;
-    hash = hash * 31
-        + (null == methodSignature ? 0 : methodSignature.hashCode());
-    hash = hash * 31 + (null == methodName ? 0 : methodName.hashCode());
-    hash = hash * 31 + (null == classElement ? 0 : classElement.hashCode());
-    return hash;
+    int result = hash;
+    if (0 == result) {
+      result = 1;
+      result = result * 31
+          + (null == methodSignature ? 0 : methodSignature.hashCode());
+      result = result * 31
+          + (null == methodName ? 0 : methodName.hashCode());
+      result = result * 31
+          + (null == classElement ? 0 : classElement.hashCode());
+      hash = result;
+    }
+    return result;
   }
   
   /**
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.maven.builder;
+
+import com.google.devtools.depan.maven.MavenLogger;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Sets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+
+/**
+ * On-disk store of effective POMs, so repeated analyses of an unchanged
+ * reactor do not need to run Maven.
+ *
+ * Each entry is named by a hash of everything the effective POM is
+ * computed from: the Maven settings described by {@link MavenSettings},
+ * the POM file, and each parent POM that is found through
+ * {@code <relativePath>}.  Any change to these
+ * files produces a new key, so entries never need to be invalidated.
+ * Parents that Maven resolves from a repository are not part of the key,
+ * and are assumed to be unchanging released versions.
+ *
+ * Entries are written atomically, so several evaluation threads, or
+ * several analyses, can share one cache directory.
+ */
+public class EffectivePomCache {
+
+  /** Increment whenever the key computation changes. */
+  private static final String KEY_VERSION = "effpom-2";
+
+  private static final String ENTRY_SUFFIX = ".xml";
+
+  private static final String DEFAULT_RELATIVE_PATH =
+      "../" + PomTools.DEFAULT_POM;
+
+  /** Guard against cyclic or runaway parent declarations. */
+  static final int MAX_PARENTS = 32;
+
+  private final File cacheDir;
+
+  public EffectivePomCache(File cacheDir) {
+    this.cacheDir = cacheDir;
+  }
+
+  public File getCacheDir() {
+    return cacheDir;
+  }
+
+  /**
+   * Compute the cache key for the effective POM of {@code pomFile}.
+   *
+   * @param settings description of how Maven is run, such as the
+   *     executable and the effective POM command
+   */
+  public String buildKey(File pomFile, String settings) throws IOException {
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putString(KEY_VERSION, Charsets.UTF_8);
+    hasher.putString(settings, Charsets.UTF_8);
+
+    Set<File> visited = Sets.newHashSet();
+    File chainFile = pomFile.getCanonicalFile();
+    while ((null != chainFile) && (visited.size() < MAX_PARENTS)
+        && visited.add(chainFile)) {
+      byte[] contents = Files.readAllBytes(chainFile.toPath());
+      hasher.putString(chainFile.getPath(), Charsets.UTF_8);
+      hasher.putInt(contents.length);
+      hasher.putBytes(contents);
+      chainFile = findParentFile(chainFile);
+    }
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Provide the file with the cached effective POM for a key.
+   *
+   * @return {@code null} if there is no entry for the key
+   */
+  public File find(String key) {
+    File entryFile = getEntryFile(key);
+    if (!entryFile.isFile()) {
+      return null;
+    }
+    return entryFile;
+  }
+
+  /**
+   * Store a copy of the effective POM file for a key.  Failures are
+   * logged, since the analysis can continue without the cache.
+   */
+  public void save(String key, File effPomFile) {
+    File entryFile = getEntryFile(key);
+    File tempFile = null;
+    try {
+      cacheDir.mkdirs();
+      tempFile = File.createTempFile(key, ".tmp", cacheDir);
+      Files.copy(effPomFile.toPath(), tempFile.toPath(),
+          StandardCopyOption.REPLACE_EXISTING);
+      Files.move(tempFile.toPath(), entryFile.toPath(),
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException errIo) {
+      MavenLogger.LOG.warn(
+          "Unable to save effective POM entry {}", entryFile, errIo);
+    } finally {
+      // After a successful move, the temporary file no longer exists.
+      if ((null != tempFile) && tempFile.exists()) {
+        tempFile.delete();
+      }
+    }
+  }
+
+  private File getEntryFile(String key) {
+    return new File(cacheDir, key + ENTRY_SUFFIX);
+  }
+
+  /////////////////////////////////////
+  // Parent chain
+
+  /**
+   * Locate the parent POM that Maven would read from the file system.
+   *
+   * @return {@code null} if the POM has no parent, or the parent is
+   *     not available locally
+   */
+  static File findParentFile(File pomFile) {
+    String relativePath;
+    try {
+      relativePath = readRelativePath(pomFile);
+    } catch (IOException errRead) {
+      MavenLogger.LOG.warn(
+          "Unable to read parent of {}", pomFile.getPath(), errRead);
+      return null;
+    }
+    if ((null == relativePath) || relativePath.isEmpty()) {
+      return null;
+    }
+
+    File result = new File(pomFile.getParentFile(), relativePath);
+    if (result.isDirectory()) {
+      result = new File(result, PomTools.DEFAULT_POM);
+    }
+    if (!result.isFile()) {
+      return null;
+    }
+    try {
+      return result.getCanonicalFile();
+    } catch (IOException errIo) {
+      return null;
+    }
+  }
+
+  /**
+   * Provide the project's {@code parent/relativePath}, with Maven's
+   * default if the parent does not name one.
+   *
+   * @return {@code null} if the project has no parent
+   */
+  private static String readRelativePath(File pomFile) throws IOException {
+    ParentLoader parent = PomTools.readPom(pomFile).getParent();
+    if (null == parent) {
+      return null;
+    }
+    String result = parent.getRelativePath();
+    if (null == result) {
+      return DEFAULT_RELATIVE_PATH;
+    }
+    return result;
+  }
+}
@@ -118,6 +118,28 @@ public class LabelCapture {
     return cannonicalize(context, reference);
   }
 
+  /**
+   * Provide the {@code groupId:artifactId} of the captured label.  A label
+   * without its own {@code groupId} uses the one from {@code inherited},
+   * as a child project does with its parent's.
+   *
+   * @param inherited label with the default {@code groupId},
+   *     or {@code null} for no default
+   * @return {@code null} if the {@code groupId} or {@code artifactId}
+   *     is missing
+   */
+  public String getCoordinates(LabelCapture inherited) {
+    TextElementHandler group = groupId;
+    if ((null == group) && (null != inherited)) {
+      group = inherited.groupId;
+    }
+    if ((null == group) || (null == artifactId)) {
+      return null;
+    }
+    return ReactorPoms.buildCoordinates(
+        group.getText().trim(), getArtifactId().trim());
+  }
+
   private GraphNode cannonicalize(
       MavenContext context, ArtifactElement artifact) {
     GraphNode lookup = context.lookup(artifact);
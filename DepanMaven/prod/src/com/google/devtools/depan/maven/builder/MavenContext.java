@@ -20,16 +20,35 @@ import com.google.devtools.depan.graph.api.Relation;
 import com.google.devtools.depan.model.GraphNode;
 import com.google.devtools.depan.model.builder.chain.DependenciesListener;
 
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * The common shared context for the analysis of a Maven POM definition.
+ *
+ * Effective POMs for modules can be computed concurrently, each by its
+ * own Maven process, on a bounded pool of evaluation threads.  All graph
+ * nodes and dependencies are still delivered on the caller's thread.
+ * Call {@link #shutdown()} once the analysis is complete.
  * 
  * @author <a href="mailto:leeca@pnambic.com">Lee Carver</a>
  */
 public class MavenContext {
 
+  private static final ThreadFactory EVALUATOR_FACTORY =
+      new ThreadFactoryBuilder()
+          .setNameFormat("depan-mvn-eval-%d")
+          .setDaemon(true)
+          .build();
+
   private final DependenciesListener builder;
 
   private final File mavenDir;
@@ -40,13 +59,60 @@ public class MavenContext {
 
   private final String effPomCmd;
 
+  /** {@code null} when effective POMs are computed on the caller's thread. */
+  private final ExecutorService evaluators;
+
+  /** {@code null} when Maven is run for every effective POM. */
+  private final EffectivePomCache pomCache;
+
+  /** {@code null} unless reactor effective POMs have been loaded. */
+  private volatile ReactorPoms reactorPoms;
+
+  /** Computed on first use.  See {@link #getMavenSettings()}. */
+  private volatile String mavenSettings;
+
+  /**
+   * @param threadCount number of concurrent Maven processes.  Values less
+   *     than two compute each effective POM on the caller's thread.
+   * @param pomCache previously computed effective POMs, or {@code null}
+   *     to run Maven for every module
+   */
   public MavenContext(DependenciesListener builder, File mavenDir,
-      String javaHome, String mavenExe, String effPomCmd) {
+      String javaHome, String mavenExe, String effPomCmd, int threadCount,
+      EffectivePomCache pomCache) {
     this.builder = builder;
     this.mavenDir = mavenDir;
     this.javaHome = javaHome;
     this.mavenExe = mavenExe;
     this.effPomCmd = effPomCmd;
+    this.pomCache = pomCache;
+    if (threadCount > 1) {
+      evaluators = Executors.newFixedThreadPool(threadCount, EVALUATOR_FACTORY);
+    } else {
+      evaluators = null;
+    }
+  }
+
+  /**
+   * @param threadCount number of concurrent Maven processes.  Values less
+   *     than two compute each effective POM on the caller's thread.
+   */
+  public MavenContext(DependenciesListener builder, File mavenDir,
+      String javaHome, String mavenExe, String effPomCmd, int threadCount) {
+    this(builder, mavenDir, javaHome, mavenExe, effPomCmd, threadCount, null);
+  }
+
+  public MavenContext(DependenciesListener builder, File mavenDir,
+      String javaHome, String mavenExe, String effPomCmd) {
+    this(builder, mavenDir, javaHome, mavenExe, effPomCmd, 1);
+  }
+
+  /**
+   * Provide the number of concurrent Maven processes for the current
+   * machine.
+   */
+  public static int getDefaultThreadCount() {
+    return Runtime.getRuntime().availableProcessors();
   }
 
   public File getMavenDir() {
@@ -73,4 +139,85 @@ public class MavenContext {
   public MavenExecutor build(File moduleFile) throws IOException {
     return MavenExecutor.build(moduleFile, javaHome, mavenExe, effPomCmd);
   }
+
+  /**
+   * Provide the store of previously computed effective POMs.
+   *
+   * @return {@code null} if effective POMs are not cached
+   */
+  public EffectivePomCache getPomCache() {
+    return pomCache;
+  }
+
+  /**
+   * Provide the effective POMs from a single invocation for the whole
+   * reactor.
+   *
+   * @return {@code null} if each module's effective POM is computed
+   *     on its own
+   */
+  public ReactorPoms getReactorPoms() {
+    return reactorPoms;
+  }
+
+  /**
+   * Use the supplied reactor effective POMs for all modules found in
+   * the reactor.
+   */
+  public void setReactorPoms(ReactorPoms reactorPoms) {
+    this.reactorPoms = reactorPoms;
+  }
+
+  /**
+   * Describe how Maven is run, for effective POM cache keys.  The
+   * description includes the contents of the settings files, so it is
+   * computed once for the analysis.  See {@link MavenSettings}.
+   */
+  public String getMavenSettings() throws IOException {
+    String result = mavenSettings;
+    if (null == result) {
+      result = MavenSettings.describe(
+          mavenExe, effPomCmd, javaHome, mavenDir);
+      mavenSettings = result;
+    }
+    return result;
+  }
+
+  /**
+   * Start capturing the effective POM for the supplied
+   * {@code moduleFile}.  Without evaluation threads, the effective POM
+   * is captured before this method returns.
+   *
+   * Evaluation threads only parse the effective POMs.  The captured
+   * projects deliver their relationships when the caller invokes
+   * {@link ProjectLoader#addDependencies()}.
+   */
+  public Future<ProjectLoader> submitEffectivePom(final File moduleFile) {
+    Callable<ProjectLoader> evaluation = new Callable<ProjectLoader>() {
+
+      @Override
+      public ProjectLoader call() throws Exception {
+        return PomTools.loadEffectivePom(moduleFile, MavenContext.this);
+      }
+    };
+
+    if (null != evaluators) {
+      return evaluators.submit(evaluation);
+    }
+    try {
+      return Futures.immediateFuture(evaluation.call());
+    } catch (Exception err) {
+      return Futures.immediateFailedFuture(err);
+    }
+  }
+
+  /**
+   * Release the evaluation threads.  Any evaluations still in progress
+   * are abandoned.
+   */
+  public void shutdown() {
+    if (null != evaluators) {
+      evaluators.shutdownNow();
+    }
+  }
 }
@@ -18,11 +18,15 @@ package com.google.devtools.depan.maven.builder;
 
 import com.google.devtools.depan.pushxml.PushDownXmlHandler.DocumentHandler;
 import com.google.devtools.depan.pushxml.PushDownXmlHandler.ElementHandler;
-import com.google.devtools.depan.model.GraphNode;
+
+import com.google.common.collect.Lists;
+
+import java.util.List;
 
 /**
  * Interpret the Maven project element, the document level element for
- * POM definitions.
+ * POM definitions.  The projects element of a multi-module effective POM
+ * is accepted too.
  * 
  * @author <a href="mailto:leeca@pnambic.com">Lee Carver</a>
  */
@@ -30,7 +34,7 @@ public class MavenDocumentHandler extends DocumentHandler {
 
   private final MavenContext context;
 
-  private ProjectLoader project;
+  private final List<ProjectLoader> projects = Lists.newArrayList();
 
   public MavenDocumentHandler(MavenContext context) {
     this.context = context;
@@ -39,10 +43,15 @@ public class MavenDocumentHandler extends DocumentHandler {
   @Override
   protected ElementHandler newDocumentElement(String name) {
     if (ProjectLoader.PROJECT.equals(name)) {
-      project = new ProjectLoader(context);
+      ProjectLoader project = new ProjectLoader(context);
+      projects.add(project);
       return project;
     }
 
+    if (ProjectsLoader.PROJECTS.equals(name)) {
+      return new ProjectsLoader(context, projects);
+    }
+
     return null;
   }
 
@@ -50,7 +59,10 @@ public class MavenDocumentHandler extends DocumentHandler {
     return context;
   }
 
-  public GraphNode getProjectNode() {
-    return project.getProjectNode();
+  /**
+   * Provide the captured projects, in document order.
+   */
+  public List<ProjectLoader> getProjects() {
+    return projects;
   }
 }
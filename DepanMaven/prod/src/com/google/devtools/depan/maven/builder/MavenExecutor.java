@@ -21,9 +21,6 @@ import com.google.devtools.depan.platform.process.ProcessExecutor;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.Charset;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.Map;
 
 /**
@@ -38,6 +35,12 @@ public class MavenExecutor extends ProcessExecutor {
 
   private static final String POM_XML = "pom.xml";
 
+  /**
+   * Console output is only reported for failures, so longer output is
+   * kept in a temporary file.
+   */
+  private static final int CONSOLE_MEMORY_LIMIT = 256 * 1024;
+
   private final String projectPom;
 
   private final File projectDir;
@@ -52,7 +55,7 @@ public class MavenExecutor extends ProcessExecutor {
   private final String effPomCmd;
 
   // Intermediate data for analysis
-  private String effPomText;
+  private File effPomFile;
 
   public MavenExecutor(
       String projectPom, File projectDir, String projectLabel,
@@ -63,6 +66,7 @@ public class MavenExecutor extends ProcessExecutor {
     this.javaHome = javaHome;
     this.mavenExe = mavenExe;
     this.effPomCmd = effPomCmd;
+    setMemoryLimit(CONSOLE_MEMORY_LIMIT);
   }
 
   public static MavenExecutor build(
@@ -99,10 +103,14 @@ public class MavenExecutor extends ProcessExecutor {
    * After this method returns, various results from the execution can
    * be retrieved.  The available results include the effective pom and
    * the exit code from the process execution.
+   *
+   * The effective POM is left in a temporary file, so it can be parsed
+   * without reading it all into memory.  Call {@link #deleteEffPom()}
+   * once it is no longer needed.
    */
   public void evalEffectivePom(MavenContext context)
       throws IOException, InterruptedException {
-    File effPomFile = File.createTempFile("depan-effpom", ".xml");
+    effPomFile = File.createTempFile("depan-effpom", ".xml");
 
     ProcessBuilder builder = new ProcessBuilder(
         mavenExe, "-f", projectPom, effPomCmd,
@@ -111,17 +119,41 @@ public class MavenExecutor extends ProcessExecutor {
     Map<String, String> env = builder.environment();
     env.put(JAVA_HOME, javaHome);
 
-    execProcess(builder);
+    boolean success = false;
+    try {
+      execProcess(builder);
+      success = true;
+    } finally {
+      if (!success) {
+        deleteEffPom();
+      }
+    }
+  }
 
-    effPomText = loadFile(effPomFile);
+  /**
+   * Provide the file with the effective POM.  Maven writes the effective
+   * POM as UTF-8, regardless of the platform's encoding.
+   *
+   * @return {@code null} if Maven has not been run
+   */
+  public File getEffPomFile() {
+    return effPomFile;
   }
 
-  private String loadFile(File source) throws IOException {
-    byte[] encoded = Files.readAllBytes(Paths.get(source.toURI()));
-    return new String(encoded, Charset.defaultCharset());
+  /**
+   * Indicate whether Maven wrote any effective POM.
+   */
+  public boolean hasEffPom() {
+    return (null != effPomFile) && (effPomFile.length() > 0);
   }
 
-  public String getEffPom() {
-    return effPomText;
+  /**
+   * Release the temporary effective POM file.
+   */
+  public void deleteEffPom() {
+    if (null != effPomFile) {
+      effPomFile.delete();
+      effPomFile = null;
+    }
   }
 }
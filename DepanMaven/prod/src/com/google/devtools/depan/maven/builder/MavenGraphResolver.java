@@ -28,49 +28,56 @@ import com.google.devtools.depan.model.builder.chain.DependenciesListener;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
-import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Resolve {@link ArtifactElement} references to known {@link ArtifactElement}
  * definitions.
+ *
+ * Artifacts are indexed by their base label and classifier as they are
+ * added, so each artifact is visited once no matter how many modules
+ * refer to it.  A reference that omits the packaging resolves to the
+ * first indexed artifact with the same base label and classifier that
+ * declares a packaging.  Without one, it resolves to the last such
+ * artifact.
  * 
  * @author <a href="mailto:leeca@pnambic.com">Lee Carver</a>
  */
 public class MavenGraphResolver {
 
+  /** Artifacts by base label, then by classifier. */
+  private final Map<String, Map<String, Resolution>> index =
+      Maps.newHashMap();
+
+  private final List<Resolution> resolutions = Lists.newArrayList();
+
   private final Map<GraphNode, GraphNode> updateMap =
       Maps.newHashMap();
 
+  /**
+   * Add any {@link ArtifactElement} to the index.  Other nodes are
+   * ignored.
+   */
+  private void addNode(GraphNode node) {
+    if (node instanceof ArtifactElement) {
+      ArtifactElement artifact = (ArtifactElement) node;
+      getResolution(artifact).add(artifact);
+    }
+  }
+
   public GraphModel resolveReferences(GraphModel analysisGraph) {
-    Collection<GraphNode> nodes = analysisGraph.getNodes();
-
-    Map<String, List<ArtifactElement>> baseMap =
-        Maps.newHashMapWithExpectedSize(nodes.size());
-
-    // Build map of known artifact base names to all matching
-    // ArtifactElements.
-    for (GraphNode node : nodes) {
-      if (node instanceof ArtifactElement) {
-        ArtifactElement artifact = (ArtifactElement) node;
-        String baseLabel = artifact.getBaseLabel();
-        List<ArtifactElement> known = baseMap.get(baseLabel);
-        if (null == known) {
-          known = Lists.newLinkedList();
-          baseMap.put(baseLabel, known);
-        }
-        known.add(artifact);
-      }
+    for (GraphNode node : analysisGraph.getNodes()) {
+      addNode(node);
     }
 
-    // Use the sets of ArtifactElements from the baseMap to build
-    // the update map for resolvable ArtifactElements.
-    for (List<ArtifactElement> bases : baseMap.values()) {
-      if (bases.size() < 2) {
-        continue;
-      }
-      buildUpdateMap(bases);
+    // Build the update map for resolvable ArtifactElements.
+    for (Resolution resolution : resolutions) {
+      resolution.buildUpdateMap(updateMap);
+    }
+
+    if (updateMap.isEmpty()) {
+      return analysisGraph;
     }
 
     // Use the constructed update map to build a graph with all
@@ -79,48 +86,56 @@ public class MavenGraphResolver {
     return rewriteReferences(analysisGraph);
   }
 
-  private void buildUpdateMap(List<ArtifactElement> bases) {
-    for (ArtifactElement artifact : bases) {
-      ArtifactElement result = artifact;
-      for (ArtifactElement mapTo : bases) {
-        result = resolveRef(result, mapTo);
-      }
-      if (!result.equals(artifact)) {
-        updateMap.put(artifact, result);
-      }
-    }
-  }
-
-  private ArtifactElement resolveRef(
-      ArtifactElement ref, ArtifactElement def) {
-    if (ref.equals(def)) {
-      return ref;
+  private Resolution getResolution(ArtifactElement artifact) {
+    String baseLabel = artifact.getBaseLabel();
+    Map<String, Resolution> classified = index.get(baseLabel);
+    if (null == classified) {
+      classified = Maps.newHashMapWithExpectedSize(1);
+      index.put(baseLabel, classified);
     }
 
-    if (!matchClassifier(ref, def)) {
-      return ref;
+    // Classifiers match if they are both null or they are both
+    // the same text value.
+    String classifier = artifact.getClassifier();
+    Resolution result = classified.get(classifier);
+    if (null == result) {
+      result = new Resolution();
+      classified.put(classifier, result);
+      resolutions.add(result);
     }
-
-    // If a reference omits the packaging, resolve to the defining
-    // ArtifactElement.
-    if (null == ref.getPackaging()) {
-      return def;
-    }
-    return ref;
+    return result;
   }
 
   /**
-   * Classifiers match if they are both {@code null} or they are both
-   * the same text value.
+   * All indexed artifacts with the same base label and classifier.
    */
-  private boolean matchClassifier(
-      ArtifactElement ref, ArtifactElement def) {
-    String refClass = ref.getClassifier();
-    String defClass = def.getClassifier();
-    if (null == refClass) {
-      return null == defClass;
+  private static class Resolution {
+
+    /** First artifact that declares its packaging. */
+    private ArtifactElement definition;
+
+    private ArtifactElement last;
+
+    /** Artifacts that omit the packaging. */
+    private final List<ArtifactElement> references = Lists.newArrayList();
+
+    public void add(ArtifactElement artifact) {
+      if (null == artifact.getPackaging()) {
+        references.add(artifact);
+      } else if (null == definition) {
+        definition = artifact;
+      }
+      last = artifact;
+    }
+
+    public void buildUpdateMap(Map<GraphNode, GraphNode> updateMap) {
+      ArtifactElement target = (null != definition) ? definition : last;
+      for (ArtifactElement artifact : references) {
+        if (!artifact.equals(target)) {
+          updateMap.put(artifact, target);
+        }
+      }
     }
-    return refClass.equals(defClass);
   }
 
   private GraphModel rewriteReferences(GraphModel analysisGraph) {
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.maven.builder;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.hash.Hashing;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Describe everything outside of the POM files that can change an
+ * effective POM, for {@link EffectivePomCache} keys.
+ *
+ * Besides the executable, the effective POM command, and
+ * {@code JAVA_HOME}, this covers the environment options that Maven reads,
+ * and the contents of the user and global {@code settings.xml} and the
+ * project's {@code .mvn/maven.config}.  Settings files named by
+ * {@code -s} or {@code -gs} options are included too.  Active profiles,
+ * either from {@code -P} options or from a settings file's
+ * {@code <activeProfiles>}, are covered by the contents of the options
+ * and files that declare them.
+ */
+public class MavenSettings {
+
+  /** Environment variables whose values Maven treats as options. */
+  private static final List<String> OPTION_VARS =
+      ImmutableList.of("MAVEN_OPTS", "MAVEN_ARGS");
+
+  /** Environment variables that locate the Maven installation. */
+  private static final List<String> HOME_VARS =
+      ImmutableList.of("MAVEN_HOME", "M2_HOME");
+
+  private static final String SETTINGS_XML = "settings.xml";
+
+  private static final String PROJECT_CONFIG_DIR = ".mvn";
+
+  private static final String MAVEN_CONFIG = "maven.config";
+
+  private static final List<String> SETTINGS_OPTIONS = ImmutableList.of(
+      "-s", "--settings", "-gs", "--global-settings");
+
+  private static final Splitter OPTION_SPLITTER =
+      Splitter.onPattern("\\s+").omitEmptyStrings();
+
+  private MavenSettings() {
+    // Prevent instantiation.
+  }
+
+  /**
+   * Describe the settings for Maven runs from this process's environment
+   * and home directory.
+   *
+   * @param mavenDir directory of the analyzed project
+   */
+  public static String describe(String mavenExe, String effPomCmd,
+      String javaHome, File mavenDir) throws IOException {
+    return describe(mavenExe, effPomCmd, javaHome, mavenDir,
+        System.getenv(), new File(System.getProperty("user.home")));
+  }
+
+  /**
+   * Describe the settings for Maven runs with the supplied environment
+   * and home directory.
+   */
+  public static String describe(String mavenExe, String effPomCmd,
+      String javaHome, File mavenDir, Map<String, String> env,
+      File userHome) throws IOException {
+    StringBuilder result = new StringBuilder();
+    result.append("mvn ").append(mavenExe);
+    result.append("\ncmd ").append(effPomCmd);
+    result.append("\njava ").append(javaHome);
+
+    List<String> options = Lists.newArrayList();
+    for (String name : OPTION_VARS) {
+      String value = Strings.nullToEmpty(env.get(name));
+      result.append("\nenv ").append(name).append(' ').append(value);
+      options.addAll(OPTION_SPLITTER.splitToList(value));
+    }
+
+    File configFile = findProjectConfig(mavenDir);
+    if (null != configFile) {
+      String config = new String(
+          Files.readAllBytes(configFile.toPath()), Charsets.UTF_8);
+      options.addAll(OPTION_SPLITTER.splitToList(config));
+    }
+
+    List<File> files = Lists.newArrayList();
+    files.add(new File(new File(userHome, ".m2"), SETTINGS_XML));
+    File mavenHome = findMavenHome(mavenExe, env);
+    if (null != mavenHome) {
+      files.add(new File(new File(mavenHome, "conf"), SETTINGS_XML));
+    }
+    if (null != configFile) {
+      files.add(configFile);
+    }
+    files.addAll(findOptionFiles(options, mavenDir));
+
+    for (File file : files) {
+      result.append("\nfile ").append(describeFile(file));
+    }
+    return result.toString();
+  }
+
+  /**
+   * Locate the {@code .mvn/maven.config} that Maven would use for the
+   * project, from its directory or the nearest ancestor with a
+   * {@code .mvn} directory.
+   *
+   * @return {@code null} if there is no such file
+   */
+  private static File findProjectConfig(File mavenDir) throws IOException {
+    File dir = mavenDir.getCanonicalFile();
+    while (null != dir) {
+      File configDir = new File(dir, PROJECT_CONFIG_DIR);
+      if (configDir.isDirectory()) {
+        File result = new File(configDir, MAVEN_CONFIG);
+        if (result.isFile()) {
+          return result;
+        }
+        return null;
+      }
+      dir = dir.getParentFile();
+    }
+    return null;
+  }
+
+  /**
+   * Locate the Maven installation, from the executable's path, as found
+   * on the {@code PATH} if necessary, or from the environment.
+   *
+   * @return {@code null} if the installation cannot be found
+   */
+  private static File findMavenHome(String mavenExe, Map<String, String> env)
+      throws IOException {
+    File exeFile = findExecutable(mavenExe, env);
+    if (null != exeFile) {
+      File binDir = exeFile.getCanonicalFile().getParentFile();
+      if (null != binDir) {
+        return binDir.getParentFile();
+      }
+    }
+    for (String name : HOME_VARS) {
+      String value = env.get(name);
+      if (!Strings.isNullOrEmpty(value)) {
+        return new File(value);
+      }
+    }
+    return null;
+  }
+
+  private static File findExecutable(
+      String mavenExe, Map<String, String> env) {
+    File result = new File(mavenExe);
+    if (result.isFile()) {
+      return result;
+    }
+    String path = env.get("PATH");
+    if ((null == path) || (mavenExe.indexOf(File.separatorChar) >= 0)) {
+      return null;
+    }
+    for (String dir : Splitter.on(File.pathSeparatorChar).split(path)) {
+      result = new File(dir, mavenExe);
+      if (result.isFile()) {
+        return result;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Provide the settings files named by {@code -s} and {@code -gs}
+   * options, in either their separate or {@code --option=file} forms.
+   */
+  private static List<File> findOptionFiles(
+      List<String> options, File mavenDir) {
+    List<File> result = Lists.newArrayList();
+    for (int index = 0; index < options.size(); index++) {
+      String option = options.get(index);
+      String path = null;
+      if (SETTINGS_OPTIONS.contains(option)
+          && (index + 1 < options.size())) {
+        path = options.get(++index);
+      } else if (option.startsWith("--settings=")
+          || option.startsWith("--global-settings=")) {
+        path = option.substring(option.indexOf('=') + 1);
+      }
+      if (null != path) {
+        File file = new File(path);
+        if (!file.isAbsolute()) {
+          file = new File(mavenDir, path);
+        }
+        result.add(file);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Describe a file by its path and a hash of its contents.
+   */
+  private static String describeFile(File file) throws IOException {
+    if (!file.isFile()) {
+      return file.getPath() + " missing";
+    }
+    byte[] contents = Files.readAllBytes(file.toPath());
+    return file.getPath() + " " + Hashing.sha256().hashBytes(contents);
+  }
+}
@@ -25,10 +25,9 @@ import com.google.devtools.depan.model.GraphNode;
 
 import com.google.common.collect.Lists;
 
-import org.xml.sax.InputSource;
-
-import java.io.File;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * Interpret Maven modules elements, and create appropriate DepAn
@@ -64,12 +63,26 @@ public class ModulesLoader extends NestingElementHandler {
 
   /**
    * Add supplied master node to every aggregated project.
+   *
+   * The effective POMs for all the modules are requested up front, so they
+   * can be computed concurrently.  The modules are still loaded in their
+   * declared order, so the graph does not depend on evaluation timing.
    */
   public void addMaster(MavenContext context, GraphNode master) {
+    List<Future<ProjectLoader>> effPoms =
+        Lists.newArrayListWithExpectedSize(modules.size());
     for (TextElementHandler module : modules) {
-      String modulePath = module.getText();
+      effPoms.add(context.submitEffectivePom(
+          context.getModuleFile(module.getText())));
+    }
+
+    for (int index = 0; index < modules.size(); index++) {
+      String modulePath = modules.get(index).getText();
       try {
-        processModule(context, master, modulePath);
+        processModule(context, master, modulePath, effPoms.get(index));
+      } catch (ExecutionException errExec) {
+        MavenLogger.LOG.error("Unable to process dependent module {}",
+            modulePath, errExec.getCause());
       } catch (Exception err) {
         MavenLogger.LOG.error(
             "Unable to process dependent module {}", modulePath, err);
@@ -77,15 +90,16 @@ public class ModulesLoader extends NestingElementHandler {
     }
   }
 
-  private void processModule(
-      MavenContext context, GraphNode master, String modulePath)
-      throws Exception {
-    File docFile = context.getModuleFile(modulePath);
-    InputSource docSource = PomTools.loadEffectivePom(docFile, context);
+  private void processModule(MavenContext context, GraphNode master,
+      String modulePath, Future<ProjectLoader> effPom) throws Exception {
+    ProjectLoader project = effPom.get();
+    if (null == project) {
+      MavenLogger.LOG.warn("No effective POM for module {}", modulePath);
+      return;
+    }
 
-    MavenDocumentHandler pomLoader = new MavenDocumentHandler(context);
-    PomTools.loadModule(pomLoader, docSource);
+    project.addDependencies();
     context.newDep(
-        master, pomLoader.getProjectNode(), MavenRelation.MODULE_DEPEND);
+        master, project.getProjectNode(), MavenRelation.MODULE_DEPEND);
   }
 }
@@ -34,6 +34,8 @@ public class ParentLoader extends NestingElementHandler {
 
   private LabelCapture label = new LabelCapture();
 
+  private TextElementHandler relativePath;
+
   @Override
   public boolean isFor(String name) {
     return PARENT.equals(name);
@@ -51,7 +53,8 @@ public class ParentLoader extends NestingElementHandler {
     }
 
     if (RELATIVE_PATH.equals(name)) {
-      return new TextElementHandler(name);
+      relativePath = new TextElementHandler(name);
+      return relativePath;
     }
     return super.newChild(name);
   }
@@ -59,4 +62,26 @@ public class ParentLoader extends NestingElementHandler {
   public GraphNode getGraphNode(MavenContext context) {
     return label.buildReferenceNode(context);
   }
+
+  /**
+   * Provide the parent's coordinates, which are the defaults for some of
+   * the child project's coordinates.
+   */
+  public LabelCapture getLabel() {
+    return label;
+  }
+
+  /**
+   * Provide the parent's {@code relativePath}, which is empty for an
+   * empty element.
+   *
+   * @return {@code null} if the parent does not have a
+   *     {@code relativePath} element
+   */
+  public String getRelativePath() {
+    if (null != relativePath) {
+      return relativePath.getText().trim();
+    }
+    return null;
+  }
 }
@@ -18,11 +18,14 @@ package com.google.devtools.depan.maven.builder;
 
 /**
  * Define the set of processing options for the main POM file.
+ *
+ * With {@link #REACTOR}, a single Maven invocation provides the effective
+ * POMs for the main POM and all of its modules.
  * 
  * @author <a href="mailto:leeca@pnambic.com">Lee Carver</a>
  */
 public enum PomProcessing {
-  NONE("as is"), EFFECTIVE("compute");
+  NONE("as is"), EFFECTIVE("compute"), REACTOR("reactor");
 
   public final String label;
   
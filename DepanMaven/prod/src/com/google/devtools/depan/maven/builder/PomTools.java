@@ -20,17 +20,17 @@ import com.google.devtools.depan.maven.MavenLogger;
 import com.google.devtools.depan.pushxml.PushDownXmlHandler;
 import com.google.devtools.depan.pushxml.PushDownXmlHandler.DocumentHandler;
 
-import com.google.common.base.Strings;
-
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
-import java.io.StringReader;
+import java.util.List;
 
 import javax.xml.parsers.ParserConfigurationException;
 
@@ -41,6 +41,9 @@ public class PomTools {
 
   public static final String DEFAULT_POM = "pom.xml";
 
+  /** Number of characters of Maven's console output to log. */
+  private static final int LOG_OUTPUT_LIMIT = 16 * 1024;
+
   private PomTools() {
     // Prevent instantiation.
   }
@@ -77,40 +80,222 @@ public class PomTools {
     loader.parseDocument(docSource);
   }
 
-  public static InputSource loadEffectivePom(
+  /**
+   * Capture the project of a single POM file, such as a module's own
+   * {@code pom.xml}.  The result has no analysis context, so it is only
+   * used for the project's own elements, such as its coordinates and
+   * parent.  It must not add any dependencies.
+   *
+   * @throws IOException if the file is not a readable POM
+   */
+  public static ProjectLoader readPom(File pomFile) throws IOException {
+    List<ProjectLoader> projects;
+    try {
+      projects = readProjects(pomFile, null);
+    } catch (ParserConfigurationException | SAXException
+        | IllegalArgumentException errXml) {
+      throw new IOException("Unable to read POM " + pomFile.getPath(), errXml);
+    }
+    if (1 != projects.size()) {
+      throw new IOException("Expected one project in POM " + pomFile.getPath()
+          + ", found " + projects.size());
+    }
+    return projects.get(0);
+  }
+
+  /**
+   * Capture the projects from the supplied POM document.  The document is
+   * parsed as it is read, so only the captured content is kept in memory.
+   *
+   * @return captured projects in document order, with several entries for
+   *     the effective POMs of a multi-module build
+   */
+  public static List<ProjectLoader> readProjects(
+      File docFile, MavenContext context)
+      throws ParserConfigurationException, SAXException, IOException {
+    InputStream stream = new BufferedInputStream(new FileInputStream(docFile));
+    try {
+      InputSource docSource = new InputSource(stream);
+      docSource.setPublicId(docFile.getPath());
+      MavenDocumentHandler pomLoader = new MavenDocumentHandler(context);
+      loadModule(pomLoader, docSource);
+      return pomLoader.getProjects();
+    } finally {
+      stream.close();
+    }
+  }
+
+  /**
+   * Capture the effective POM for the supplied {@code moduleFile}.
+   * Modules found in the context's reactor effective POMs, or in its
+   * effective POM cache, do not need to run Maven.
+   *
+   * @return {@code null} if no effective POM is available for the module
+   */
+  public static ProjectLoader loadEffectivePom(
       File moduleFile, MavenContext context)
+      throws IOException, InterruptedException,
+          ParserConfigurationException, SAXException {
+    ReactorPoms reactor = context.getReactorPoms();
+    if (null != reactor) {
+      ProjectLoader project = reactor.findModule(moduleFile);
+      if (null != project) {
+        return project;
+      }
+      MavenLogger.LOG.info(
+          "Computing effective POM for {} outside of reactor",
+          moduleFile.getPath());
+    }
+
+    EffectivePomCache cache = context.getPomCache();
+    String cacheKey = null;
+    if (null != cache) {
+      cacheKey = cache.buildKey(moduleFile, context.getMavenSettings());
+      File cached = cache.find(cacheKey);
+      if (null != cached) {
+        return findModuleProject(
+            moduleFile, readProjects(cached, context));
+      }
+    }
+
+    MavenExecutor exec = runMaven(moduleFile, context);
+    try {
+      if (!exec.hasEffPom()) {
+        return null;
+      }
+
+      List<ProjectLoader> projects =
+          readProjects(exec.getEffPomFile(), context);
+
+      // Only successful evaluations are worth keeping.
+      if ((null != cache) && (0 == exec.getExitCode())
+          && !projects.isEmpty()) {
+        cache.save(cacheKey, exec.getEffPomFile());
+      }
+      return findModuleProject(moduleFile, projects);
+    } finally {
+      exec.deleteEffPom();
+    }
+  }
+
+  /**
+   * Aggregator modules report every project in their own reactor, so
+   * select the module's own project.
+   */
+  private static ProjectLoader findModuleProject(
+      File moduleFile, List<ProjectLoader> projects) throws IOException {
+    if (projects.isEmpty()) {
+      return null;
+    }
+    if (1 == projects.size()) {
+      return projects.get(0);
+    }
+    ProjectLoader result = ReactorPoms.build(projects).findModule(moduleFile);
+    if (null == result) {
+      MavenLogger.LOG.warn("No effective POM for {} among {} projects",
+          moduleFile.getPath(), projects.size());
+    }
+    return result;
+  }
+
+  /**
+   * Capture the effective POMs for every project of the reactor defined
+   * by {@code rootFile}, with a single Maven invocation.
+   *
+   * @return {@code null} if Maven did not provide any effective POMs
+   */
+  public static ReactorPoms loadReactorPoms(
+      File rootFile, MavenContext context)
+      throws IOException, InterruptedException,
+          ParserConfigurationException, SAXException {
+    MavenExecutor exec = runMaven(rootFile, context);
+    try {
+      if (!exec.hasEffPom()) {
+        return null;
+      }
+
+      ReactorPoms result = ReactorPoms.build(
+          readProjects(exec.getEffPomFile(), context));
+      MavenLogger.LOG.info("Loaded {} reactor effective POMs for {}",
+          result.size(), rootFile.getPath());
+      return result;
+    } finally {
+      exec.deleteEffPom();
+    }
+  }
+
+  /**
+   * Run Maven for the effective POM of {@code pomFile}, reporting any
+   * problems.  The caller is responsible for deleting the effective POM
+   * file.
+   */
+  private static MavenExecutor runMaven(File pomFile, MavenContext context)
       throws IOException, InterruptedException {
-    MavenExecutor exec = context.build(moduleFile);
-    exec.evalEffectivePom(context);
+    MavenExecutor exec = context.build(pomFile);
+    try {
+      exec.evalEffectivePom(context);
+
+      if (0 != exec.getExitCode()) {
+        MavenLogger.LOG.warn("Err {}  getting effective POM for {}"
+            + "\n\nMaven Console output {}>\n{}",
+            exec.getExitCode(), pomFile.getPath(),
+            describeOutput(exec), getOutputTail(exec));
+      }
 
-    if (0 != exec.getExitCode()) {
-      MavenLogger.LOG.warn(
-          "Err {}  getting effective POM for {}\n\nMaven Console output >\n{}",
-          exec.getExitCode(), moduleFile.getPath(), exec.getOut());
+      if (!exec.hasEffPom()) {
+        MavenLogger.LOG.warn(
+            "Empty effective POM for {}\n\nMaven Console output {}>\n{}",
+            pomFile.getPath(), describeOutput(exec), getOutputTail(exec));
+      }
+    } finally {
+      exec.dispose();
     }
+    return exec;
+  }
 
-    String effPom = exec.getEffPom();
-    if (Strings.isNullOrEmpty(effPom)) {
-      MavenLogger.LOG.warn(
-          "Empty effective POM for {}\n\nMaven Console output >\n",
-          moduleFile.getPath(), exec.getOut());
+  /**
+   * Note when the logged console output is only the end of a longer
+   * output.
+   */
+  private static String describeOutput(MavenExecutor exec) {
+    long length = exec.getOutput().length();
+    if (length <= LOG_OUTPUT_LIMIT) {
+      return "";
     }
+    return "(last " + LOG_OUTPUT_LIMIT + " of " + length + " chars) ";
+  }
 
-    StringReader reader = new StringReader(effPom);
-    return new InputSource(reader);
+  /**
+   * Provide the end of Maven's console output, where Maven reports any
+   * failures.  Long output is kept in a temporary file, and it is not
+   * read back into memory for the log.
+   */
+  private static String getOutputTail(MavenExecutor exec) throws IOException {
+    return exec.getOutput().getTail(LOG_OUTPUT_LIMIT);
   }
 
-  public static InputSource getPomSource(
+  /**
+   * Capture the project defined by {@code pomFile}, with the requested
+   * POM processing.  Call {@link ProjectLoader#addDependencies()} on the
+   * result to install the project in the context's graph.
+   *
+   * @return {@code null} if the project is not available
+   */
+  public static ProjectLoader loadProject(
       File pomFile, MavenContext context, PomProcessing processing)
-      throws IOException, InterruptedException {
+      throws IOException, InterruptedException,
+          ParserConfigurationException, SAXException {
     switch (processing) {
     case EFFECTIVE:
       return PomTools.loadEffectivePom(pomFile, context);
+    case REACTOR:
+      context.setReactorPoms(loadReactorPoms(pomFile, context));
+      return PomTools.loadEffectivePom(pomFile, context);
     case NONE:
-      FileInputStream stream = new FileInputStream(pomFile);
-      return new InputSource(stream);
+      return findModuleProject(pomFile, readProjects(pomFile, context));
     }
 
     MavenLogger.LOG.warn("Unexpected processing for {}", pomFile.getPath());
     return null;
-  }}
+  }
+}
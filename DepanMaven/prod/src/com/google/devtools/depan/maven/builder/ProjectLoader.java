@@ -24,6 +24,13 @@ import com.google.devtools.depan.model.GraphNode;
 /**
  * Interpret Maven project elements, and create appropriate DepAn
  * relationships in the builder graph.
+ *
+ * Parsing only captures the project's coordinates, parent, modules,
+ * dependencies, and properties.  All other content is discarded as it is
+ * read, so the captured project stays small even for effective POMs with
+ * large managed dependency and plugin sections.  The relationships are
+ * created later by {@link #addDependencies()}, on the caller's thread,
+ * so projects can be parsed on any thread.
  * 
  * @author <a href="mailto:leeca@pnambic.com">Lee Carver</a>
  */
@@ -52,8 +59,11 @@ public class ProjectLoader extends NestingElementHandler {
     return PROJECT.equals(name);
   }
 
-  @Override
-  public void end() {
+  /**
+   * Create the DepAn relationships for the captured project, including
+   * those of any aggregated modules.
+   */
+  public void addDependencies() {
     GraphNode projectNode = getProjectNode();
 
     if (null != parent) {
@@ -103,6 +113,26 @@ public class ProjectLoader extends NestingElementHandler {
     return super.newChild(name);
   }
 
+  /**
+   * Provide the project's {@code groupId:artifactId}.  A project without
+   * its own {@code groupId} uses its parent's, as Maven does.
+   *
+   * @return {@code null} if the project's coordinates are incomplete
+   */
+  public String getCoordinates() {
+    LabelCapture inherited = (null != parent) ? parent.getLabel() : null;
+    return label.getCoordinates(inherited);
+  }
+
+  /**
+   * Provide the project's parent.
+   *
+   * @return {@code null} if the project does not have a parent
+   */
+  public ParentLoader getParent() {
+    return parent;
+  }
+
   /**
    * Provide the project's own GraphNode.
    */
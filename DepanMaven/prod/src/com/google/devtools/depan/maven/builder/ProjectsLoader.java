@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.maven.builder;
+
+import com.google.devtools.depan.pushxml.PushDownXmlHandler.ElementHandler;
+import com.google.devtools.depan.pushxml.PushDownXmlHandler.NestingElementHandler;
+
+import java.util.List;
+
+/**
+ * Interpret the projects element that {@code help:effective-pom} writes
+ * for a multi-module build.  Each contained project is captured as
+ * its own {@link ProjectLoader}.
+ */
+public class ProjectsLoader extends NestingElementHandler {
+
+  public static final String PROJECTS = "projects";
+
+  private final MavenContext context;
+
+  private final List<ProjectLoader> projects;
+
+  /**
+   * @param projects destination for the captured projects
+   */
+  public ProjectsLoader(MavenContext context, List<ProjectLoader> projects) {
+    this.context = context;
+    this.projects = projects;
+  }
+
+  @Override
+  public boolean isFor(String name) {
+    return PROJECTS.equals(name);
+  }
+
+  @Override
+  public ElementHandler newChild(String name) {
+    if (ProjectLoader.PROJECT.equals(name)) {
+      ProjectLoader project = new ProjectLoader(context);
+      projects.add(project);
+      return project;
+    }
+    return super.newChild(name);
+  }
+}
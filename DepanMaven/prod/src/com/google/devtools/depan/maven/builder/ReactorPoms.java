@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.maven.builder;
+
+import com.google.devtools.depan.maven.MavenLogger;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Effective POMs for every project of a reactor, captured from the output
+ * of a single Maven invocation.
+ *
+ * For a multi-module build, {@code help:effective-pom} writes one
+ * document with a {@code <projects>} element that holds each project's
+ * effective POM.  Each project is captured as its own
+ * {@link ProjectLoader}, and is found by the {@code groupId:artifactId}
+ * of a module's POM file.
+ *
+ * Instances are immutable, and may be shared by several threads.
+ */
+public class ReactorPoms {
+
+  /** Captured projects, by {@code groupId:artifactId}. */
+  private final Map<String, ProjectLoader> projects;
+
+  private ReactorPoms(Map<String, ProjectLoader> projects) {
+    this.projects = projects;
+  }
+
+  /**
+   * Index the captured projects from the output of
+   * {@code help:effective-pom}.  Output for a single project is
+   * accepted too.
+   */
+  public static ReactorPoms build(List<ProjectLoader> captured) {
+    Map<String, ProjectLoader> result = Maps.newLinkedHashMap();
+    for (ProjectLoader project : captured) {
+      String coordinates = project.getCoordinates();
+      if (null == coordinates) {
+        MavenLogger.LOG.warn(
+            "Skipping effective POM without a groupId and artifactId");
+        continue;
+      }
+      result.put(coordinates, project);
+    }
+    return new ReactorPoms(ImmutableMap.copyOf(result));
+  }
+
+  public int size() {
+    return projects.size();
+  }
+
+  /**
+   * Provide the effective POM for a project.
+   *
+   * @param coordinates the project's {@code groupId:artifactId}
+   * @return {@code null} if the reactor has no such project
+   */
+  public ProjectLoader find(String coordinates) {
+    return projects.get(coordinates);
+  }
+
+  /**
+   * Provide the effective POM for a module's POM file.
+   *
+   * @return {@code null} if the reactor has no such project
+   */
+  public ProjectLoader findModule(File pomFile) throws IOException {
+    String coordinates = readPomCoordinates(pomFile);
+    if (null == coordinates) {
+      return null;
+    }
+    return find(coordinates);
+  }
+
+  /////////////////////////////////////
+  // Project coordinates
+
+  public static String buildCoordinates(String groupId, String artifactId) {
+    return groupId + ":" + artifactId;
+  }
+
+  /**
+   * Provide the {@code groupId:artifactId} of a POM file, using the
+   * parent's {@code groupId} if the project does not have its own.
+   *
+   * @return {@code null} if the POM's coordinates are incomplete
+   */
+  public static String readPomCoordinates(File pomFile) throws IOException {
+    return PomTools.readPom(pomFile).getCoordinates();
+  }
+}
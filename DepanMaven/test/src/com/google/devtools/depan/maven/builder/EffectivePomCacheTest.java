@@ -0,0 +1,217 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.maven.builder;
+
+import static org.junit.Assert.*;
+
+import com.google.common.collect.ImmutableMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+public class EffectivePomCacheTest {
+
+  private static final String SETTINGS = "settings";
+
+  private MavenFixture fixture;
+
+  private EffectivePomCache cache;
+
+  @Before
+  public void setUp() throws IOException {
+    fixture = new MavenFixture();
+    cache = new EffectivePomCache(
+        new File(fixture.getRoot().getParentFile(), "cache"));
+  }
+
+  @After
+  public void tearDown() {
+    fixture.delete();
+  }
+
+  @Test
+  public void testDefaultRelativePath() throws IOException {
+    File parentFile = fixture.writePom("", buildPom("parent", null));
+    File childFile = fixture.writePom("child", buildPom("child", ""));
+    assertEquals(parentFile.getCanonicalFile(),
+        EffectivePomCache.findParentFile(childFile));
+  }
+
+  @Test
+  public void testRelativePath() throws IOException {
+    File parentFile = fixture.writeFile("parent.xml", buildPom("parent", null));
+    File childFile =
+        fixture.writePom("child", buildPom("child", "../parent.xml"));
+    assertEquals(parentFile.getCanonicalFile(),
+        EffectivePomCache.findParentFile(childFile));
+
+    // A directory stands for the POM that it contains.
+    File dirFile = fixture.writePom("base", buildPom("base", null));
+    childFile = fixture.writePom("child", buildPom("child", "../base"));
+    assertEquals(dirFile.getCanonicalFile(),
+        EffectivePomCache.findParentFile(childFile));
+  }
+
+  @Test
+  public void testNoParentFile() throws IOException {
+    File pomFile = fixture.writePom("", buildPom("root", null));
+    assertNull(EffectivePomCache.findParentFile(pomFile));
+
+    // An empty relativePath resolves the parent from a repository.
+    fixture.writePom("", buildPom("parent", null));
+    File childFile = fixture.writePom("child", buildPom("child", "EMPTY"));
+    assertNull(EffectivePomCache.findParentFile(childFile));
+
+    childFile = fixture.writePom("child", buildPom("child", "../missing"));
+    assertNull(EffectivePomCache.findParentFile(childFile));
+  }
+
+  @Test
+  public void testParentChain() throws IOException {
+    fixture.writeFile("parent.xml", buildPom("parent", null));
+    File childFile =
+        fixture.writePom("child", buildPom("child", "../parent.xml"));
+    String key = cache.buildKey(childFile, SETTINGS);
+    assertEquals(key, cache.buildKey(childFile, SETTINGS));
+
+    // Changes to the POM, its parent, or the settings all change the key.
+    fixture.writeFile("parent.xml", buildPom("parent2", null));
+    String parentKey = cache.buildKey(childFile, SETTINGS);
+    assertFalse(key.equals(parentKey));
+
+    fixture.writePom("child", buildPom("child2", "../parent.xml"));
+    String childKey = cache.buildKey(childFile, SETTINGS);
+    assertFalse(parentKey.equals(childKey));
+
+    assertFalse(childKey.equals(cache.buildKey(childFile, "other")));
+  }
+
+  @Test
+  public void testCyclicParents() throws IOException {
+    File firstFile =
+        fixture.writeFile("first.xml", buildPom("first", "second.xml"));
+    fixture.writeFile("second.xml", buildPom("second", "first.xml"));
+    String key = cache.buildKey(firstFile, SETTINGS);
+    assertEquals(key, cache.buildKey(firstFile, SETTINGS));
+  }
+
+  @Test
+  public void testMaxParents() throws IOException {
+    int count = EffectivePomCache.MAX_PARENTS + 4;
+    for (int index = 0; index < count; index++) {
+      fixture.writeFile(getChainPath(index),
+          buildPom("p" + index, getChainPath(index + 1)));
+    }
+    File pomFile = new File(fixture.getRoot(), getChainPath(0));
+    String key = cache.buildKey(pomFile, SETTINGS);
+
+    // POMs beyond the limit are not part of the key.
+    int outside = EffectivePomCache.MAX_PARENTS;
+    fixture.writeFile(getChainPath(outside), buildPom("edit", null));
+    assertEquals(key, cache.buildKey(pomFile, SETTINGS));
+
+    int inside = EffectivePomCache.MAX_PARENTS - 1;
+    fixture.writeFile(getChainPath(inside), buildPom("edit", null));
+    assertFalse(key.equals(cache.buildKey(pomFile, SETTINGS)));
+  }
+
+  @Test
+  public void testSettingsFiles() throws IOException {
+    File pomFile = fixture.writePom("", buildPom("root", null));
+    File userHome = new File(fixture.getRoot().getParentFile(), "home");
+    Map<String, String> env = ImmutableMap.of();
+    String key = buildKey(pomFile, env, userHome);
+
+    fixture.writeFile("../home/.m2/settings.xml", "<settings/>");
+    String userKey = buildKey(pomFile, env, userHome);
+    assertFalse(key.equals(userKey));
+
+    fixture.writeFile("../home/.m2/settings.xml",
+        "<settings><activeProfiles><activeProfile>p</activeProfile>"
+        + "</activeProfiles></settings>");
+    String profileKey = buildKey(pomFile, env, userHome);
+    assertFalse(userKey.equals(profileKey));
+  }
+
+  @Test
+  public void testSettingsOptions() throws IOException {
+    File pomFile = fixture.writePom("", buildPom("root", null));
+    File userHome = new File(fixture.getRoot().getParentFile(), "home");
+    fixture.writeFile("custom.xml", "<settings/>");
+    Map<String, String> env = ImmutableMap.of("MAVEN_ARGS", "-s custom.xml");
+    String key = buildKey(pomFile, env, userHome);
+
+    // Settings files named by options are relative to the project.
+    fixture.writeFile("custom.xml", "<settings><offline>true</offline>"
+        + "</settings>");
+    String fileKey = buildKey(pomFile, env, userHome);
+    assertFalse(key.equals(fileKey));
+
+    env = ImmutableMap.of("MAVEN_ARGS", "-s custom.xml -P release");
+    assertFalse(fileKey.equals(buildKey(pomFile, env, userHome)));
+
+    fixture.writeFile(".mvn/maven.config", "-P release");
+    env = ImmutableMap.of("MAVEN_ARGS", "-s custom.xml");
+    assertFalse(fileKey.equals(buildKey(pomFile, env, userHome)));
+  }
+
+  private String buildKey(
+      File pomFile, Map<String, String> env, File userHome)
+      throws IOException {
+    String settings = MavenSettings.describe("mvn",
+        MavenFixture.EFF_POM_CMD, "java", fixture.getRoot(), env, userHome);
+    return cache.buildKey(pomFile, settings);
+  }
+
+  private static String getChainPath(int index) {
+    return "chain-" + index + ".xml";
+  }
+
+  /**
+   * Build a POM with an optional parent.
+   *
+   * @param relativePath {@code null} for no parent, an empty string for
+   *     Maven's default location, {@code "EMPTY"} for an empty
+   *     {@code <relativePath/>}, or the parent's location
+   */
+  private static String buildPom(String artifactId, String relativePath) {
+    StringBuilder result = new StringBuilder();
+    result.append("<project>\n");
+    if (null != relativePath) {
+      result.append("  <parent>\n");
+      result.append("    <groupId>g</groupId>\n");
+      result.append("    <artifactId>parent</artifactId>\n");
+      if ("EMPTY".equals(relativePath)) {
+        result.append("    <relativePath/>\n");
+      } else if (!relativePath.isEmpty()) {
+        result.append("    <relativePath>")
+            .append(relativePath).append("</relativePath>\n");
+      }
+      result.append("  </parent>\n");
+    }
+    result.append("  <groupId>g</groupId>\n");
+    result.append("  <artifactId>").append(artifactId)
+        .append("</artifactId>\n");
+    result.append("</project>\n");
+    return result.toString();
+  }
+}
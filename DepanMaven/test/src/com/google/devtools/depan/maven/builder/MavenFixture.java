@@ -0,0 +1,233 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.maven.builder;
+
+import com.google.devtools.depan.model.builder.chain.DependenciesListener;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Files;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Temporary directory of fixture POMs, with a stand-in for the Maven
+ * executable used in tests.
+ *
+ * The stand-in handles {@code help:effective-pom} requests.  It copies
+ * the POM named by {@code -f} to the {@code -Doutput} file, or writes a
+ * {@code <projects>} document with every POM below the working directory
+ * if the POM declares modules.  An {@code effective.xml} file next to a
+ * POM is used in place of the POM, for projects that inherit values from
+ * their parent.  Each call is recorded, and a {@code delay} file in the
+ * module's directory makes the call sleep for that many seconds.
+ */
+public class MavenFixture {
+
+  public static final String EFF_POM_CMD = "help:effective-pom";
+
+  private static final String SHELL = "/bin/sh";
+
+  private static final String EFFECTIVE_POM = "effective.xml";
+
+  private final File root;
+
+  private final File mavenExe;
+
+  private final File callsFile;
+
+  public MavenFixture() throws IOException {
+    File tempDir = Files.createTempDir();
+    root = new File(tempDir, "reactor");
+    root.mkdir();
+    mavenExe = new File(tempDir, "mvn");
+    callsFile = new File(tempDir, "calls.txt");
+    Files.touch(callsFile);
+    writeMaven();
+  }
+
+  /**
+   * Indicate whether the stand-in executable can run on this platform.
+   */
+  public static boolean canRunMaven() {
+    return new File(SHELL).canExecute();
+  }
+
+  public File getRoot() {
+    return root;
+  }
+
+  /**
+   * Write a file below the fixture's root directory.
+   *
+   * @param path slash separated path relative to the root
+   */
+  public File writeFile(String path, String contents) throws IOException {
+    File result = new File(root, path);
+    result.getParentFile().mkdirs();
+    Files.write(contents, result, Charsets.UTF_8);
+    return result;
+  }
+
+  /**
+   * Write a {@code pom.xml} file in a directory below the fixture's root.
+   *
+   * @param dirPath slash separated path relative to the root, or an
+   *     empty string for the root's own POM
+   */
+  public File writePom(String dirPath, String contents) throws IOException {
+    return writeFile(new File(dirPath, PomTools.DEFAULT_POM).getPath(),
+        contents);
+  }
+
+  /**
+   * Write the effective POM that the stand-in reports for the POM in a
+   * directory.
+   */
+  public void writeEffectivePom(String dirPath, String contents)
+      throws IOException {
+    writeFile(new File(dirPath, EFFECTIVE_POM).getPath(), contents);
+  }
+
+  /**
+   * Make the stand-in sleep when it evaluates the POM in a directory.
+   */
+  public void setDelay(String dirPath, String seconds) throws IOException {
+    writeFile(new File(dirPath, "delay").getPath(), seconds);
+  }
+
+  /**
+   * Build a minimal POM, with an optional parent and extra content.
+   *
+   * @param groupId {@code null} to inherit the parent's group
+   * @param parent {@code groupId:artifactId} of the parent, or
+   *     {@code null} for no parent
+   */
+  public static String buildPom(
+      String groupId, String artifactId, String parent, String extra) {
+    StringBuilder result = new StringBuilder();
+    result.append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n");
+    result.append("  <modelVersion>4.0.0</modelVersion>\n");
+    if (null != parent) {
+      int split = parent.indexOf(':');
+      result.append("  <parent>\n");
+      result.append("    <groupId>")
+          .append(parent.substring(0, split)).append("</groupId>\n");
+      result.append("    <artifactId>")
+          .append(parent.substring(split + 1)).append("</artifactId>\n");
+      result.append("    <version>1</version>\n");
+      result.append("  </parent>\n");
+    }
+    if (null != groupId) {
+      result.append("  <groupId>").append(groupId).append("</groupId>\n");
+    }
+    result.append("  <artifactId>")
+        .append(artifactId).append("</artifactId>\n");
+    result.append("  <version>1</version>\n");
+    result.append(extra);
+    result.append("</project>\n");
+    return result.toString();
+  }
+
+  /**
+   * Build the {@code <modules>} element for a list of module paths.
+   */
+  public static String buildModules(String... modulePaths) {
+    StringBuilder result = new StringBuilder();
+    result.append("  <modules>\n");
+    for (String modulePath : modulePaths) {
+      result.append("    <module>")
+          .append(modulePath).append("</module>\n");
+    }
+    result.append("  </modules>\n");
+    return result.toString();
+  }
+
+  /**
+   * Build a context that runs the stand-in executable for the fixture's
+   * root directory.
+   */
+  public MavenContext buildContext(DependenciesListener builder,
+      int threadCount, EffectivePomCache pomCache) {
+    return new MavenContext(builder, root, System.getProperty("java.home"),
+        mavenExe.getPath(), EFF_POM_CMD, threadCount, pomCache);
+  }
+
+  /**
+   * Provide the POM files evaluated by the stand-in, in call order.
+   */
+  public List<String> getCalls() throws IOException {
+    return ImmutableList.copyOf(Files.readLines(callsFile, Charsets.UTF_8));
+  }
+
+  public void clearCalls() throws IOException {
+    Files.write("", callsFile, Charsets.UTF_8);
+  }
+
+  /**
+   * Remove all of the fixture's files.
+   */
+  public void delete() {
+    deleteTree(root.getParentFile());
+  }
+
+  private void writeMaven() throws IOException {
+    StringBuilder script = new StringBuilder();
+    script.append("#!").append(SHELL).append('\n');
+    script.append("pom=pom.xml\n");
+    script.append("prev=\n");
+    script.append("for arg in \"$@\"; do\n");
+    script.append("  case \"$arg\" in -Doutput=*) out=\"${arg#-Doutput=}\";;"
+        + " esac\n");
+    script.append("  if [ \"$prev\" = \"-f\" ]; then pom=\"$arg\"; fi\n");
+    script.append("  prev=\"$arg\"\n");
+    script.append("done\n");
+    script.append("if [ -f delay ]; then sleep \"$(cat delay)\"; fi\n");
+    script.append("echo \"$PWD/$pom\" >> '")
+        .append(callsFile.getPath()).append("'\n");
+    script.append("effective() {\n");
+    script.append("  eff=\"$(dirname \"$1\")/").append(EFFECTIVE_POM)
+        .append("\"\n");
+    script.append("  if [ -f \"$eff\" ]; then cat \"$eff\";"
+        + " else cat \"$1\"; fi\n");
+    script.append("}\n");
+    script.append("if grep -q '<modules>' \"$pom\"; then\n");
+    script.append("  {\n");
+    script.append("    echo '<projects>'\n");
+    script.append("    find . -name pom.xml | sort | while read f; do"
+        + " effective \"$f\"; done\n");
+    script.append("    echo '</projects>'\n");
+    script.append("  } > \"$out\"\n");
+    script.append("else\n");
+    script.append("  effective \"$pom\" > \"$out\"\n");
+    script.append("fi\n");
+    Files.write(script, mavenExe, Charsets.UTF_8);
+    mavenExe.setExecutable(true);
+  }
+
+  private static void deleteTree(File file) {
+    File[] children = file.listFiles();
+    if (null != children) {
+      for (File child : children) {
+        deleteTree(child);
+      }
+    }
+    file.delete();
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.maven.builder;
+
+import static org.junit.Assert.*;
+
+import com.google.devtools.depan.maven.graph.ArtifactElement;
+import com.google.devtools.depan.maven.graph.MavenRelation;
+import com.google.devtools.depan.model.builder.chain.DependencyRecorder;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+
+public class ModulesLoaderTest {
+
+  /** Declared module order, with the slowest modules first. */
+  private static final List<String> MODULES =
+      ImmutableList.of("delta", "alpha", "charlie", "bravo");
+
+  private MavenFixture fixture;
+
+  private File rootFile;
+
+  @Before
+  public void setUp() throws Exception {
+    Assume.assumeTrue(MavenFixture.canRunMaven());
+    fixture = new MavenFixture();
+    rootFile = fixture.writePom("", MavenFixture.buildPom("g", "root", null,
+        MavenFixture.buildModules(MODULES.toArray(new String[0]))));
+    String dependency = "  <dependencies>\n"
+        + "    <dependency>\n"
+        + "      <groupId>g</groupId>\n"
+        + "      <artifactId>library</artifactId>\n"
+        + "      <version>1</version>\n"
+        + "    </dependency>\n"
+        + "  </dependencies>\n";
+    for (String module : MODULES) {
+      fixture.writePom(module,
+          MavenFixture.buildPom("g", module, "g:root", dependency));
+    }
+  }
+
+  @After
+  public void tearDown() {
+    if (null != fixture) {
+      fixture.delete();
+    }
+  }
+
+  @Test
+  public void testParallelEvaluation() throws Exception {
+    for (String module : MODULES) {
+      fixture.setDelay(module, "1");
+    }
+
+    long start = System.currentTimeMillis();
+    DependencyRecorder recorder = analyze(MODULES.size());
+    long elapsed = System.currentTimeMillis() - start;
+
+    assertEquals(MODULES.size(), fixture.getCalls().size());
+    assertEquals(MODULES, getModuleIds(recorder));
+    // One evaluation after another takes at least four seconds.
+    assertTrue("Evaluation took " + elapsed + "ms", elapsed < 3000);
+  }
+
+  @Test
+  public void testDeclaredOrder() throws Exception {
+    // Later modules finish their evaluations first.
+    for (int index = 0; index < MODULES.size(); index++) {
+      double delay = 0.2 * (MODULES.size() - 1 - index);
+      fixture.setDelay(MODULES.get(index), Double.toString(delay));
+    }
+
+    DependencyRecorder parallel = analyze(MODULES.size());
+    assertEquals(MODULES, getModuleIds(parallel));
+
+    fixture.clearCalls();
+    DependencyRecorder serial = analyze(1);
+    assertEquals(describeDeps(serial), describeDeps(parallel));
+  }
+
+  @Test
+  public void testMissingModule() throws Exception {
+    new File(fixture.getRoot(), "charlie/pom.xml").delete();
+
+    DependencyRecorder recorder = analyze(MODULES.size());
+    assertEquals(ImmutableList.of("delta", "alpha", "bravo"),
+        getModuleIds(recorder));
+  }
+
+  private DependencyRecorder analyze(int threadCount) throws Exception {
+    DependencyRecorder result = new DependencyRecorder();
+    MavenContext context = fixture.buildContext(result, threadCount, null);
+    try {
+      PomTools.loadProject(rootFile, context, PomProcessing.NONE)
+          .addDependencies();
+    } finally {
+      context.shutdown();
+    }
+    return result;
+  }
+
+  /**
+   * Provide the artifact ids of the modules, in the order that their
+   * relations were added.
+   */
+  private static List<String> getModuleIds(DependencyRecorder recorder) {
+    List<String> result = Lists.newArrayList();
+    for (int index = 0; index < recorder.size(); index++) {
+      if (MavenRelation.MODULE_DEPEND == recorder.getRelation(index)) {
+        ArtifactElement module = (ArtifactElement) recorder.getChild(index);
+        result.add(module.getArtifactId());
+      }
+    }
+    return result;
+  }
+
+  private static List<String> describeDeps(DependencyRecorder recorder) {
+    List<String> result = Lists.newArrayList();
+    for (int index = 0; index < recorder.size(); index++) {
+      result.add(recorder.getParent(index).getId() + " "
+          + recorder.getRelation(index) + " "
+          + recorder.getChild(index).getId());
+    }
+    return result;
+  }
+}
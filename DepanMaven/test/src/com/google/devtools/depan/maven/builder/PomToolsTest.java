@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.maven.builder;
+
+import static org.junit.Assert.*;
+
+import com.google.devtools.depan.model.builder.chain.DependencyRecorder;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+public class PomToolsTest {
+
+  private MavenFixture fixture;
+
+  private MavenContext context;
+
+  private File rootFile;
+
+  private File moduleFile;
+
+  @Before
+  public void setUp() throws Exception {
+    Assume.assumeTrue(MavenFixture.canRunMaven());
+    fixture = new MavenFixture();
+    rootFile = fixture.writePom("", MavenFixture.buildPom("g", "root", null,
+        MavenFixture.buildModules("first", "second")));
+    // The first module is found in the reactor by its parent's groupId.
+    moduleFile = fixture.writePom("first",
+        MavenFixture.buildPom(null, "first", "g:root", ""));
+    fixture.writeEffectivePom("first",
+        MavenFixture.buildPom("g", "first", "g:root", ""));
+    fixture.writePom("second",
+        MavenFixture.buildPom("g", "second", "g:root", ""));
+  }
+
+  @After
+  public void tearDown() {
+    if (null != context) {
+      context.shutdown();
+    }
+    if (null != fixture) {
+      fixture.delete();
+    }
+  }
+
+  @Test
+  public void testRunMaven() throws Exception {
+    context = fixture.buildContext(new DependencyRecorder(), 1, null);
+    ProjectLoader project = PomTools.loadEffectivePom(moduleFile, context);
+    assertEquals("g:first", project.getCoordinates());
+    assertEquals(1, fixture.getCalls().size());
+    assertEquals(moduleFile.getCanonicalPath(), fixture.getCalls().get(0));
+  }
+
+  @Test
+  public void testReactor() throws Exception {
+    context = fixture.buildContext(new DependencyRecorder(), 1, null);
+    ProjectLoader root =
+        PomTools.loadProject(rootFile, context, PomProcessing.REACTOR);
+    assertEquals("g:root", root.getCoordinates());
+    assertEquals(3, context.getReactorPoms().size());
+    assertEquals(1, fixture.getCalls().size());
+
+    // Modules of the reactor do not run Maven again.
+    ProjectLoader project = PomTools.loadEffectivePom(moduleFile, context);
+    assertSame(context.getReactorPoms().find("g:first"), project);
+    assertEquals(1, fixture.getCalls().size());
+
+    // Modules outside of the reactor still get an effective POM.
+    File outsideFile = fixture.writePom("../outside",
+        MavenFixture.buildPom("g", "outside", null, ""));
+    project = PomTools.loadEffectivePom(outsideFile, context);
+    assertEquals("g:outside", project.getCoordinates());
+    assertEquals(2, fixture.getCalls().size());
+  }
+
+  @Test
+  public void testCache() throws Exception {
+    EffectivePomCache cache = buildCache();
+    context = fixture.buildContext(new DependencyRecorder(), 1, cache);
+    assertEquals("g:first",
+        PomTools.loadEffectivePom(moduleFile, context).getCoordinates());
+    assertEquals(1, fixture.getCalls().size());
+
+    // A fresh context, as for a later analysis, reads the saved entry.
+    context.shutdown();
+    context = fixture.buildContext(new DependencyRecorder(), 1, cache);
+    assertEquals("g:first",
+        PomTools.loadEffectivePom(moduleFile, context).getCoordinates());
+    assertEquals(1, fixture.getCalls().size());
+
+    // Editing the POM runs Maven for a new entry.
+    fixture.writePom("first", MavenFixture.buildPom(null, "first", "g:root",
+        "  <packaging>pom</packaging>\n"));
+    assertEquals("g:first",
+        PomTools.loadEffectivePom(moduleFile, context).getCoordinates());
+    assertEquals(2, fixture.getCalls().size());
+    assertEquals(2, cache.getCacheDir().listFiles().length);
+  }
+
+  @Test
+  public void testReactorBeforeCache() throws Exception {
+    EffectivePomCache cache = buildCache();
+    context = fixture.buildContext(new DependencyRecorder(), 1, cache);
+    PomTools.loadProject(rootFile, context, PomProcessing.REACTOR);
+    assertEquals(1, fixture.getCalls().size());
+
+    ProjectLoader project = PomTools.loadEffectivePom(moduleFile, context);
+    assertSame(context.getReactorPoms().find("g:first"), project);
+    assertEquals(1, fixture.getCalls().size());
+    assertNull(cache.find(
+        cache.buildKey(moduleFile, context.getMavenSettings())));
+  }
+
+  @Test
+  public void testAggregatorModule() throws Exception {
+    // An aggregator's effective POM holds every project below it.
+    context = fixture.buildContext(new DependencyRecorder(), 1, null);
+    ProjectLoader project = PomTools.loadEffectivePom(rootFile, context);
+    assertEquals("g:root", project.getCoordinates());
+  }
+
+  private EffectivePomCache buildCache() {
+    return new EffectivePomCache(
+        new File(fixture.getRoot().getParentFile(), "cache"));
+  }
+}
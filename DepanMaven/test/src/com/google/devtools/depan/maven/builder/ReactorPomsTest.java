@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.maven.builder;
+
+import static org.junit.Assert.*;
+
+import com.google.devtools.depan.model.builder.chain.DependencyRecorder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+public class ReactorPomsTest {
+
+  private MavenFixture fixture;
+
+  @Before
+  public void setUp() throws IOException {
+    fixture = new MavenFixture();
+  }
+
+  @After
+  public void tearDown() {
+    fixture.delete();
+  }
+
+  @Test
+  public void testOwnGroupId() throws IOException {
+    File pomFile = fixture.writePom("child",
+        MavenFixture.buildPom("g.child", "child", "g.parent:parent", ""));
+    assertEquals("g.child:child", ReactorPoms.readPomCoordinates(pomFile));
+  }
+
+  @Test
+  public void testParentGroupId() throws IOException {
+    File pomFile = fixture.writePom("child",
+        MavenFixture.buildPom(null, "child", "g.parent:parent", ""));
+    assertEquals("g.parent:child", ReactorPoms.readPomCoordinates(pomFile));
+  }
+
+  @Test
+  public void testNestedElements() throws IOException {
+    // Dependencies have coordinates too, but only the project's count.
+    String dependencies = "  <dependencies>\n"
+        + "    <dependency>\n"
+        + "      <groupId>g.dep</groupId>\n"
+        + "      <artifactId>dep</artifactId>\n"
+        + "    </dependency>\n"
+        + "  </dependencies>\n";
+    File pomFile = fixture.writePom("child", "<project>\n"
+        + dependencies
+        + "  <artifactId>child</artifactId>\n"
+        + "  <groupId>g.child</groupId>\n"
+        + "</project>\n");
+    assertEquals("g.child:child", ReactorPoms.readPomCoordinates(pomFile));
+  }
+
+  @Test
+  public void testInheritedGroupId() throws Exception {
+    // Projects take a missing groupId from their parent, and projects
+    // without any groupId are left out.
+    File projectsFile = fixture.writeFile("projects.xml", "<projects>\n"
+        + MavenFixture.buildPom(null, "first", "g:root", "")
+        + MavenFixture.buildPom(null, "orphan", null, "")
+        + "</projects>\n");
+
+    MavenContext context =
+        fixture.buildContext(new DependencyRecorder(), 1, null);
+    ReactorPoms reactor = ReactorPoms.build(
+        PomTools.readProjects(projectsFile, context));
+    assertEquals(1, reactor.size());
+    assertNotNull(reactor.find("g:first"));
+  }
+
+  @Test(expected = IOException.class)
+  public void testMalformedPom() throws IOException {
+    File pomFile = fixture.writePom("child", "<project><artifactId>");
+    ReactorPoms.readPomCoordinates(pomFile);
+  }
+
+  @Test
+  public void testFindModule() throws Exception {
+    File first = fixture.writePom("first",
+        MavenFixture.buildPom(null, "first", "g:root", ""));
+    File second = fixture.writePom("second",
+        MavenFixture.buildPom("g.other", "second", "g:root", ""));
+    File missing = fixture.writePom("missing",
+        MavenFixture.buildPom("g", "missing", null, ""));
+    File projectsFile = fixture.writeFile("projects.xml", "<projects>\n"
+        + MavenFixture.buildPom("g", "first", "g:root", "")
+        + MavenFixture.buildPom("g.other", "second", "g:root", "")
+        + "</projects>\n");
+
+    MavenContext context =
+        fixture.buildContext(new DependencyRecorder(), 1, null);
+    ReactorPoms reactor = ReactorPoms.build(
+        PomTools.readProjects(projectsFile, context));
+    assertEquals(2, reactor.size());
+    assertEquals("g:first", reactor.find("g:first").getCoordinates());
+    assertNull(reactor.find("g:second"));
+
+    assertSame(reactor.find("g:first"), reactor.findModule(first));
+    assertSame(reactor.find("g.other:second"), reactor.findModule(second));
+    assertNull(reactor.findModule(missing));
+  }
+}
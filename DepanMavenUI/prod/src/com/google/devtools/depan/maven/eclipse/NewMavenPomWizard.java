@@ -19,23 +19,22 @@ import com.google.devtools.depan.graph_doc.eclipse.ui.wizards.AbstractAnalysisWi
 import com.google.devtools.depan.graph_doc.model.GraphDocument;
 import com.google.devtools.depan.maven.MavenLogger;
 import com.google.devtools.depan.maven.MavenPluginActivator;
+import com.google.devtools.depan.maven.builder.EffectivePomCache;
 import com.google.devtools.depan.maven.builder.MavenContext;
-import com.google.devtools.depan.maven.builder.MavenDocumentHandler;
 import com.google.devtools.depan.maven.builder.MavenGraphResolver;
 import com.google.devtools.depan.maven.builder.PomTools;
+import com.google.devtools.depan.maven.builder.ProjectLoader;
 import com.google.devtools.depan.maven.eclipse.preferences.AnalysisPreferenceIds;
 import com.google.devtools.depan.model.GraphModel;
 import com.google.devtools.depan.model.builder.api.GraphBuilder;
 import com.google.devtools.depan.model.builder.api.GraphBuilders;
 import com.google.devtools.depan.model.builder.chain.DependenciesDispatcher;
 import com.google.devtools.depan.model.builder.chain.DependenciesListener;
-import com.google.devtools.depan.pushxml.PushDownXmlHandler.DocumentHandler;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jface.preference.IPreferenceStore;
-import org.xml.sax.InputSource;
 
 import java.io.File;
 import java.io.IOException;
@@ -134,17 +133,19 @@ public class NewMavenPomWizard extends AbstractAnalysisWizard {
     File pomFile = PomTools.getPomFile(moduleFile);
     File mavenDir = pomFile.getParentFile();
     MavenContext context = buildMavenContext(builder, mavenDir);
+    try {
+      ProjectLoader project =
+          PomTools.loadProject(pomFile, context, page.getProcessing());
 
-    InputSource pomSource =
-        PomTools.getPomSource(pomFile, context, page.getProcessing());
+      // TODO: Improve error handling ?? Add err state to context?
+      if (null == project) {
+        return;
+      }
 
-    // TODO: Improve error handling ?? Add err state to context?
-    if (null == pomSource) {
-      return;
+      project.addDependencies();
+    } finally {
+      context.shutdown();
     }
-
-    DocumentHandler pomLoader = new MavenDocumentHandler(context);
-    PomTools.loadModule(pomLoader, pomSource);
   }
 
   private MavenContext buildMavenContext(
@@ -158,8 +159,20 @@ public class NewMavenPomWizard extends AbstractAnalysisWizard {
     String effPomCmd =
         prefs.getString(AnalysisPreferenceIds.MVN_ANALYSIS_EFFECTIVEPOM);
     String javaHome = getJavaHome(prefs);
+    int threadCount = prefs.getInt(AnalysisPreferenceIds.MVN_ANALYSIS_THREADS);
+    EffectivePomCache pomCache = getPomCache(prefs);
 
-    return new MavenContext(builder, mavenDir, javaHome, mavenExe, effPomCmd);
+    return new MavenContext(builder, mavenDir, javaHome, mavenExe, effPomCmd,
+        threadCount, pomCache);
+  }
+
+  private EffectivePomCache getPomCache(IPreferenceStore prefs) {
+    String cacheDir =
+        prefs.getString(AnalysisPreferenceIds.MVN_ANALYSIS_POMCACHE);
+    if (cacheDir.isEmpty()) {
+      return null;
+    }
+    return new EffectivePomCache(new File(cacheDir));
   }
 
   private String getJavaHome(IPreferenceStore prefs) {
@@ -37,4 +37,8 @@ public class AnalysisPreferenceIds {
       MavenActivator.MVN_PREF_PREFIX + "java-home";
   public static final String MVN_ANALYSIS_EFFECTIVEPOM =
       MavenActivator.MVN_PREF_PREFIX + "effective-pom";
+  public static final String MVN_ANALYSIS_THREADS =
+      MavenActivator.MVN_PREF_PREFIX + "threads";
+  public static final String MVN_ANALYSIS_POMCACHE =
+      MavenActivator.MVN_PREF_PREFIX + "pom-cache";
 }
@@ -16,6 +16,7 @@
 
 package com.google.devtools.depan.maven.eclipse.preferences;
 
+import com.google.devtools.depan.maven.builder.MavenContext;
 import com.google.devtools.depan.maven.eclipse.MavenActivator;
 
 import org.eclipse.core.runtime.preferences.AbstractPreferenceInitializer;
@@ -40,5 +41,9 @@ public class AnalysisPreferencesInitializer extends AbstractPreferenceInitialize
         "");
     defaults.setDefault(AnalysisPreferenceIds.MVN_ANALYSIS_EFFECTIVEPOM,
         "help:effective-pom");
+    defaults.setDefault(AnalysisPreferenceIds.MVN_ANALYSIS_THREADS,
+        MavenContext.getDefaultThreadCount());
+    defaults.setDefault(AnalysisPreferenceIds.MVN_ANALYSIS_POMCACHE,
+        "");
   }
 }
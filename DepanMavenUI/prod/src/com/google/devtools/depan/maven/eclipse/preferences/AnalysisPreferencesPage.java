@@ -23,6 +23,7 @@ import org.eclipse.jface.preference.BooleanFieldEditor;
 import org.eclipse.jface.preference.DirectoryFieldEditor;
 import org.eclipse.jface.preference.FieldEditorPreferencePage;
 import org.eclipse.jface.preference.FileFieldEditor;
+import org.eclipse.jface.preference.IntegerFieldEditor;
 import org.eclipse.jface.preference.StringFieldEditor;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.ui.IWorkbench;
@@ -69,10 +70,21 @@ public class AnalysisPreferencesPage extends FieldEditorPreferencePage
         "Maven Effective POM command", parent);
     effectivepom.setEmptyStringAllowed(false);
 
+    IntegerFieldEditor threads = new IntegerFieldEditor(
+        AnalysisPreferenceIds.MVN_ANALYSIS_THREADS,
+        "Concurrent Maven processes", parent);
+    threads.setValidRange(1, 64);
+
+    DirectoryFieldEditor pomcache = new DirectoryFieldEditor(
+        AnalysisPreferenceIds.MVN_ANALYSIS_POMCACHE,
+        "Effective POM cache", parent);
+
     addField(executable);
     addField(systemjava);
     addField(javahome);
     addField(effectivepom);
+    addField(threads);
+    addField(pomcache);
   }
 
   @Override
@@ -16,17 +16,22 @@
 
 package com.google.devtools.depan.nodes;
 
+import com.google.devtools.depan.graph.api.Relation;
 import com.google.devtools.depan.graph.api.RelationSet;
-import com.google.devtools.depan.model.GraphEdge;
+import com.google.devtools.depan.model.CompactGraph;
 import com.google.devtools.depan.model.GraphEdgeMatcher;
 import com.google.devtools.depan.model.GraphModel;
 import com.google.devtools.depan.model.GraphNode;
+import com.google.devtools.depan.model.GraphNodeSet;
+import com.google.devtools.depan.model.RelationSets;
 
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Collected Edge Matcher algorithms (side-effect free) for DepAn Graphs.
@@ -36,6 +41,10 @@ import java.util.Map;
  * @author <a href="leeca@pnambic.com">Lee Carver</a>
  */
 public class Graphs {
+
+  /** Depth limit for {@link #getReachable} that imposes no limit. */
+  public static final int UNLIMITED_DEPTH = 0;
+
   private Graphs() {
     // Prevent instantiation of this utility class.
   }
@@ -44,6 +53,10 @@ public class Graphs {
    * Computes a set of nodes in this graph that satisfy any of the filters in
    * <code>finder</code> using <code>nodeSet</code> as input.
    *
+   * Only the edges adjacent to the nodes in {@code nodeSet} are examined,
+   * using the model's compact snapshot.  Edges are matched by their
+   * relation, as {@link GraphEdgeMatcher} does.
+   *
    * @param nodeSet A collection of nodes that are used as starting points.
    * @param finder Finder object that contains the filters.
    * @return A collection of nodes that satisfy filters with the given input.
@@ -52,16 +65,27 @@ public class Graphs {
       GraphModel model,
       Collection<GraphNode> nodeSet,
       GraphEdgeMatcher edgeMatcher) {
+    CompactGraph graph = model.getCompactGraph();
+    RelationSets.Bitmask forward = buildForwardBitmask(graph, edgeMatcher);
+    RelationSets.Bitmask reverse = buildReverseBitmask(graph, edgeMatcher);
     Collection<GraphNode> result = Sets.newHashSet();
 
-    for (GraphEdge edge : model.getEdges()) {
-      if (nodeSet.contains(edge.getHead()) &&
-          edgeMatcher.edgeForward(edge)) {
-        result.add(edge.getTail());
+    for (GraphNode node : nodeSet) {
+      int ordinal = graph.getNodeOrdinal(node);
+      if (CompactGraph.MISSING == ordinal) {
+        continue;
+      }
+      int end = graph.forwardEnd(ordinal);
+      for (int slot = graph.forwardStart(ordinal); slot < end; slot++) {
+        if (forward.containsOrdinal(graph.forwardRelation(slot))) {
+          result.add(graph.getNode(graph.forwardTarget(slot)));
+        }
       }
-      if (nodeSet.contains(edge.getTail()) &&
-          edgeMatcher.edgeReverse(edge)) {
-        result.add(edge.getHead());
+      end = graph.reverseEnd(ordinal);
+      for (int slot = graph.reverseStart(ordinal); slot < end; slot++) {
+        if (reverse.containsOrdinal(graph.reverseRelation(slot))) {
+          result.add(graph.getNode(graph.reverseTarget(slot)));
+        }
       }
     }
     return result;
@@ -81,18 +105,23 @@ public class Graphs {
       Collection<GraphNode> headNodes,
       RelationSet relationSet) {
 
-    Map<GraphNode, Integer> result = populateRelationCount(headNodes);
-    for (GraphEdge edge : model.getEdges()) {
-      GraphNode head = edge.getHead();
-      Integer update = result.get(head);
-      if (null == update) {
-        continue;
-      }
-
-      if (!relationSet.contains(edge.getRelation())) {
-        continue;
+    CompactGraph graph = model.getCompactGraph();
+    RelationSets.Bitmask relations =
+        RelationSets.createBitmask(graph, relationSet);
+    Map<GraphNode, Integer> result =
+        Maps.newHashMapWithExpectedSize(headNodes.size());
+    for (GraphNode head : headNodes) {
+      int count = 0;
+      int ordinal = graph.getNodeOrdinal(head);
+      if (CompactGraph.MISSING != ordinal) {
+        int end = graph.forwardEnd(ordinal);
+        for (int slot = graph.forwardStart(ordinal); slot < end; slot++) {
+          if (relations.containsOrdinal(graph.forwardRelation(slot))) {
+            count++;
+          }
+        }
       }
-      result.put(head, update + 1);
+      result.put(head, count);
     }
     return result;
   }
@@ -111,36 +140,194 @@ public class Graphs {
       Collection<GraphNode> tailNodes,
       RelationSet relationSet) {
 
-    Map<GraphNode, Integer> result = populateRelationCount(tailNodes);
-    for (GraphEdge edge : model.getEdges()) {
-      GraphNode tail = edge.getTail();
-      Integer update = result.get(tail);
-      if (null == update) {
-        continue;
+    CompactGraph graph = model.getCompactGraph();
+    RelationSets.Bitmask relations =
+        RelationSets.createBitmask(graph, relationSet);
+    Map<GraphNode, Integer> result =
+        Maps.newHashMapWithExpectedSize(tailNodes.size());
+    for (GraphNode tail : tailNodes) {
+      int count = 0;
+      int ordinal = graph.getNodeOrdinal(tail);
+      if (CompactGraph.MISSING != ordinal) {
+        int end = graph.reverseEnd(ordinal);
+        for (int slot = graph.reverseStart(ordinal); slot < end; slot++) {
+          if (relations.containsOrdinal(graph.reverseRelation(slot))) {
+            count++;
+          }
+        }
       }
+      result.put(tail, count);
+    }
+    return result;
+  }
 
-      if (!relationSet.contains(edge.getRelation())) {
-        continue;
+  /**
+   * Count the forward (departing) edges in the {@code RelationSet} for each
+   * member of {@code headNodes}, using the compact snapshot that is the
+   * node set's universe.
+   *
+   * @param headNodes nodes to compute edge count
+   * @param relationSet relations to use for edge count
+   * @return array of edge counts, indexed by node ordinal.  Entries for
+   *     nodes that are not in {@code headNodes} are zero.
+   */
+  static public int[] getForwardRelationCounts(
+      GraphNodeSet headNodes, RelationSet relationSet) {
+    CompactGraph graph = headNodes.getUniverse();
+    RelationSets.Bitmask relations =
+        RelationSets.createBitmask(graph, relationSet);
+
+    int[] result = new int[graph.getNodeCount()];
+    for (int head = headNodes.nextOrdinal(0); head >= 0;
+        head = headNodes.nextOrdinal(head + 1)) {
+      int count = 0;
+      int end = graph.forwardEnd(head);
+      for (int slot = graph.forwardStart(head); slot < end; slot++) {
+        if (relations.containsOrdinal(graph.forwardRelation(slot))) {
+          count++;
+        }
       }
-      result.put(tail, update + 1);
+      result[head] = count;
     }
     return result;
   }
 
   /**
-   * Populate a map of nodes to edge counts with zero as the count for every
-   * node.  This ensures that nodes with no edges are included, and avoids a
-   * test to check if the node is already in the result set.
+   * Count the reverse (incoming) edges in the {@code RelationSet} for each
+   * member of {@code tailNodes}, using the compact snapshot that is the
+   * node set's universe.
    *
-   * @param nodes collection of nodes to include in set
-   * @return map of all input nodes to the count zero
+   * @param tailNodes nodes to compute edge count
+   * @param relationSet relations to use for edge count
+   * @return array of edge counts, indexed by node ordinal.  Entries for
+   *     nodes that are not in {@code tailNodes} are zero.
    */
-  static private Map<GraphNode, Integer> populateRelationCount(
-      Collection<GraphNode> nodes) {
-    Map<GraphNode, Integer> result = Maps.newHashMap();
-    for (GraphNode node : nodes) {
-      result.put(node, 0);
+  static public int[] getReverseRelationCounts(
+      GraphNodeSet tailNodes, RelationSet relationSet) {
+    CompactGraph graph = tailNodes.getUniverse();
+    RelationSets.Bitmask relations =
+        RelationSets.createBitmask(graph, relationSet);
+
+    int[] result = new int[graph.getNodeCount()];
+    for (int tail = tailNodes.nextOrdinal(0); tail >= 0;
+        tail = tailNodes.nextOrdinal(tail + 1)) {
+      int count = 0;
+      int end = graph.reverseEnd(tail);
+      for (int slot = graph.reverseStart(tail); slot < end; slot++) {
+        if (relations.containsOrdinal(graph.reverseRelation(slot))) {
+          count++;
+        }
+      }
+      result[tail] = count;
     }
     return result;
   }
+
+  /**
+   * Compute the closure of {@code roots} under the {@code edgeMatcher}.
+   * This is a breadth-first search over the model's compact snapshot that
+   * expands only the newly discovered frontier at each step.  Edges are
+   * matched by their relation, as {@link GraphEdgeMatcher} does.
+   *
+   * @param roots starting nodes, always included in the result
+   * @param edgeMatcher edges to follow from each frontier node
+   * @param maxDepth maximum number of edges from a root,
+   *     or {@link #UNLIMITED_DEPTH}
+   * @return roots and every node reachable from them within the depth
+   *     limit.  The result is read-only; callers that need to change it
+   *     must copy it first.
+   */
+  static public Collection<GraphNode> getReachable(
+      GraphModel model,
+      Collection<GraphNode> roots,
+      GraphEdgeMatcher edgeMatcher,
+      int maxDepth) {
+    CompactGraph graph = model.getCompactGraph();
+    RelationSets.Bitmask forward = buildForwardBitmask(graph, edgeMatcher);
+    RelationSets.Bitmask reverse = buildReverseBitmask(graph, edgeMatcher);
+
+    GraphNodeSet visited = GraphNodeSet.retainOf(graph, roots);
+
+    // Every node is queued at most once, in order of discovery.
+    int[] queue = new int[graph.getNodeCount()];
+    int queueTail = 0;
+    for (int node = visited.nextOrdinal(0); node >= 0;
+        node = visited.nextOrdinal(node + 1)) {
+      queue[queueTail++] = node;
+    }
+
+    int queueHead = 0;
+    int depth = 0;
+    while ((queueHead < queueTail)
+        && ((UNLIMITED_DEPTH == maxDepth) || (depth < maxDepth))) {
+      int frontierEnd = queueTail;
+      for (; queueHead < frontierEnd; queueHead++) {
+        int node = queue[queueHead];
+
+        int end = graph.forwardEnd(node);
+        for (int slot = graph.forwardStart(node); slot < end; slot++) {
+          if (forward.containsOrdinal(graph.forwardRelation(slot))) {
+            int tail = graph.forwardTarget(slot);
+            if (visited.addOrdinal(tail)) {
+              queue[queueTail++] = tail;
+            }
+          }
+        }
+
+        end = graph.reverseEnd(node);
+        for (int slot = graph.reverseStart(node); slot < end; slot++) {
+          if (reverse.containsOrdinal(graph.reverseRelation(slot))) {
+            int head = graph.reverseTarget(slot);
+            if (visited.addOrdinal(head)) {
+              queue[queueTail++] = head;
+            }
+          }
+        }
+      }
+      depth++;
+    }
+
+    // Roots outside of the model have no edges, but are still included.
+    Set<GraphNode> result = null;
+    for (GraphNode root : roots) {
+      if (CompactGraph.MISSING == graph.getNodeOrdinal(root)) {
+        if (null == result) {
+          result = Sets.newHashSet(visited);
+        }
+        result.add(root);
+      }
+    }
+    if (null == result) {
+      return Collections.unmodifiableSet(visited);
+    }
+    return Collections.unmodifiableSet(result);
+  }
+
+  /**
+   * Relations of the snapshot's edges that the matcher follows forward,
+   * by relation ordinal.
+   */
+  private static RelationSets.Bitmask buildForwardBitmask(
+      CompactGraph graph, final GraphEdgeMatcher edgeMatcher) {
+    return RelationSets.createBitmask(graph, new RelationSet() {
+      @Override
+      public boolean contains(Relation relation) {
+        return edgeMatcher.relationForward(relation);
+      }
+    });
+  }
+
+  /**
+   * Relations of the snapshot's edges that the matcher follows in
+   * reverse, by relation ordinal.
+   */
+  private static RelationSets.Bitmask buildReverseBitmask(
+      CompactGraph graph, final GraphEdgeMatcher edgeMatcher) {
+    return RelationSets.createBitmask(graph, new RelationSet() {
+      @Override
+      public boolean contains(Relation relation) {
+        return edgeMatcher.relationReverse(relation);
+      }
+    });
+  }
 }
@@ -16,7 +16,9 @@
 
 package com.google.devtools.depan.nodes.filters.sequence;
 
+import com.google.devtools.depan.model.GraphEdgeMatcher;
 import com.google.devtools.depan.model.GraphNode;
+import com.google.devtools.depan.nodes.Graphs;
 import com.google.devtools.depan.nodes.filters.model.ContextKey;
 import com.google.devtools.depan.nodes.filters.model.ContextualFilter;
 
@@ -27,6 +29,13 @@ import java.text.MessageFormat;
 import java.util.Collection;
 
 /**
+ * Repeatedly apply a filter to the nodes it discovers, until no new nodes
+ * are found or the optional depth limit is reached.
+ * 
+ * Each step applies the filter only to the frontier of newly discovered
+ * nodes.  Closures over an {@link EdgeMatcherFilter} are computed directly
+ * as a breadth-first search of the universe's adjacency.
+ * 
  * @author <a href="leeca@pnambic.com">Lee Carver</a>
  */
 public class ClosureFilter extends BasicFilter {
@@ -35,6 +44,13 @@ public class ClosureFilter extends BasicFilter {
 
   private ContextualFilter filter;
 
+  /**
+   * Maximum number of filter steps, or {@link Graphs#UNLIMITED_DEPTH}.
+   * Unlimited is the zero value, so filters saved before the depth limit
+   * was introduced retain their unlimited behavior.
+   */
+  private int maxDepth = Graphs.UNLIMITED_DEPTH;
+
   public ClosureFilter() {
     super(FILTER_NAME_DEFAULT);
   }
@@ -52,13 +68,36 @@ public class ClosureFilter extends BasicFilter {
     this.filter = filter;
   }
 
+  public int getMaxDepth() {
+    return maxDepth;
+  }
+
+  /**
+   * @param maxDepth maximum number of filter steps,
+   *     or {@link Graphs#UNLIMITED_DEPTH}
+   */
+  public void setMaxDepth(int maxDepth) {
+    this.maxDepth = maxDepth;
+  }
+
+  private boolean isUnlimited() {
+    return Graphs.UNLIMITED_DEPTH == maxDepth;
+  }
+
   @Override
   public String buildSummary() {
     String filterName = getFilterName();
     if (null == filterName) {
-      return "Closure filter";
+      if (isUnlimited()) {
+        return "Closure filter";
+      }
+      return MessageFormat.format("Closure filter to depth {0}", maxDepth);
+    }
+    if (isUnlimited()) {
+      return MessageFormat.format("Closure on {0}", filterName);
     }
-    return MessageFormat.format("Closure on {0}", filterName);
+    return MessageFormat.format(
+        "Closure on {0} to depth {1}", filterName, maxDepth);
   }
 
   private String getFilterName() {
@@ -76,13 +115,22 @@ public class ClosureFilter extends BasicFilter {
   public Collection<GraphNode> computeNodes(Collection<GraphNode> nodes) {
     filter.receiveContext(getFilterContext());
 
+    if (filter instanceof EdgeMatcherFilter) {
+      GraphEdgeMatcher matcher = ((EdgeMatcherFilter) filter).getEdgeMatcher();
+      return Graphs.getReachable(
+          getContextUniverse(), nodes, matcher, maxDepth);
+    }
+
     Collection<GraphNode> result = Sets.newHashSet(nodes);
     Collection<GraphNode> update = Sets.newHashSet(result);
 
-    while (!update.isEmpty()) {
-      update = filter.computeNodes(update);
+    int depth = 0;
+    while (!update.isEmpty() && (isUnlimited() || (depth < maxDepth))) {
+      // Filter results may be read-only, such as Graphs.getReachable().
+      update = Sets.newHashSet(filter.computeNodes(update));
       update.removeAll(result);
       result.addAll(update);
+      depth++;
     }
     return result;
   }
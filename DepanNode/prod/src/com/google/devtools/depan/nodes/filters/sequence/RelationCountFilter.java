@@ -19,7 +19,9 @@ package com.google.devtools.depan.nodes.filters.sequence;
 import com.google.devtools.depan.graph.api.Relation;
 import com.google.devtools.depan.graph.api.RelationSet;
 import com.google.devtools.depan.graph.registry.RelationRegistry;
+import com.google.devtools.depan.model.CompactGraph;
 import com.google.devtools.depan.model.GraphNode;
+import com.google.devtools.depan.model.GraphNodeSet;
 import com.google.devtools.depan.model.RelationSets;
 import com.google.devtools.depan.nodes.Graphs;
 import com.google.devtools.depan.nodes.filters.model.ContextKey;
@@ -28,7 +30,6 @@ import com.google.common.collect.Sets;
 
 import java.text.MessageFormat;
 import java.util.Collection;
-import java.util.Map;
 import java.util.Set;
 
 /**
@@ -94,20 +95,22 @@ public class RelationCountFilter extends BasicFilter {
 
   @Override
   public Collection<GraphNode> computeNodes(Collection<GraphNode> nodes) {
+    CompactGraph graph = getContextUniverse().getCompactGraph();
+    GraphNodeSet members = GraphNodeSet.retainOf(graph, nodes);
     RelationCountBuilder builder = new RelationCountBuilder();
 
     if (null != forwardTest) {
-      Map<GraphNode, Integer> forwardNodes =
-          Graphs.getForwardRelationCount(
-              getContextUniverse(), nodes, relationSet);
-      builder.select(forwardTest, forwardNodes);
+      int[] forwardCounts =
+          Graphs.getForwardRelationCounts(members, relationSet);
+      builder.select(forwardTest, members, forwardCounts);
+      builder.selectMissing(forwardTest, nodes, graph);
     }
 
     if (null != reverseTest) {
-      Map<GraphNode, Integer> reverseNodes =
-          Graphs.getReverseRelationCount(
-              getContextUniverse(), nodes, relationSet);
-      builder.select(reverseTest, reverseNodes);
+      int[] reverseCounts =
+          Graphs.getReverseRelationCounts(members, relationSet);
+      builder.select(reverseTest, members, reverseCounts);
+      builder.selectMissing(reverseTest, nodes, graph);
     }
 
     return builder.getResult();
@@ -146,16 +149,39 @@ public class RelationCountFilter extends BasicFilter {
     }
 
     /**
-     * Determine which of nodes from the source pass the given predicate.
+     * Determine which of the member nodes pass the given predicate.
      * 
      * @param test determines which edge counts are selectable
-     * @param source collection of (node, count) pairs to filter
+     * @param members nodes to test
+     * @param counts edge counts for the members, indexed by node ordinal
      */
     public void select(
-        CountPredicate test, Map<GraphNode, Integer> source) {
-      for (Map.Entry<GraphNode, Integer> entry: source.entrySet()) {
-        if (test.include(entry.getValue())) {
-          result.add(entry.getKey());
+        CountPredicate test, GraphNodeSet members, int[] counts) {
+      CompactGraph graph = members.getUniverse();
+      for (int node = members.nextOrdinal(0); node >= 0;
+          node = members.nextOrdinal(node + 1)) {
+        if (test.include(counts[node])) {
+          result.add(graph.getNode(node));
+        }
+      }
+    }
+
+    /**
+     * Nodes outside of the universe have no edges, so they are selected
+     * only if the predicate accepts a zero count.
+     * 
+     * @param test determines which edge counts are selectable
+     * @param nodes candidate nodes
+     * @param graph universe for the edge counts
+     */
+    public void selectMissing(
+        CountPredicate test, Collection<GraphNode> nodes, CompactGraph graph) {
+      if (!test.include(0)) {
+        return;
+      }
+      for (GraphNode node : nodes) {
+        if (CompactGraph.MISSING == graph.getNodeOrdinal(node)) {
+          result.add(node);
         }
       }
     }
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.devtools.depan.nodes.trees;
+
+import com.google.devtools.depan.model.GraphNode;
+
+import java.util.Arrays;
+
+/**
+ * Assigns dense ordinals to nodes in order of first encounter.
+ * <p>
+ * This is an open-addressing hash table over parallel arrays, so indexing
+ * a node allocates nothing beyond occasional growth of the arrays.  Node
+ * equality follows {@link GraphNode#equals(Object)}, as it would for a
+ * {@code HashMap}.
+ */
+class DfsNodeIndex {
+
+  /** Ordinal reported for nodes that have not been indexed. */
+  public static final int MISSING = -1;
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  /** Nodes in ordinal order. */
+  private GraphNode[] nodes = new GraphNode[INITIAL_CAPACITY];
+
+  /** Hash slots, holding ordinal + 1 so that zero marks an empty slot. */
+  private int[] slots = new int[INITIAL_CAPACITY * 2];
+
+  private int size = 0;
+
+  public int size() {
+    return size;
+  }
+
+  public GraphNode getNode(int ordinal) {
+    return nodes[ordinal];
+  }
+
+  /**
+   * Provide the ordinal for the node, or {@link #MISSING} if the node has
+   * not been indexed.
+   */
+  public int find(GraphNode node) {
+    int mask = slots.length - 1;
+    for (int slot = spread(node.hashCode()) & mask; ;
+        slot = (slot + 1) & mask) {
+      int entry = slots[slot];
+      if (0 == entry) {
+        return MISSING;
+      }
+      if (nodes[entry - 1].equals(node)) {
+        return entry - 1;
+      }
+    }
+  }
+
+  /**
+   * Provide the ordinal for the node, assigning the next ordinal if the
+   * node has not been indexed.
+   */
+  public int intern(GraphNode node) {
+    int mask = slots.length - 1;
+    int slot = spread(node.hashCode()) & mask;
+    for (int entry = slots[slot]; 0 != entry; entry = slots[slot]) {
+      if (nodes[entry - 1].equals(node)) {
+        return entry - 1;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    int result = size++;
+    if (result == nodes.length) {
+      nodes = Arrays.copyOf(nodes, result * 2);
+    }
+    nodes[result] = node;
+    slots[slot] = result + 1;
+
+    // Keep the table at most half full.
+    if (size * 2 > slots.length) {
+      rehash(slots.length * 2);
+    }
+    return result;
+  }
+
+  private void rehash(int capacity) {
+    slots = new int[capacity];
+    int mask = capacity - 1;
+    for (int ordinal = 0; ordinal < size; ordinal++) {
+      int slot = spread(nodes[ordinal].hashCode()) & mask;
+      while (0 != slots[slot]) {
+        slot = (slot + 1) & mask;
+      }
+      slots[slot] = ordinal + 1;
+    }
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+}
@@ -18,11 +18,10 @@ package com.google.devtools.depan.nodes.trees;
 import com.google.devtools.depan.model.GraphNode;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Iterator;
 
 /**
  * Based on the depth-first-search discussion in "Introduction to Algorithms"
@@ -30,6 +29,13 @@ import java.util.Map.Entry;
  * this manages the tree-walk state as a depth-first-search is conducted
  * over a set of nodes.
  * <p>
+ * The search uses an explicit stack, so arbitrarily long successor chains
+ * do not grow the call stack.  Visit state is kept in int arrays indexed by
+ * node ordinals, which are assigned as nodes are first encountered.
+ * Discovery and exploration happen in the same order as the classic
+ * recursive formulation, so derived types such as {@link TopoSortState} can
+ * hook {@link #setExplored(GraphNode)}.
+ * <p>
  * I assume this will generalize or expand a bit going forward.
  * Perhaps it is just a small tweek to do strongly-connected graphs.
  * 
@@ -37,15 +43,23 @@ import java.util.Map.Entry;
  */
 public class DfsState {
 
-  private static class NodeState {
-    public int discovered = 0;
-    public int explored = 0;
-    public GraphNode parent = null;
-  }
+  private static final int NO_PARENT = -1;
+
+  private static final int INITIAL_CAPACITY = 64;
 
   private final TreeModel treeData;
 
-  private final Map<GraphNode, NodeState> infoMap = Maps.newHashMap();
+  private final DfsNodeIndex index = new DfsNodeIndex();
+
+  // Visit state, indexed by node ordinal.  Zero ticks means "not yet".
+  private int[] discovered = new int[INITIAL_CAPACITY];
+  private int[] explored = new int[INITIAL_CAPACITY];
+  private int[] parents = newParents(INITIAL_CAPACITY);
+
+  // Explicit DFS stack of active nodes and their remaining successors.
+  private int[] stackNodes = new int[INITIAL_CAPACITY];
+  private Object[] stackSuccessors = new Object[INITIAL_CAPACITY];
+  private int stackDepth = 0;
 
   private int ticks = 0;
 
@@ -61,40 +75,55 @@ public class DfsState {
     return treeData.hasSuccessorNodes(node);
   }
 
-  protected NodeState findNodeState(GraphNode node) {
-    return infoMap.get(node);
-  }
-
   /**
-   * @return the infoMap
+   * Provide the ordinal for the node, extending the visit state arrays
+   * if the node is new.
    */
-  protected NodeState getNodeState(GraphNode node) {
-    NodeState result = findNodeState(node);
-    if (null == result) {
-      result = new NodeState();
-      infoMap.put(node, result);
+  private int getNodeOrdinal(GraphNode node) {
+    int result = index.intern(node);
+    if (result >= discovered.length) {
+      int capacity = discovered.length * 2;
+      discovered = Arrays.copyOf(discovered, capacity);
+      explored = Arrays.copyOf(explored, capacity);
+      int oldCapacity = parents.length;
+      parents = Arrays.copyOf(parents, capacity);
+      Arrays.fill(parents, oldCapacity, capacity, NO_PARENT);
     }
     return result;
   }
 
+  private static int[] newParents(int capacity) {
+    int[] result = new int[capacity];
+    Arrays.fill(result, NO_PARENT);
+    return result;
+  }
+
   public void setPrecessor(GraphNode child, GraphNode parent) {
-    getNodeState(child).parent = parent;
+    int parentOrdinal = getNodeOrdinal(parent);
+    int childOrdinal = getNodeOrdinal(child);
+    parents[childOrdinal] = parentOrdinal;
   }
 
   public void setDiscovered(GraphNode node) {
-    getNodeState(node).discovered = nextTick();
+    int ordinal = getNodeOrdinal(node);
+    discovered[ordinal] = nextTick();
   }
 
   public void setExplored(GraphNode node) {
-    getNodeState(node).explored = nextTick();
+    int ordinal = getNodeOrdinal(node);
+    explored[ordinal] = nextTick();
   }
 
   public GraphNode getPrecessor(GraphNode node) {
-    NodeState result = infoMap.get(node);
-    if (null == result) {
+    int ordinal = index.find(node);
+    if (DfsNodeIndex.MISSING == ordinal) {
+      return null;
+    }
+    int parent = parents[ordinal];
+    if (NO_PARENT == parent) {
       return null;
     }
-    return result.parent;
+    return index.getNode(parent);
   }
 
   /**
@@ -103,11 +132,11 @@ public class DfsState {
    * @return true iff the Node has never been visited
    */
   public boolean isUnvisited(GraphNode node) {
-    NodeState result = infoMap.get(node);
-    if (null == result) {
+    int ordinal = index.find(node);
+    if (DfsNodeIndex.MISSING == ordinal) {
       return true;
     }
-    return (0 == result.discovered);
+    return (0 == discovered[ordinal]);
   }
 
   /**
@@ -116,19 +145,19 @@ public class DfsState {
    * @return true iff the Node has been visited but not fully explored
    */
   public boolean isActive(GraphNode node) {
-    NodeState result = findNodeState(node);
-    if (null == result) {
+    int ordinal = index.find(node);
+    if (DfsNodeIndex.MISSING == ordinal) {
       return false;
     }
-    return ((result.discovered > 0) && (0 == result.explored));
+    return ((discovered[ordinal] > 0) && (0 == explored[ordinal]));
   }
 
   public boolean isDiscovered(GraphNode node) {
-    NodeState result = findNodeState(node);
-    if (null == result) {
+    int ordinal = index.find(node);
+    if (DfsNodeIndex.MISSING == ordinal) {
       return false;
     }
-    return (result.discovered > 0);
+    return (discovered[ordinal] > 0);
   }
 
   /**
@@ -137,16 +166,32 @@ public class DfsState {
    * @return true iff the Node has been fully explored
    */
   public boolean isExplored(GraphNode node) {
-    NodeState result = findNodeState(node);
-    if (null == result) {
+    int ordinal = index.find(node);
+    if (DfsNodeIndex.MISSING == ordinal) {
       return false;
     }
-    return (result.explored > 0);
+    return (explored[ordinal] > 0);
   }
 
-  public void visitNode(GraphNode parent) {
-    setDiscovered(parent);
-    for(GraphNode child : treeData.getSuccessorNodes(parent)) {
+  public void visitNode(GraphNode root) {
+    setDiscovered(root);
+    pushNode(root);
+
+    while (stackDepth > 0) {
+      int top = stackDepth - 1;
+      GraphNode parent = index.getNode(stackNodes[top]);
+      @SuppressWarnings("unchecked")
+      Iterator<GraphNode> successors =
+          (Iterator<GraphNode>) stackSuccessors[top];
+
+      if (!successors.hasNext()) {
+        stackSuccessors[top] = null;
+        stackDepth = top;
+        setExplored(parent);
+        continue;
+      }
+
+      GraphNode child = successors.next();
       // Ignore self loops, too.
       if (child == parent) {
         continue;
@@ -155,21 +200,39 @@ public class DfsState {
       // set it's predecessor if it doesn't have one.
       // This appears to be a bug in the CLR version of DFS-visit(u)
       // from section 23.3.
-      if (null == getPrecessor(child)) {
-        setPrecessor(child, parent);
+      int childOrdinal = getNodeOrdinal(child);
+      if (NO_PARENT == parents[childOrdinal]) {
+        parents[childOrdinal] = stackNodes[top];
       }
-      if (isUnvisited(child)) {
-        visitNode(child);
+      if (0 == discovered[childOrdinal]) {
+        setDiscovered(child);
+        pushNode(child);
       }
     }
-    setExplored(parent);
   }
 
+  private void pushNode(GraphNode node) {
+    if (stackDepth == stackNodes.length) {
+      int capacity = stackDepth * 2;
+      stackNodes = Arrays.copyOf(stackNodes, capacity);
+      stackSuccessors = Arrays.copyOf(stackSuccessors, capacity);
+    }
+    int ordinal = getNodeOrdinal(node);
+    stackNodes[stackDepth] = ordinal;
+    stackSuccessors[stackDepth] =
+        treeData.getSuccessorNodes(node).iterator();
+    stackDepth++;
+  }
+
+  /**
+   * Provide the visited nodes that have no predecessor,
+   * in the order they were first encountered.
+   */
   public Collection<GraphNode> extractRoots() {
     Collection<GraphNode> result = Lists.newArrayList();
-    for (Entry<GraphNode, NodeState> entry : infoMap.entrySet()) {
-      if (null == entry.getValue().parent) {
-        result.add(entry.getKey());
+    for (int ordinal = 0; ordinal < index.size(); ordinal++) {
+      if (NO_PARENT == parents[ordinal]) {
+        result.add(index.getNode(ordinal));
       }
     }
     return result;
@@ -121,15 +121,6 @@ public class HierarchicalTreeModel implements TreeModel {
    */
   private Collection<GraphNode> computeRoots(
       Collection<GraphNode> universe) {
-
-    DfsState dfsState = new DfsState(this);
-
-    for (GraphNode node : universe) {
-      if (dfsState.isUnvisited(node)) {
-        dfsState.visitNode(node);
-      }
-    }
-
-    return dfsState.extractRoots();
+    return Trees.computeRoots(this, universe);
   }
 }
@@ -23,6 +23,8 @@ import com.google.devtools.depan.model.GraphNode;
 
 import com.google.common.collect.Sets;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -124,4 +126,39 @@ public class Trees {
     }
     return builder.getSuccessorMap();
   }
+
+  /**
+   * Provide a collection of nodes to serve as roots of a tree.
+   * <p>
+   * The returned set of nodes guarantees a successor path to
+   * every node in the universe.
+   * 
+   * @param treeModel successor relationships to search
+   * @param universe set of node for root discovery
+   * @return collection of root nodes
+   */
+  static public Collection<GraphNode> computeRoots(
+      TreeModel treeModel, Collection<GraphNode> universe) {
+    DfsState dfsState = new DfsState(treeModel);
+
+    for (GraphNode node : universe) {
+      if (dfsState.isUnvisited(node)) {
+        dfsState.visitNode(node);
+      }
+    }
+
+    return dfsState.extractRoots();
+  }
+
+  /**
+   * Compute a topological ordering of the interior nodes in the universe.
+   * 
+   * @param treeModel successor relationships to order
+   * @param universe Collection of Nodes to order
+   * @return a topological permutation of the interior nodes
+   */
+  static public List<GraphNode> topoSort(
+      TreeModel treeModel, Collection<GraphNode> universe) {
+    return new TopoSortState(treeModel).topoSort(universe);
+  }
 }
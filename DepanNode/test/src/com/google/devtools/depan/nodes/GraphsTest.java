@@ -17,8 +17,10 @@
 package com.google.devtools.depan.nodes;
 
 import com.google.devtools.depan.graph.api.RelationSet;
+import com.google.devtools.depan.model.CompactGraph;
 import com.google.devtools.depan.model.GraphModel;
 import com.google.devtools.depan.model.GraphNode;
+import com.google.devtools.depan.model.GraphNodeSet;
 import com.google.devtools.depan.model.RelationSets;
 import com.google.devtools.depan.test.TestUtils;
 
@@ -26,6 +28,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 
 /**
@@ -83,4 +86,57 @@ public class GraphsTest {
     Assert.assertEquals(3, reverseMap.get(nodeArray[3]).intValue());
     Assert.assertEquals(4, reverseMap.get(nodeArray[4]).intValue());
   }
+
+  @Test
+  public void testGetRelationCounts() {
+    GraphNode[] nodeArray = TestUtils.buildNodes(5);
+    GraphModel test = TestUtils.buildComplete(nodeArray, TestUtils.RELATION);
+
+    CompactGraph graph = test.getCompactGraph();
+    GraphNodeSet nodeSet = GraphNodeSet.allOf(graph);
+    RelationSet relationSet = RelationSets.createSingle(TestUtils.RELATION);
+
+    int[] forward = Graphs.getForwardRelationCounts(nodeSet, relationSet);
+    int[] reverse = Graphs.getReverseRelationCounts(nodeSet, relationSet);
+    for (int index = 0; index < nodeArray.length; index++) {
+      int ordinal = graph.getNodeOrdinal(nodeArray[index]);
+      Assert.assertEquals(4 - index, forward[ordinal]);
+      Assert.assertEquals(index, reverse[ordinal]);
+    }
+
+    int[] none = Graphs.getForwardRelationCounts(nodeSet, RelationSets.EMPTY);
+    Assert.assertEquals(0, none[graph.getNodeOrdinal(nodeArray[0])]);
+  }
+
+  @Test
+  public void testGetRelated() {
+    GraphNode[] nodeArray = TestUtils.buildNodes(5);
+    GraphModel test = TestUtils.buildComplete(nodeArray, TestUtils.RELATION);
+
+    Collection<GraphNode> forward = Graphs.getRelated(
+        test, Collections.singleton(nodeArray[3]), TestUtils.FORWARD);
+    Assert.assertEquals(1, forward.size());
+    Assert.assertTrue(forward.contains(nodeArray[4]));
+
+    Collection<GraphNode> reverse = Graphs.getRelated(
+        test, Collections.singleton(nodeArray[1]), TestUtils.REVERSE);
+    Assert.assertEquals(1, reverse.size());
+    Assert.assertTrue(reverse.contains(nodeArray[0]));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testGetReachable() {
+    GraphNode[] nodeArray = TestUtils.buildNodes(5);
+    GraphModel test = TestUtils.buildComplete(nodeArray, TestUtils.RELATION);
+
+    Collection<GraphNode> reachable = Graphs.getReachable(
+        test, Collections.singleton(nodeArray[3]), TestUtils.FORWARD,
+        Graphs.UNLIMITED_DEPTH);
+    Assert.assertEquals(2, reachable.size());
+    Assert.assertTrue(reachable.contains(nodeArray[3]));
+    Assert.assertTrue(reachable.contains(nodeArray[4]));
+
+    // The result is read-only.
+    reachable.add(nodeArray[0]);
+  }
 }
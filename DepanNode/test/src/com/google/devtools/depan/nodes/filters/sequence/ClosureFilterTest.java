@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.nodes.filters.sequence;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.devtools.depan.graph.basic.BasicEdge;
+import com.google.devtools.depan.model.GraphEdge;
+import com.google.devtools.depan.model.GraphEdgeMatcher;
+import com.google.devtools.depan.model.GraphModel;
+import com.google.devtools.depan.model.GraphNode;
+import com.google.devtools.depan.nodes.filters.context.MapContext;
+import com.google.devtools.depan.nodes.filters.model.ContextKey;
+import com.google.devtools.depan.nodes.filters.model.ContextualFilter;
+import com.google.devtools.depan.test.TestUtils;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+public class ClosureFilterTest {
+
+  private final GraphNode[] nodes = TestUtils.buildNodes(5);
+
+  private final MapContext context = buildChainContext(nodes);
+
+  /**
+   * Build a context whose universe is the chain
+   * {@code nodes[0] -> nodes[1] -> ... -> nodes[n-1]}.
+   */
+  private static MapContext buildChainContext(GraphNode[] nodes) {
+    Set<BasicEdge<? extends String>> edges = Sets.newHashSet();
+    for (int index = 1; index < nodes.length; index++) {
+      edges.add(
+          new GraphEdge(nodes[index - 1], nodes[index], TestUtils.RELATION));
+    }
+    GraphModel chain = TestUtils.buildGraphModel(nodes, edges);
+
+    Map<ContextKey, Object> mappings = Maps.newHashMap();
+    mappings.put(ContextKey.Base.UNIVERSE, chain);
+    return new MapContext(mappings);
+  }
+
+  private Collection<GraphNode> computeClosure(
+      ContextualFilter step, GraphNode root, int maxDepth) {
+    ClosureFilter closure = new ClosureFilter();
+    closure.setFilter(step);
+    closure.setMaxDepth(maxDepth);
+    closure.receiveContext(context);
+    return closure.computeNodes(Collections.singleton(root));
+  }
+
+  /** Hide the edge matcher from the adjacency search. */
+  private static ContextualFilter wrap(GraphEdgeMatcher matcher) {
+    SteppingFilter result = new SteppingFilter();
+    result.setSteps(
+        Collections.<ContextualFilter>singletonList(
+            new EdgeMatcherFilter(matcher)));
+    return result;
+  }
+
+  @Test
+  public void testForwardClosure() {
+    EdgeMatcherFilter forward = new EdgeMatcherFilter(TestUtils.FORWARD);
+    assertEquals(ImmutableSet.copyOf(nodes),
+        computeClosure(forward, nodes[0], 0));
+    assertEquals(ImmutableSet.of(nodes[0], nodes[1], nodes[2]),
+        computeClosure(forward, nodes[0], 2));
+    assertEquals(ImmutableSet.of(nodes[4]),
+        computeClosure(forward, nodes[4], 0));
+  }
+
+  @Test
+  public void testReverseClosure() {
+    EdgeMatcherFilter reverse = new EdgeMatcherFilter(TestUtils.REVERSE);
+    assertEquals(ImmutableSet.copyOf(nodes),
+        computeClosure(reverse, nodes[4], 0));
+    assertEquals(ImmutableSet.of(nodes[3], nodes[4]),
+        computeClosure(reverse, nodes[4], 1));
+  }
+
+  @Test
+  public void testGeneralClosure() {
+    assertEquals(ImmutableSet.copyOf(nodes),
+        computeClosure(wrap(TestUtils.FORWARD), nodes[0], 0));
+    assertEquals(ImmutableSet.of(nodes[1], nodes[2], nodes[3]),
+        computeClosure(wrap(TestUtils.FORWARD), nodes[1], 2));
+  }
+}
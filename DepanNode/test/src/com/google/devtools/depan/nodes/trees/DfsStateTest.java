@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.devtools.depan.nodes.trees;
+
+import com.google.devtools.depan.graph.basic.BasicEdge;
+import com.google.devtools.depan.model.GraphEdge;
+import com.google.devtools.depan.model.GraphModel;
+import com.google.devtools.depan.model.GraphNode;
+import com.google.devtools.depan.test.TestUtils;
+
+import com.google.common.collect.Sets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public class DfsStateTest {
+
+  private static TreeModel buildChain(GraphNode[] nodes) {
+    Set<BasicEdge<? extends String>> edges = Sets.newHashSet();
+    for (int index = 1; index < nodes.length; index++) {
+      edges.add(
+          new GraphEdge(nodes[index - 1], nodes[index], TestUtils.RELATION));
+    }
+    GraphModel chain = TestUtils.buildGraphModel(nodes, edges);
+    return new HierarchicalTreeModel(
+        Trees.computeSuccessorHierarchy(chain, TestUtils.FORWARD));
+  }
+
+  @Test
+  public void testVisitStates() {
+    GraphNode[] nodes = TestUtils.buildNodes(3);
+    DfsState state = new DfsState(buildChain(nodes));
+
+    Assert.assertTrue(state.isUnvisited(nodes[1]));
+    state.visitNode(nodes[1]);
+    Assert.assertTrue(state.isExplored(nodes[1]));
+    Assert.assertTrue(state.isExplored(nodes[2]));
+    Assert.assertFalse(state.isActive(nodes[2]));
+    Assert.assertTrue(state.isUnvisited(nodes[0]));
+    Assert.assertSame(nodes[1], state.getPrecessor(nodes[2]));
+    Assert.assertNull(state.getPrecessor(nodes[1]));
+
+    state.visitNode(nodes[0]);
+    Assert.assertSame(nodes[0], state.getPrecessor(nodes[1]));
+    Assert.assertEquals(
+        Arrays.asList(nodes[0]), state.extractRoots());
+  }
+
+  @Test
+  public void testDeepChain() {
+    // Deep enough to overflow a recursive search.
+    GraphNode[] nodes = TestUtils.buildNodes(100000);
+    TreeModel chain = buildChain(nodes);
+
+    Collection<GraphNode> roots =
+        Trees.computeRoots(chain, Arrays.asList(nodes));
+    Assert.assertEquals(Arrays.asList(nodes[0]), roots);
+
+    // Leaves are omitted, and interior nodes finish deepest first.
+    List<GraphNode> order = Trees.topoSort(chain, Arrays.asList(nodes));
+    Assert.assertEquals(nodes.length - 1, order.size());
+    Assert.assertSame(nodes[nodes.length - 2], order.get(0));
+    Assert.assertSame(nodes[0], order.get(order.size() - 1));
+  }
+}
@@ -40,12 +40,30 @@ import javax.xml.parsers.SAXParserFactory;
  * @author <a href="leeca@pnambic.com">Lee Carver</a>
  */
 public class PushDownXmlHandler extends DefaultHandler {
+
+  /**
+   * Locating the parser implementation is costly, so each thread keeps
+   * its own factory.  Factories are not guaranteed to be thread-safe.
+   */
+  private static final ThreadLocal<SAXParserFactory> PARSER_FACTORY =
+      new ThreadLocal<SAXParserFactory>() {
+
+        @Override
+        protected SAXParserFactory initialValue() {
+          return SAXParserFactory.newInstance();
+        }
+      };
   
   public static interface ElementHandler {
 
     boolean isFor(String name);
 
-    void processText(String text);
+    /**
+     * Accept the next characters of the element's text.  The parser
+     * reuses the {@code text} array, so handlers that keep the text
+     * must copy the characters before returning.
+     */
+    void processText(char[] text, int start, int length);
 
     ElementHandler newChild(String name);
 
@@ -72,7 +90,7 @@ public class PushDownXmlHandler extends DefaultHandler {
     }
 
     @Override
-    public void processText(String text) {
+    public void processText(char[] text, int start, int length) {
       // nothing to do
     }
 
@@ -96,7 +114,7 @@ public class PushDownXmlHandler extends DefaultHandler {
     }
 
     @Override
-    public void processText(String text) {
+    public void processText(char[] text, int start, int length) {
       // nothing to do
     }
 
@@ -120,7 +138,7 @@ public class PushDownXmlHandler extends DefaultHandler {
     }
 
     @Override
-    public void processText(String text) {
+    public void processText(char[] text, int start, int length) {
       // nothing to do
     }
 
@@ -145,8 +163,8 @@ public class PushDownXmlHandler extends DefaultHandler {
     }
 
     @Override
-    public void processText(String text) {
-      builder.append(text);
+    public void processText(char[] text, int start, int length) {
+      builder.append(text, start, length);
     }
 
     @Override
@@ -193,7 +211,7 @@ public class PushDownXmlHandler extends DefaultHandler {
     }
 
     @Override
-    public void processText(String text) {
+    public void processText(char[] text, int start, int length) {
       throw new UnsupportedOperationException(
           "Document element should never process text");
     }
@@ -256,7 +274,7 @@ public class PushDownXmlHandler extends DefaultHandler {
   @Override // from sax..DefaultHandler
   public void characters(char[] ch, int start, int length)
       throws SAXException {
-    top().processText(new String(ch, start, length));
+    top().processText(ch, start, length);
   }
 
   @Override // from sax..DefaultHandler
@@ -321,7 +339,6 @@ public class PushDownXmlHandler extends DefaultHandler {
   }
 
   private SAXParser buildParser() throws ParserConfigurationException, SAXException {
-    SAXParserFactory factory = SAXParserFactory.newInstance();
-    return factory.newSAXParser();
+    return PARSER_FACTORY.get().newSAXParser();
   }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.pushxml;
+
+import static org.junit.Assert.*;
+
+import com.google.devtools.depan.pushxml.PushDownXmlHandler.DocumentHandler;
+import com.google.devtools.depan.pushxml.PushDownXmlHandler.ElementHandler;
+import com.google.devtools.depan.pushxml.PushDownXmlHandler.NestingElementHandler;
+import com.google.devtools.depan.pushxml.PushDownXmlHandler.TextElementHandler;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+import org.xml.sax.InputSource;
+
+import java.io.StringReader;
+import java.util.List;
+
+public class PushDownXmlHandlerTest {
+
+  @Test
+  public void testText() throws Exception {
+    List<String> result = parseItems(
+        "<items><item>one</item><skip>ignored<item>no</item></skip>"
+        + "<item>a &amp; b</item><item></item></items>");
+    assertEquals(Lists.newArrayList("one", "a & b", ""), result);
+  }
+
+  @Test
+  public void testLongText() throws Exception {
+    // Longer than any parser buffer, so delivered in several chunks.
+    String longText = Strings.repeat("0123456789", 100000);
+    List<String> result = parseItems(
+        "<items><item>" + longText + "</item><item>after</item></items>");
+    assertEquals(Lists.newArrayList(longText, "after"), result);
+  }
+
+  private static List<String> parseItems(String document) throws Exception {
+    ItemsDocument items = new ItemsDocument();
+    PushDownXmlHandler.parseDocument(
+        items, new InputSource(new StringReader(document)));
+    return items.getItems();
+  }
+
+  private static class ItemsDocument extends DocumentHandler {
+
+    private final List<TextElementHandler> items = Lists.newArrayList();
+
+    @Override
+    protected ElementHandler newDocumentElement(String name) {
+      return new NestingElementHandler() {
+
+        @Override
+        public boolean isFor(String elementName) {
+          return name.equals(elementName);
+        }
+
+        @Override
+        public ElementHandler newChild(String childName) {
+          if ("item".equals(childName)) {
+            TextElementHandler item = new TextElementHandler(childName);
+            items.add(item);
+            return item;
+          }
+          return super.newChild(childName);
+        }
+      };
+    }
+
+    public List<String> getItems() {
+      List<String> result = Lists.newArrayList();
+      for (TextElementHandler item : items) {
+        result.add(item.getText());
+      }
+      return result;
+    }
+  }
+}
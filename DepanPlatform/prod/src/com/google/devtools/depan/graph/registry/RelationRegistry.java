@@ -17,6 +17,7 @@
 package com.google.devtools.depan.graph.registry;
 
 import com.google.devtools.depan.graph.api.Relation;
+import com.google.devtools.depan.model.RelationOrdinals;
 import com.google.devtools.depan.platform.PlatformLogger;
 import com.google.devtools.depan.platform.plugin.ContributionEntry;
 import com.google.devtools.depan.platform.plugin.ContributionRegistry;
@@ -43,7 +44,8 @@ import java.util.Map;
  * @author Lee Carver
  */
 public class RelationRegistry extends
-    ContributionRegistry<RelationContributor> {
+    ContributionRegistry<RelationContributor>
+    implements RelationOrdinals {
 
   /**
    * Extension point name for persistence configuration
@@ -72,6 +74,14 @@ public class RelationRegistry extends
   private Map<Relation, RelationContributor> relationToContrib =
       Maps.newHashMap();
 
+  /**
+   * Dense ordinals for every contributed relation, assigned in contribution
+   * order when the registry is loaded.
+   */
+  private Map<Relation, Integer> relationToOrdinal = Maps.newHashMap();
+
+  private List<Relation> ordinalToRelation = Lists.newArrayList();
+
   /**
    * Singleton class: private constructor to prevent instantiation.
    */
@@ -102,6 +112,10 @@ public class RelationRegistry extends
       RelationContributor contrib = entry.getInstance();
       for (Relation relation : contrib.getRelations()) {
         relationToContrib .put(relation, contrib);
+        if (!relationToOrdinal.containsKey(relation)) {
+          relationToOrdinal.put(relation, ordinalToRelation.size());
+          ordinalToRelation.add(relation);
+        }
       }
     }
   }
@@ -135,6 +149,28 @@ public class RelationRegistry extends
     return result;
   }
 
+  /////////////////////////////////////
+  // Relation ordinals
+
+  @Override
+  public int getRelationCount() {
+    return ordinalToRelation.size();
+  }
+
+  @Override
+  public Relation getRelation(int ordinal) {
+    return ordinalToRelation.get(ordinal);
+  }
+
+  @Override
+  public int getRelationOrdinal(Relation relation) {
+    Integer result = relationToOrdinal.get(relation);
+    if (null == result) {
+      return MISSING;
+    }
+    return result;
+  }
+
   private String getRelationSource(Relation relation) {
     RelationContributor result = relationToContrib.get(relation);
     if (null != result) {
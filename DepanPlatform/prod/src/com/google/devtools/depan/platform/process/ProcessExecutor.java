@@ -16,23 +16,55 @@
 
 package com.google.devtools.depan.platform.process;
 
+import java.io.BufferedReader;
+import java.io.FilterReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.charset.Charset;
 
 /**
  * Execute a system {@link Process} on this thread.  Standard input and
  * output are collected via per-process threads and their contents
  * are available after {@link #execProcess(ProcessBuilder)} terminates.
+ *
+ * Output is decoded with an explicit {@link Charset}, the platform's
+ * default unless configured otherwise, and read in blocks.  Derived
+ * classes can limit the output kept in memory, with the remainder kept
+ * in a temporary file, and can parse standard output as it arrives with
+ * an {@link OutputConsumer}.  Call {@link #dispose()} once the output is
+ * no longer needed.
  * 
  * @author <a href="mailto:leeca@pnambic.com">Lee Carver</a>
  */
 public abstract class ProcessExecutor {
 
+  /** Memory limit that keeps all output in memory. */
+  public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+  /** Number of characters read from the process at a time. */
+  static final int BUFFER_SIZE = 8192;
+
+  /**
+   * Handles the standard output of a process as it arrives.
+   */
+  public static interface OutputConsumer {
+
+    /**
+     * Read the process output.  Any output left unread when this
+     * method returns is captured as usual.
+     */
+    void consume(Reader output) throws IOException;
+  }
+
+  private Charset charset = Charset.defaultCharset();
+  private int memoryLimit = UNBOUNDED;
+  private OutputConsumer outConsumer;
+
   private int exitCode;
-  private String outText;
-  private String errText;
+  private ProcessOutput outText;
+  private ProcessOutput errText;
 
   /**
    * Hook method for derived classes to configure the output thread.
@@ -50,6 +82,29 @@ public abstract class ProcessExecutor {
    */
   protected abstract void configErrThread(Thread forErr);
 
+  /**
+   * Set the encoding of the process's output.
+   */
+  protected void setCharset(Charset charset) {
+    this.charset = charset;
+  }
+
+  /**
+   * Set the number of characters of each output stream to keep in
+   * memory.  Longer output is kept in a temporary file.
+   */
+  protected void setMemoryLimit(int memoryLimit) {
+    this.memoryLimit = memoryLimit;
+  }
+
+  /**
+   * Set a consumer for standard output, or {@code null} to capture
+   * all of it.
+   */
+  protected void setOutConsumer(OutputConsumer outConsumer) {
+    this.outConsumer = outConsumer;
+  }
+
   /**
    * Compute the effective POM for the supplied POM definition file.
    * After this method returns, various results from the execution can
@@ -59,74 +114,157 @@ public abstract class ProcessExecutor {
    * This is a Template method which relies on the methods
    * {@link #configOutThread(Thread)} and {@link #configErrThread(Thread)}.
    * Each derived class is expected to implement these hook methods.
+   *
+   * @throws IOException if the output cannot be read, or the output
+   *     consumer fails
    */
   protected void execProcess(ProcessBuilder builder)
       throws IOException, InterruptedException {
     Process process = builder.start();
 
-    ReaderThread outThread = new ReaderThread(process.getInputStream());
+    outText = new ProcessOutput(charset, memoryLimit);
+    ReaderThread outThread = new ReaderThread(
+        process.getInputStream(), charset, outText, outConsumer);
     configOutThread(outThread);
     outThread.start();
 
-    ReaderThread errThread = new ReaderThread(process.getErrorStream());
+    errText = new ProcessOutput(charset, memoryLimit);
+    ReaderThread errThread = new ReaderThread(
+        process.getErrorStream(), charset, errText, null);
     configErrThread(errThread);
     errThread.start();
 
     exitCode = process.waitFor();
-    outThread.shutdown();
-    errThread.shutdown();
+    outThread.join();
+    errThread.join();
 
-    outText = outThread.getResult();
-    errText = errThread.getResult();
+    outThread.checkResult();
+    errThread.checkResult();
   }
 
   public int getExitCode() {
     return exitCode;
   }
 
-  public String getOut() {
+  /**
+   * Provide the captured standard output as a single string.
+   */
+  public String getOut() throws IOException {
+    return getText(outText);
+  }
+
+  /**
+   * Provide the captured standard error as a single string.
+   */
+  public String getErr() throws IOException {
+    return getText(errText);
+  }
+
+  /**
+   * Provide the captured standard output, or {@code null} if the process
+   * has not run.
+   */
+  public ProcessOutput getOutput() {
     return outText;
   }
 
-  public String getErr() {
+  /**
+   * Provide the captured standard error, or {@code null} if the process
+   * has not run.
+   */
+  public ProcessOutput getErrorOutput() {
     return errText;
   }
 
-  private static class ReaderThread extends Thread {
-    private InputStream input;
-    private StringBuilder result = new StringBuilder();
+  /**
+   * Release any temporary files used for the captured output.
+   */
+  public void dispose() {
+    if (null != outText) {
+      outText.dispose();
+    }
+    if (null != errText) {
+      errText.dispose();
+    }
+  }
 
-    public ReaderThread(InputStream input) {
-      this.input = input;
+  private static String getText(ProcessOutput output) throws IOException {
+    if (null == output) {
+      return null;
     }
+    return output.getText();
+  }
+
+  private static class ReaderThread extends Thread {
+    private final Reader reader;
+    private final ProcessOutput result;
+    private final OutputConsumer consumer;
 
-    public String getResult() {
-      return result.toString();
+    private IOException failure;
+
+    public ReaderThread(InputStream input, Charset charset,
+        ProcessOutput result, OutputConsumer consumer) {
+      this.reader = new BufferedReader(
+          new InputStreamReader(input, charset), BUFFER_SIZE);
+      this.result = result;
+      this.consumer = consumer;
     }
 
-    public void shutdown() {
-      if (isAlive()) {
-        interrupt();
+    /**
+     * Report any failure to read or consume the output.
+     */
+    public void checkResult() throws IOException {
+      if (null != failure) {
+        throw failure;
       }
     }
 
     @Override
     public void run() {
-      Reader reader = new InputStreamReader(input);
-      boolean ready = true;
-      while (ready) {
+      try {
         try {
-          // It's OK if this blocks until a character is ready.
-          int next = reader.read();
-          if (next < 0) {
-            ready = false;
-          } else {
-            result.append((char) next);
+          if (null != consumer) {
+            consumer.consume(new UnclosableReader(reader));
           }
-        } catch (IOException e) {
-          ready = false;
+        } finally {
+          // Always drain the stream, so the process can not block
+          // on a full pipe.
+          captureRemaining();
         }
+      } catch (IOException errIo) {
+        failure = errIo;
+      } catch (RuntimeException errRuntime) {
+        failure = new IOException(
+            "Unable to consume process output", errRuntime);
       }
     }
+
+    private void captureRemaining() throws IOException {
+      char[] buffer = new char[BUFFER_SIZE];
+      try {
+        int count;
+        while ((count = reader.read(buffer)) >= 0) {
+          result.append(buffer, count);
+        }
+      } finally {
+        result.finish();
+        reader.close();
+      }
+    }
+  }
+
+  /**
+   * Keeps consumers, such as XML parsers, from closing the stream before
+   * the rest of the output is captured.
+   */
+  private static class UnclosableReader extends FilterReader {
+
+    public UnclosableReader(Reader reader) {
+      super(reader);
+    }
+
+    @Override
+    public void close() {
+    }
   }
 }
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2026 The Depan Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.depan.platform.process;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+/**
+ * Captured text from one output stream of a system {@link Process}.
+ *
+ * Text is kept in memory up to a limit.  Beyond that, all the text is
+ * moved to a temporary file, and the rest of the output is appended
+ * there.  Call {@link #dispose()} to delete the temporary file once the
+ * text is no longer needed.
+ */
+public class ProcessOutput {
+
+  private final Charset charset;
+
+  /** Number of characters kept in memory before using a file. */
+  private final int memoryLimit;
+
+  private final StringBuilder memory = new StringBuilder();
+
+  private long length;
+
+  /** {@code null} until the output exceeds the memory limit. */
+  private File spillFile;
+
+  private Writer spill;
+
+  /**
+   * @param charset encoding for the temporary file
+   * @param memoryLimit number of characters to keep in memory
+   */
+  public ProcessOutput(Charset charset, int memoryLimit) {
+    this.charset = charset;
+    this.memoryLimit = memoryLimit;
+  }
+
+  /**
+   * Add the next {@code count} characters of output.
+   */
+  public void append(char[] chars, int count) throws IOException {
+    length += count;
+    if ((null == spill) && (count <= memoryLimit - memory.length())) {
+      memory.append(chars, 0, count);
+      return;
+    }
+    if (null == spill) {
+      startSpill();
+    }
+    spill.write(chars, 0, count);
+  }
+
+  /**
+   * Indicate that the output is complete.
+   */
+  public void finish() throws IOException {
+    if (null != spill) {
+      spill.close();
+    }
+  }
+
+  /**
+   * Provide the number of characters of output.
+   */
+  public long length() {
+    return length;
+  }
+
+  /**
+   * Indicate whether the output was moved to a temporary file.
+   */
+  public boolean isSpilled() {
+    return null != spillFile;
+  }
+
+  /**
+   * Provide the complete output as a single string.  Output that was
+   * moved to a temporary file is read back into memory.
+   */
+  public String getText() throws IOException {
+    if (!isSpilled()) {
+      return memory.toString();
+    }
+
+    StringBuilder result = new StringBuilder();
+    char[] buffer = new char[ProcessExecutor.BUFFER_SIZE];
+    Reader reader = openReader();
+    try {
+      int count;
+      while ((count = reader.read(buffer)) >= 0) {
+        result.append(buffer, 0, count);
+      }
+    } finally {
+      reader.close();
+    }
+    return result.toString();
+  }
+
+  /**
+   * Provide the last {@code maxChars} characters of output, such as for
+   * reporting a failure.  Output that was moved to a temporary file is
+   * read as a stream, so only about twice the result is kept in memory.
+   */
+  public String getTail(int maxChars) throws IOException {
+    if (!isSpilled()) {
+      return memory.substring(Math.max(0, memory.length() - maxChars));
+    }
+
+    StringBuilder result = new StringBuilder();
+    char[] buffer = new char[ProcessExecutor.BUFFER_SIZE];
+    Reader reader = openReader();
+    try {
+      int count;
+      while ((count = reader.read(buffer)) >= 0) {
+        result.append(buffer, 0, count);
+        if (result.length() - maxChars > maxChars) {
+          result.delete(0, result.length() - maxChars);
+        }
+      }
+    } finally {
+      reader.close();
+    }
+    if (result.length() > maxChars) {
+      result.delete(0, result.length() - maxChars);
+    }
+    return result.toString();
+  }
+
+  /**
+   * Provide a reader for the complete output, without reading it all
+   * into memory.
+   */
+  public Reader openReader() throws IOException {
+    if (!isSpilled()) {
+      return new StringReader(memory.toString());
+    }
+    return new BufferedReader(new InputStreamReader(
+        new FileInputStream(spillFile), charset));
+  }
+
+  /**
+   * Release the temporary file, if any.
+   */
+  public void dispose() {
+    if (null != spillFile) {
+      spillFile.delete();
+    }
+  }
+
+  private void startSpill() throws IOException {
+    spillFile = File.createTempFile("depan-process", ".out");
+    spillFile.deleteOnExit();
+    spill = new OutputStreamWriter(new FileOutputStream(spillFile), charset);
+    spill.append(memory);
+    memory.setLength(0);
+    memory.trimToSize();
+  }
+}